@@ -0,0 +1,102 @@
+package benchmarks;
+
+import allocation.AllocationInput;
+import allocation.AllocationJob;
+import allocation.AllocationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Time of one allocation run on synthetic applicants, with a growing number of worker threads.
+// No database is involved, only AllocationJob is measured.
+// Run for example: java -jar target/benchmarks.jar AllocationBenchmark -p threads=1,2,4
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllocationBenchmark {
+    // 10 elective subjects give 45 distinct elective pairs
+    private static final int ELECTIVE_SUBJECTS = 10;
+
+    @Param({"500000"})
+    public int users;
+
+    @Param({"5000"})
+    public int programs;
+
+    // Grants of every program
+    @Param({"50"})
+    public int quota;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private AllocationInput input;
+    private ForkJoinPool pool;
+    private AllocationJob job;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = generate(new Random(42));
+        pool = new ForkJoinPool(threads);
+        job = new AllocationJob(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public AllocationResult allocate() {
+        return job.run(input);
+    }
+
+    private AllocationInput generate(Random random) {
+        int groups = ELECTIVE_SUBJECTS * (ELECTIVE_SUBJECTS - 1) / 2;
+
+        int[] userIds = new int[users];
+        int[] userTotals = new int[users];
+        int[] userGroups = new int[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = i + 1;
+            // Five subjects scored 0..140 each
+            userTotals[i] = random.nextInt(141) + random.nextInt(141) + random.nextInt(141)
+                    + random.nextInt(141) + random.nextInt(141);
+            userGroups[i] = random.nextInt(groups);
+        }
+
+        int[] programIds = new int[programs];
+        int[] programMinimumScores = new int[programs];
+        int[] programGroups = new int[programs];
+        int[] programQuotas = new int[programs];
+        for (int i = 0; i < programs; i++) {
+            programIds[i] = i + 1;
+            programMinimumScores[i] = 250 + random.nextInt(300);
+            programGroups[i] = random.nextInt(groups);
+            programQuotas[i] = quota;
+        }
+
+        return new AllocationInput(
+                userIds, userTotals, userGroups,
+                programIds, programMinimumScores, programGroups, programQuotas,
+                groups
+        );
+    }
+}
@@ -0,0 +1,120 @@
+package benchmarks;
+
+import data.MigrationRunner;
+import data.PoolConfig;
+import data.PooledDB;
+import data.interfaces.IDataBase;
+import exceptions.MigrationException;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Database the benchmarks run against: an in-process Postgres ("embedded") or a local server ("local").
+// The local backend uses -Dgranted.bench.url (default granted_bench) and is truncated on every load,
+// so never point it at the application database.
+public final class BenchmarkDatabase implements AutoCloseable {
+    private static final String ELECTIVES = "ARRAY['Mathematics','Physics','Chemistry','Biology'," +
+            "'Geography','History','English','Informatics']";
+
+    private final EmbeddedPostgres embedded;
+    private final PooledDB db;
+
+    private BenchmarkDatabase(EmbeddedPostgres embedded, IDataBase source) {
+        this.embedded = embedded;
+
+        PoolConfig config = new PoolConfig();
+        config.setMaxSize(Runtime.getRuntime().availableProcessors() * 2);
+        this.db = new PooledDB(source, config);
+    }
+
+    public static BenchmarkDatabase start(String backend) throws IOException {
+        if (backend.equals("embedded")) {
+            EmbeddedPostgres embedded = EmbeddedPostgres.builder().start();
+
+            return new BenchmarkDatabase(embedded, () -> {
+                try {
+                    return embedded.getPostgresDatabase().getConnection();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                    return null;
+                }
+            });
+        }
+
+        if (backend.equals("local")) {
+            String url = System.getProperty("granted.bench.url", "jdbc:postgresql://localhost:5432/granted_bench");
+            String user = System.getProperty("granted.bench.user", "postgres");
+            String password = System.getProperty("granted.bench.password", "1234");
+
+            return new BenchmarkDatabase(null, () -> {
+                try {
+                    return DriverManager.getConnection(url, user, password);
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                    return null;
+                }
+            });
+        }
+
+        throw new IllegalArgumentException("Unknown backend: " + backend);
+    }
+
+    public IDataBase getDb() {
+        return db;
+    }
+
+    // Migrate the schema and empty every table
+    public void clear() throws MigrationException, SQLException {
+        new MigrationRunner(db).migrate();
+
+        try (Connection con = db.getConnection(); Statement stmt = con.createStatement()) {
+            stmt.execute("TRUNCATE users, subject_scores, programs, universities, grant_allocations, " +
+                    "user_subject_scores, university_programs RESTART IDENTITY");
+        }
+    }
+
+    // Migrate the schema and fill it with rows users (5 subject scores each), programs and universities
+    public void load(int rows) throws MigrationException, SQLException {
+        clear();
+
+        try (Connection con = db.getConnection(); Statement stmt = con.createStatement()) {
+            execute(con, "INSERT INTO subject_scores (subject, score) " +
+                    "SELECT (" + ELECTIVES + ")[1 + i % 8], (i * 37) % 141 " +
+                    "FROM generate_series(1, ?) i", rows * 5);
+            execute(con, "INSERT INTO users (first_name, last_name, email, password, subject_score_ids, total_score) " +
+                    "SELECT 'First' || i, 'Last' || i, 'user' || i || '@example.com', 'password', " +
+                    "ARRAY[5 * i - 4, 5 * i - 3, 5 * i - 2, 5 * i - 1, 5 * i], " +
+                    "(SELECT SUM((j * 37) % 141) FROM generate_series(5 * i - 4, 5 * i) j) " +
+                    "FROM generate_series(1, ?) i", rows);
+            execute(con, "INSERT INTO programs (name, electives, minimum_score) " +
+                    "SELECT 'Program ' || i, " +
+                    "ARRAY[(" + ELECTIVES + ")[1 + i % 8], (" + ELECTIVES + ")[1 + (i + 3) % 8]], " +
+                    "300 + i % 200 FROM generate_series(1, ?) i", rows);
+            // Every university offers five programs
+            execute(con, "INSERT INTO universities (name, program_ids) " +
+                    "SELECT 'University ' || i, " +
+                    "ARRAY(SELECT 1 + (i * 5 + k) % " + rows + " FROM generate_series(0, 4) k) " +
+                    "FROM generate_series(1, ?) i", rows);
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    private static void execute(Connection con, String query, int count) throws SQLException {
+        try (PreparedStatement stmt = con.prepareStatement(query)) {
+            stmt.setInt(1, count);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        db.close();
+        if (embedded != null)
+            embedded.close();
+    }
+}
@@ -0,0 +1,130 @@
+package benchmarks;
+
+import models.University;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repositories.ProgramRepository;
+import repositories.SubjectScoreRepository;
+import repositories.UniversityRepository;
+import repositories.UserRepository;
+import services.AsyncUniversityService;
+import services.AsyncUserService;
+import services.UniversityService;
+import services.UserService;
+import services.interfaces.IAsyncUniversityService;
+import services.interfaces.IAsyncUserService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Time to answer a burst of concurrent lookups through the async services,
+// on virtual threads ("virtual") or on a fixed pool of platform threads ("platform").
+// Run for example: java -jar target/benchmarks.jar ConcurrentLookupBenchmark -p rows=1000
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentLookupBenchmark {
+    // Number of users, programs and universities in the tables
+    @Param({"1000", "100000"})
+    public int rows;
+
+    // "embedded" starts an in-process Postgres, "local" uses -Dgranted.bench.url
+    @Param({"embedded"})
+    public String backend;
+
+    @Param({"virtual", "platform"})
+    public String threads;
+
+    // Lookups started at once in every invocation
+    @Param({"1000"})
+    public int burst;
+
+    // Platform threads of the "platform" executor
+    private static final int PLATFORM_THREADS = 32;
+
+    private BenchmarkDatabase database;
+    private ExecutorService executor;
+    private IAsyncUserService userService;
+    private IAsyncUniversityService universityService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start(backend);
+        database.load(rows);
+
+        executor = threads.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        SubjectScoreRepository subjectScoreRepo = new SubjectScoreRepository(database.getDb());
+        ProgramRepository programRepo = new ProgramRepository(database.getDb());
+        userService = new AsyncUserService(
+                new UserService(new UserRepository(database.getDb(), subjectScoreRepo)), executor);
+        // A bounded pool must not run the nested program query of getById, the outer tasks would wait on
+        // queued inner ones, so with platform threads both queries run one after the other
+        UniversityRepository universityRepo = threads.equals("virtual")
+                ? new UniversityRepository(database.getDb(), programRepo, executor)
+                : new UniversityRepository(database.getDb(), programRepo);
+        universityService = new AsyncUniversityService(new UniversityService(universityRepo), executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        database.close();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, rows + 1);
+    }
+
+    @Benchmark
+    public int userGetByIdBurst() {
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[burst];
+        for (int i = 0; i < burst; i++) {
+            lookups[i] = userService.getById(randomId());
+        }
+        CompletableFuture.allOf(lookups).join();
+
+        int found = 0;
+        for (CompletableFuture<?> lookup : lookups) {
+            if (lookup.join() instanceof User)
+                found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int universityGetByIdBurst() {
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[burst];
+        for (int i = 0; i < burst; i++) {
+            lookups[i] = universityService.getById(randomId());
+        }
+        CompletableFuture.allOf(lookups).join();
+
+        int found = 0;
+        for (CompletableFuture<?> lookup : lookups) {
+            if (lookup.join() instanceof University)
+                found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,269 @@
+package benchmarks;
+
+import controllers.ProgramController;
+import controllers.SubjectScoreController;
+import controllers.UniversityController;
+import controllers.UserController;
+import models.Page;
+import models.PageRequest;
+import models.Program;
+import models.SubjectScore;
+import models.University;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import serialization.BufferPool;
+import serialization.ByteWriter;
+import serialization.JsonSerializer;
+import services.interfaces.IProgramService;
+import services.interfaces.ISubjectScoreService;
+import services.interfaces.IUniversityService;
+import services.interfaces.IUserService;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// Cost of rendering controller responses, services are replaced by in-memory lists
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ControllerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<User> users;
+    private List<University> universities;
+    private SubjectScoreController subjectScoreController;
+    private UserController userController;
+    private ProgramController programController;
+    private UniversityController universityController;
+    private final PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<SubjectScore> subjectScores = new ArrayList<>(rows);
+        users = new ArrayList<>(rows);
+        List<Program> programs = new ArrayList<>(rows);
+        universities = new ArrayList<>(rows);
+
+        for (int i = 1; i <= rows; i++) {
+            List<SubjectScore> userScores = new ArrayList<>(5);
+            for (int j = 0; j < 5; j++) {
+                userScores.add(new SubjectScore(i * 5 + j, "Subject " + j, 20 + j));
+            }
+            subjectScores.add(userScores.get(0));
+            users.add(new User(i, "First" + i, "Last" + i, "user" + i + "@example.com", "password", userScores));
+
+            Program program = new Program(i, "Program " + i, 300 + i % 200, new String[]{"Mathematics", "Physics"});
+            programs.add(program);
+            universities.add(new University(i, "University " + i, List.of(program, program, program)));
+        }
+
+        subjectScoreController = new SubjectScoreController(new StubSubjectScoreService(subjectScores));
+        userController = new UserController(new StubUserService(users), null);
+        programController = new ProgramController(new StubProgramService(programs));
+        universityController = new UniversityController(new StubUniversityService(universities));
+    }
+
+    @Benchmark
+    public String subjectScoreGetAll() {
+        return subjectScoreController.getAll();
+    }
+
+    @Benchmark
+    public String userGetAll() {
+        return userController.getAll();
+    }
+
+    @Benchmark
+    public String programGetAll() {
+        return programController.getAll();
+    }
+
+    @Benchmark
+    public String universityGetAll() {
+        return universityController.getAll();
+    }
+
+    @Benchmark
+    public void userWriteAll() {
+        userController.writeAll(discard);
+    }
+
+    @Benchmark
+    public void universityWriteAll() {
+        universityController.writeAll(discard);
+    }
+
+    // JSON of the API written through a pooled buffer, run with -prof gc to see the allocation rate
+    @Benchmark
+    public void userJsonWriteAll() {
+        writeJson(users, JsonSerializer::writeUser);
+    }
+
+    @Benchmark
+    public void universityJsonWriteAll() {
+        writeJson(universities, JsonSerializer::writeUniversity);
+    }
+
+    @Benchmark
+    public String userGetById() {
+        return userController.getById(1);
+    }
+
+    @Benchmark
+    public String universityGetById() {
+        return universityController.getById(1);
+    }
+
+    private <T> void writeJson(List<T> items, BiConsumer<ByteWriter, T> writer) {
+        ByteWriter out = BufferPool.shared().acquire();
+        out.attach(discard);
+
+        out.write('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0)
+                out.write(',');
+            writer.accept(out, items.get(i));
+        }
+        out.write(']');
+
+        out.flush();
+        BufferPool.shared().release(out);
+    }
+
+    private record StubSubjectScoreService(List<SubjectScore> subjectScores) implements ISubjectScoreService {
+        @Override
+        public List<SubjectScore> getAll() {
+            return subjectScores;
+        }
+
+        @Override
+        public boolean streamAll(Consumer<SubjectScore> action) {
+            subjectScores.forEach(action);
+            return true;
+        }
+
+        @Override
+        public Page<SubjectScore> getPage(PageRequest request) {
+            return new Page<>(subjectScores, null, 0, false);
+        }
+
+        @Override
+        public SubjectScore getById(int id) {
+            return subjectScores.get(0);
+        }
+
+        @Override
+        public SubjectScore create(SubjectScore subjectScore) {
+            return subjectScore;
+        }
+    }
+
+    private record StubUserService(List<User> users) implements IUserService {
+        @Override
+        public List<User> getAll() {
+            return users;
+        }
+
+        @Override
+        public boolean streamAll(Consumer<User> action) {
+            users.forEach(action);
+            return true;
+        }
+
+        @Override
+        public Page<User> getPage(PageRequest request) {
+            return new Page<>(users, null, 0, false);
+        }
+
+        @Override
+        public User getById(int id) {
+            return users.get(0);
+        }
+
+        @Override
+        public User create(User user) {
+            return user;
+        }
+    }
+
+    private record StubProgramService(List<Program> programs) implements IProgramService {
+        @Override
+        public List<Program> getAll() {
+            return programs;
+        }
+
+        @Override
+        public boolean streamAll(Consumer<Program> action) {
+            programs.forEach(action);
+            return true;
+        }
+
+        @Override
+        public Page<Program> getPage(PageRequest request) {
+            return new Page<>(programs, null, 0, false);
+        }
+
+        @Override
+        public Program getById(int id) {
+            return programs.get(0);
+        }
+
+        @Override
+        public Program create(Program program) {
+            return program;
+        }
+    }
+
+    private record StubUniversityService(List<University> universities) implements IUniversityService {
+        @Override
+        public List<University> getAll() {
+            return universities;
+        }
+
+        @Override
+        public boolean streamAll(Consumer<University> action) {
+            universities.forEach(action);
+            return true;
+        }
+
+        @Override
+        public Page<University> getPage(PageRequest request) {
+            return new Page<>(universities, null, 0, false);
+        }
+
+        @Override
+        public List<University> getAllByProgramId(int programId) {
+            return universities;
+        }
+
+        @Override
+        public University getById(int id) {
+            return universities.get(0);
+        }
+
+        @Override
+        public University create(University university) {
+            return university;
+        }
+    }
+}
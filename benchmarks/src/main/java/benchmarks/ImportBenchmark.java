@@ -0,0 +1,100 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import models.ImportStats;
+import repositories.UserImportRepository;
+import services.UserImportService;
+import services.interfaces.IUserImportService;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Users imported per second by the COPY-based bulk import, from a CSV file into empty tables.
+// Run for example: java -jar target/benchmarks.jar ImportBenchmark -p backend=embedded
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ImportBenchmark {
+    // Users in the imported file, the score is reported per user
+    private static final int USERS = 100_000;
+    private static final String[] SUBJECTS = {
+            "Mathematics", "Physics", "Chemistry", "Biology", "Geography", "History", "English", "Informatics"
+    };
+
+    // "embedded" starts an in-process Postgres, "local" uses -Dgranted.bench.url
+    @Param({"embedded"})
+    public String backend;
+
+    // "normalized" also writes the user_subject_scores links
+    @Param({"arrays", "normalized"})
+    public String schema;
+
+    private BenchmarkDatabase database;
+    private IUserImportService importService;
+    private Path csv;
+    private Path rejects;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start(backend);
+        importService = new UserImportService(
+                new UserImportRepository(database.getDb(), schema.equals("normalized")));
+
+        csv = Files.createTempFile("granted-import", ".csv");
+        rejects = Files.createTempFile("granted-import", ".rejects");
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("first_name,last_name,email,password,subject_1,score_1,subject_2,score_2," +
+                    "subject_3,score_3,subject_4,score_4,subject_5,score_5");
+            out.newLine();
+
+            for (int i = 0; i < USERS; i++) {
+                out.write("First" + i + ",Last" + i + ",user" + i + "@example.com,password");
+                for (int j = 0; j < 5; j++) {
+                    out.write("," + SUBJECTS[(i + j) % SUBJECTS.length] + "," + (i * 37 + j) % 141);
+                }
+                out.newLine();
+            }
+        }
+    }
+
+    // Every import starts from empty tables, the truncate is not measured
+    @Setup(Level.Invocation)
+    public void clear() throws Exception {
+        database.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(rejects);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public ImportStats importUsers() {
+        ImportStats stats = importService.importUsers(csv.toString(), rejects.toString());
+        if (stats.getImported().get() != USERS)
+            throw new IllegalStateException("Imported " + stats.getImported().get() + " of " + USERS + " users");
+        return stats;
+    }
+}
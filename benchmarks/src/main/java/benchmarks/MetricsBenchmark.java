@@ -0,0 +1,88 @@
+package benchmarks;
+
+import data.interfaces.IDataBase;
+import metrics.RepositoryMetrics;
+import models.LookupResult;
+import models.SubjectScore;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repositories.SubjectScoreRepository;
+import repositories.UserRepository;
+import repositories.interfaces.ISubjectScoreRepository;
+import repositories.interfaces.IUserRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of RepositoryMetrics on the JDBC repositories: "off" leaves them unwrapped, "calls" times the calls,
+// "errors" also proxies every connection and statement to count swallowed SQLExceptions.
+// Run for example: java -jar target/benchmarks.jar MetricsBenchmark -p rows=1000
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+    // Number of users in the tables
+    @Param({"1000"})
+    public int rows;
+
+    // "embedded" starts an in-process Postgres, "local" uses -Dgranted.bench.url
+    @Param({"embedded"})
+    public String backend;
+
+    @Param({"off", "calls", "errors"})
+    public String metrics;
+
+    // Number of ids passed to getAllByIds
+    private static final int BATCH_SIZE = 50;
+
+    private BenchmarkDatabase database;
+    private ISubjectScoreRepository subjectScoreRepo;
+    private IUserRepository userRepo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start(backend);
+        database.load(rows);
+
+        RepositoryMetrics repositoryMetrics = RepositoryMetrics.create(
+                !metrics.equals("off"), metrics.equals("errors"));
+        IDataBase db = repositoryMetrics.wrap(database.getDb());
+
+        subjectScoreRepo = repositoryMetrics.wrap(ISubjectScoreRepository.class, new SubjectScoreRepository(db));
+        userRepo = repositoryMetrics.wrap(IUserRepository.class, new UserRepository(db, subjectScoreRepo));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public User userGetById() {
+        return userRepo.getById(ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+
+    @Benchmark
+    public LookupResult<SubjectScore> subjectScoreGetAllByIds() {
+        Integer[] ids = new Integer[BATCH_SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ThreadLocalRandom.current().nextInt(1, rows * 5 + 1);
+        }
+        return subjectScoreRepo.getAllByIds(ids);
+    }
+}
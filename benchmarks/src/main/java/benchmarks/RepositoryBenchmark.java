@@ -0,0 +1,176 @@
+package benchmarks;
+
+import models.LookupResult;
+import models.Program;
+import models.SubjectScore;
+import models.University;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repositories.ProgramRepository;
+import repositories.SubjectScoreRepository;
+import repositories.UniversityRepository;
+import repositories.UserRepository;
+import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.ISubjectScoreRepository;
+import repositories.interfaces.IUniversityRepository;
+import repositories.interfaces.IUserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latency of the JDBC repository paths.
+// Run for example: java -jar target/benchmarks.jar RepositoryBenchmark -p rows=1000 -p backend=embedded
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    // Number of users, programs and universities in the tables
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    // "embedded" starts an in-process Postgres, "local" uses -Dgranted.bench.url
+    @Param({"embedded"})
+    public String backend;
+
+    // Number of ids passed to getAllByIds
+    private static final int BATCH_SIZE = 50;
+
+    private BenchmarkDatabase database;
+    private ISubjectScoreRepository subjectScoreRepo;
+    private IUserRepository userRepo;
+    private IProgramRepository programRepo;
+    private IUniversityRepository universityRepo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start(backend);
+        database.load(rows);
+
+        subjectScoreRepo = new SubjectScoreRepository(database.getDb());
+        userRepo = new UserRepository(database.getDb(), subjectScoreRepo);
+        programRepo = new ProgramRepository(database.getDb());
+        universityRepo = new UniversityRepository(database.getDb(), programRepo);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    private int randomId(int max) {
+        return ThreadLocalRandom.current().nextInt(1, max + 1);
+    }
+
+    private Integer[] randomIds(int max) {
+        Integer[] ids = new Integer[BATCH_SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = randomId(max);
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<SubjectScore> subjectScoreGetAll() {
+        return subjectScoreRepo.getAll();
+    }
+
+    @Benchmark
+    public SubjectScore subjectScoreGetById() {
+        return subjectScoreRepo.getById(randomId(rows * 5));
+    }
+
+    @Benchmark
+    public LookupResult<SubjectScore> subjectScoreGetAllByIds() {
+        return subjectScoreRepo.getAllByIds(randomIds(rows * 5));
+    }
+
+    @Benchmark
+    public SubjectScore subjectScoreCreate() {
+        return subjectScoreRepo.create(new SubjectScore("Mathematics", 120));
+    }
+
+    @Benchmark
+    public List<User> userGetAll() {
+        return userRepo.getAll();
+    }
+
+    @Benchmark
+    public long userStreamAll() {
+        long[] count = {0};
+        userRepo.streamAll(1_000, user -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public User userGetById() {
+        return userRepo.getById(randomId(rows));
+    }
+
+    @Benchmark
+    public User userCreate() {
+        List<SubjectScore> subjectScores = new ArrayList<>(5);
+        subjectScores.add(new SubjectScore("History", 15));
+        subjectScores.add(new SubjectScore("Reading Literacy", 8));
+        subjectScores.add(new SubjectScore("Mathematical Literacy", 9));
+        subjectScores.add(new SubjectScore("Mathematics", 40));
+        subjectScores.add(new SubjectScore("Physics", 38));
+
+        return userRepo.create(new User("First", "Last", "bench@example.com", "password", subjectScores));
+    }
+
+    @Benchmark
+    public List<Program> programGetAll() {
+        return programRepo.getAll();
+    }
+
+    @Benchmark
+    public Program programGetById() {
+        return programRepo.getById(randomId(rows));
+    }
+
+    @Benchmark
+    public LookupResult<Program> programGetAllByIds() {
+        return programRepo.getAllByIds(randomIds(rows));
+    }
+
+    @Benchmark
+    public Program programCreate() {
+        return programRepo.create(new Program("Computer Science", 400, new String[]{"Mathematics", "Physics"}));
+    }
+
+    @Benchmark
+    public List<University> universityGetAll() {
+        return universityRepo.getAll();
+    }
+
+    @Benchmark
+    public University universityGetById() {
+        return universityRepo.getById(randomId(rows));
+    }
+
+    @Benchmark
+    public University universityCreate() {
+        List<Program> programs = new ArrayList<>();
+        programs.add(new Program("Computer Science", 400, new String[]{"Mathematics", "Physics"}));
+        programs.add(new Program("Chemistry", 350, new String[]{"Chemistry", "Biology"}));
+
+        return universityRepo.create(new University("Benchmark University", programs));
+    }
+}
@@ -1,7 +1,11 @@
+import controllers.AnalyticsController;
+import controllers.MatchingController;
+import controllers.MetricsController;
 import controllers.ProgramController;
 import controllers.SubjectScoreController;
 import controllers.UniversityController;
 import controllers.UserController;
+import models.PageSort;
 
 import java.util.InputMismatchException;
 import java.util.Scanner;
@@ -11,6 +15,9 @@ public class GrantedApplication {
     private final UserController userController;
     private final ProgramController programController;
     private final UniversityController universityController;
+    private final MatchingController matchingController;
+    private final MetricsController metricsController;
+    private final AnalyticsController analyticsController;
     private final Scanner scanner;
     private static final String MENU_LINE = "*****************************************";
 
@@ -18,12 +25,18 @@ public class GrantedApplication {
             SubjectScoreController subjectScoreController,
             UserController userController,
             ProgramController programController,
-            UniversityController universityController
+            UniversityController universityController,
+            MatchingController matchingController,
+            MetricsController metricsController,
+            AnalyticsController analyticsController
     ) {
         this.subjectScoreController = subjectScoreController;
         this.userController = userController;
         this.programController = programController;
         this.universityController = universityController;
+        this.matchingController = matchingController;
+        this.metricsController = metricsController;
+        this.analyticsController = analyticsController;
         this.scanner = new Scanner(System.in);
     }
 
@@ -38,10 +51,13 @@ public class GrantedApplication {
             System.out.println("2. User Menu");
             System.out.println("3. Program Menu");
             System.out.println("4. University Menu");
+            System.out.println("5. Grant Matching Menu");
+            System.out.println("6. Show Metrics");
+            System.out.println("7. Score Analytics Menu");
             System.out.println("0. Exit application");
 
             try {
-                System.out.println("Enter option 1-4: ");
+                System.out.println("Enter option 1-7: ");
                 int option = scanner.nextInt();
 
                 if (option == 1) {
@@ -52,6 +68,12 @@ public class GrantedApplication {
                     programMenu();
                 } else if (option == 4) {
                     universityMenu();
+                } else if (option == 5) {
+                    matchingMenu();
+                } else if (option == 6) {
+                    metricsMenu();
+                } else if (option == 7) {
+                    analyticsMenu();
                 } else if (option == 0) {
                     break;
                 }
@@ -72,10 +94,11 @@ public class GrantedApplication {
             System.out.println("1. Get All Subject Scores");
             System.out.println("2. Get Subject Score By ID");
             System.out.println("3. Create Subject Score");
+            System.out.println("4. Get Subject Scores Page");
             System.out.println("0. Go back");
 
             try {
-                System.out.println("Enter option 1-3: ");
+                System.out.println("Enter option 1-4: ");
                 int option = scanner.nextInt();
 
                 if (option == 1) {
@@ -84,6 +107,8 @@ public class GrantedApplication {
                     getSubjectScoreByIdMenu();
                 } else if (option == 3) {
                     createSubjectScoreMenu();
+                } else if (option == 4) {
+                    getSubjectScorePageMenu();
                 } else if (option == 0) {
                     break;
                 }
@@ -98,7 +123,14 @@ public class GrantedApplication {
         System.out.println(MENU_LINE);
         System.out.println("All Subject Scores\n");
 
-        System.out.println(subjectScoreController.getAll());
+        subjectScoreController.writeAll(System.out);
+    }
+
+    public void getSubjectScorePageMenu() {
+        System.out.println(MENU_LINE);
+        System.out.println("Subject Scores Page\n");
+
+        pageMenu(subjectScoreController::getPage);
     }
 
     public void getSubjectScoreByIdMenu() {
@@ -145,10 +177,12 @@ public class GrantedApplication {
             System.out.println("1. Get All Users");
             System.out.println("2. Get User By ID");
             System.out.println("3. Create User");
+            System.out.println("4. Bulk Import Users");
+            System.out.println("5. Get Users Page");
             System.out.println("0. Go back");
 
             try {
-                System.out.println("Enter option 1-3: ");
+                System.out.println("Enter option 1-5: ");
                 int option = scanner.nextInt();
 
                 if (option == 1) {
@@ -157,6 +191,10 @@ public class GrantedApplication {
                     getUserByIdMenu();
                 } else if (option == 3) {
                     createUserMenu();
+                } else if (option == 4) {
+                    importUsersMenu();
+                } else if (option == 5) {
+                    getUserPageMenu();
                 } else if (option == 0) {
                     break;
                 }
@@ -171,7 +209,14 @@ public class GrantedApplication {
         System.out.println(MENU_LINE);
         System.out.println("All Users\n");
 
-        System.out.println(userController.getAll());
+        userController.writeAll(System.out);
+    }
+
+    public void getUserPageMenu() {
+        System.out.println(MENU_LINE);
+        System.out.println("Users Page\n");
+
+        pageMenu(userController::getPage);
     }
 
     public void getUserByIdMenu() {
@@ -244,6 +289,20 @@ public class GrantedApplication {
         }
     }
 
+    public void importUsersMenu() {
+        System.out.println(MENU_LINE);
+        // To ignore whitespace from previous input
+        scanner.nextLine();
+
+        System.out.println("Enter path to CSV or NDJSON file: ");
+        String path = scanner.nextLine();
+
+        System.out.println("Enter path to reject file (leave empty for default): ");
+        String rejectPath = scanner.nextLine();
+
+        System.out.println("\n" + userController.importUsers(path, rejectPath) + "\n");
+    }
+
     public void programMenu() {
         while (true) {
             System.out.println(MENU_LINE);
@@ -254,10 +313,11 @@ public class GrantedApplication {
             System.out.println("1. Get All Programs");
             System.out.println("2. Get Program By ID");
             System.out.println("3. Create Program");
+            System.out.println("4. Get Programs Page");
             System.out.println("0. Go back");
 
             try {
-                System.out.println("Enter option 1-3: ");
+                System.out.println("Enter option 1-4: ");
                 int option = scanner.nextInt();
 
                 if (option == 1) {
@@ -266,6 +326,8 @@ public class GrantedApplication {
                     getProgramByIdMenu();
                 } else if (option == 3) {
                     createProgramMenu();
+                } else if (option == 4) {
+                    getProgramPageMenu();
                 } else if (option == 0) {
                     break;
                 }
@@ -280,7 +342,14 @@ public class GrantedApplication {
         System.out.println(MENU_LINE);
         System.out.println("All Programs\n");
 
-        System.out.println(programController.getAll());
+        programController.writeAll(System.out);
+    }
+
+    public void getProgramPageMenu() {
+        System.out.println(MENU_LINE);
+        System.out.println("Programs Page\n");
+
+        pageMenu(programController::getPage);
     }
 
     public void getProgramByIdMenu() {
@@ -338,10 +407,12 @@ public class GrantedApplication {
             System.out.println("1. Get All Universities");
             System.out.println("2. Get University By ID");
             System.out.println("3. Create University");
+            System.out.println("4. Get Universities Page");
+            System.out.println("5. Get Universities By Program");
             System.out.println("0. Go back");
 
             try {
-                System.out.println("Enter option 1-3: ");
+                System.out.println("Enter option 1-5: ");
                 int option = scanner.nextInt();
 
                 if (option == 1) {
@@ -350,6 +421,10 @@ public class GrantedApplication {
                     getUniversityById();
                 } else if (option == 3) {
                     createUniversityMenu();
+                } else if (option == 4) {
+                    getUniversityPageMenu();
+                } else if (option == 5) {
+                    getUniversitiesByProgramMenu();
                 } else if (option == 0) {
                     break;
                 }
@@ -364,7 +439,14 @@ public class GrantedApplication {
         System.out.println(MENU_LINE);
         System.out.println("All Universities\n");
 
-        System.out.println(universityController.getAll());
+        universityController.writeAll(System.out);
+    }
+
+    public void getUniversityPageMenu() {
+        System.out.println(MENU_LINE);
+        System.out.println("Universities Page\n");
+
+        pageMenu(universityController::getPage);
     }
 
     public void getUniversityById() {
@@ -381,6 +463,20 @@ public class GrantedApplication {
         }
     }
 
+    public void getUniversitiesByProgramMenu() {
+        try {
+            System.out.println(MENU_LINE);
+
+            System.out.println("Enter program id: ");
+
+            int programId = scanner.nextInt();
+            System.out.println("\n" + universityController.getByProgramId(programId) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
     public void createUniversityMenu() {
         try {
             // To ignore whitespace from previous input
@@ -423,4 +519,238 @@ public class GrantedApplication {
             System.out.println("Incorrect input");
         }
     }
+
+    public void matchingMenu() {
+        while (true) {
+            System.out.println(MENU_LINE);
+            System.out.println("Grant Matching Menu");
+            System.out.println(MENU_LINE);
+
+            System.out.println("Select option: ");
+            System.out.println("1. Get Eligible Programs For User");
+            System.out.println("2. Get Eligible Users For Program");
+            System.out.println("3. Rebuild Matching Index");
+            System.out.println("4. Run Grant Allocation");
+            System.out.println("5. Get Program Leaderboard");
+            System.out.println("6. Get User Rank In Program");
+            System.out.println("0. Go back");
+
+            try {
+                System.out.println("Enter option 1-6: ");
+                int option = scanner.nextInt();
+
+                if (option == 1) {
+                    getEligibleProgramsMenu();
+                } else if (option == 2) {
+                    getEligibleUsersMenu();
+                } else if (option == 3) {
+                    System.out.println("\n" + matchingController.refresh() + "\n");
+                } else if (option == 4) {
+                    allocateMenu();
+                } else if (option == 5) {
+                    leaderboardMenu();
+                } else if (option == 6) {
+                    rankMenu();
+                } else if (option == 0) {
+                    break;
+                }
+            } catch (InputMismatchException e) {
+                System.out.println("Input must be an integer");
+                scanner.nextLine(); // to ignore incorrect input
+            }
+        }
+    }
+
+    public void getEligibleProgramsMenu() {
+        try {
+            System.out.println(MENU_LINE);
+
+            System.out.println("Enter user id: ");
+
+            int id = scanner.nextInt();
+            System.out.println("\n" + matchingController.getEligiblePrograms(id) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    public void getEligibleUsersMenu() {
+        try {
+            System.out.println(MENU_LINE);
+
+            System.out.println("Enter program id: ");
+            int id = scanner.nextInt();
+
+            System.out.println("Enter how many top users to show: ");
+            int limit = scanner.nextInt();
+
+            System.out.println("\n" + matchingController.getEligibleUsers(id, limit) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    public void allocateMenu() {
+        try {
+            System.out.println(MENU_LINE);
+
+            System.out.println("Enter number of grants per program: ");
+
+            int quota = scanner.nextInt();
+            System.out.println("\n" + matchingController.allocate(quota) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    public void leaderboardMenu() {
+        try {
+            System.out.println(MENU_LINE);
+
+            System.out.println("Enter program id: ");
+            int id = scanner.nextInt();
+
+            System.out.println("Enter how many top users to show: ");
+            int limit = scanner.nextInt();
+
+            System.out.println("\n" + matchingController.getLeaderboard(id, limit) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    public void rankMenu() {
+        try {
+            System.out.println(MENU_LINE);
+
+            System.out.println("Enter program id: ");
+            int programId = scanner.nextInt();
+
+            System.out.println("Enter user id: ");
+            int userId = scanner.nextInt();
+
+            System.out.println("\n" + matchingController.getRank(programId, userId) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    public void metricsMenu() {
+        System.out.println(MENU_LINE);
+        System.out.println("Metrics\n");
+
+        System.out.println(metricsController.getReport());
+    }
+
+    public void analyticsMenu() {
+        while (true) {
+            System.out.println(MENU_LINE);
+            System.out.println("Score Analytics Menu");
+            System.out.println(MENU_LINE);
+
+            System.out.println("Select option: ");
+            System.out.println("1. Get Subject Score Summaries");
+            System.out.println("2. Get Subject Score Histogram");
+            System.out.println("3. Get Applicants Clearing Each Program");
+            System.out.println("4. Get Applicants Clearing Program By ID");
+            System.out.println("0. Go back");
+
+            try {
+                System.out.println("Enter option 1-4: ");
+                int option = scanner.nextInt();
+
+                if (option == 1) {
+                    System.out.println(MENU_LINE);
+                    System.out.println("\n" + analyticsController.getSubjectSummaries() + "\n");
+                } else if (option == 2) {
+                    histogramMenu();
+                } else if (option == 3) {
+                    System.out.println(MENU_LINE);
+                    System.out.println("\n" + analyticsController.getProgramReach() + "\n");
+                } else if (option == 4) {
+                    programReachMenu();
+                } else if (option == 0) {
+                    break;
+                }
+            } catch (InputMismatchException e) {
+                System.out.println("Input must be an integer");
+                scanner.nextLine(); // to ignore incorrect input
+            }
+        }
+    }
+
+    public void histogramMenu() {
+        try {
+            System.out.println(MENU_LINE);
+            // To ignore whitespace from previous input
+            scanner.nextLine();
+
+            System.out.println("Enter subject name: ");
+            String subject = scanner.nextLine();
+
+            System.out.println("Enter number of buckets: ");
+            int buckets = scanner.nextInt();
+
+            System.out.println("\n" + analyticsController.getHistogram(subject, buckets) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Number of buckets must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    public void programReachMenu() {
+        try {
+            System.out.println(MENU_LINE);
+
+            System.out.println("Enter program id: ");
+
+            int programId = scanner.nextInt();
+            System.out.println("\n" + analyticsController.getProgramReach(programId) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    // Asks for sorting and the position of the previous page, then prints the next one
+    private void pageMenu(PageQuery query) {
+        try {
+            System.out.println("Sort by: 1. ID, 2. Name, 3. Score");
+            int option = scanner.nextInt();
+            if (option < 1 || option > 3) {
+                System.out.println("Sort option must be 1-3");
+                return;
+            }
+            PageSort sort = PageSort.values()[option - 1];
+
+            System.out.println("Enter page size: ");
+            int limit = scanner.nextInt();
+
+            System.out.println("Enter id of the last row of the previous page (0 for the first page): ");
+            int afterId = scanner.nextInt();
+
+            String afterKey = null;
+            if (afterId != 0 && sort != PageSort.ID) {
+                // To ignore whitespace from previous input
+                scanner.nextLine();
+
+                System.out.println("Enter key of the last row of the previous page: ");
+                afterKey = scanner.nextLine();
+            }
+
+            System.out.println("\n" + query.getPage(sort, afterKey, afterId, limit) + "\n");
+        } catch (InputMismatchException e) {
+            System.out.println("Input must be integer");
+            scanner.nextLine(); // to ignore incorrect input
+        }
+    }
+
+    private interface PageQuery {
+        String getPage(PageSort sort, String afterKey, int afterId, int limit);
+    }
 }
@@ -1,45 +1,262 @@
+import catalog.SubjectCatalog;
+import controllers.AnalyticsController;
+import controllers.MatchingController;
+import controllers.MetricsController;
 import controllers.ProgramController;
 import controllers.SubjectScoreController;
 import controllers.UniversityController;
 import controllers.UserController;
+import data.MigrationRunner;
+import data.NormalizedSchemaMigrator;
+import data.PooledDB;
 import data.PostgresDB;
 import data.interfaces.IDataBase;
+import exceptions.MigrationException;
+import http.ApiServer;
+import http.HttpConfig;
+import http.ProgramResource;
+import http.SubjectScoreResource;
+import http.UniversityResource;
+import http.UserResource;
+import metrics.RepositoryMetrics;
+import models.Program;
+import repositories.AllocationRepository;
+import repositories.CachedProgramRepository;
+import repositories.CachedUniversityRepository;
+import repositories.ColumnarScoreStore;
+import repositories.InMemoryAllocationRepository;
+import repositories.InMemoryProgramRepository;
+import repositories.InMemoryScoreAnalyticsRepository;
+import repositories.InMemorySubjectScoreRepository;
+import repositories.InMemoryUniversityRepository;
+import repositories.InMemoryUserImportRepository;
+import repositories.InMemoryUserRepository;
+import repositories.NormalizedUniversityRepository;
+import repositories.NormalizedUserRepository;
 import repositories.ProgramRepository;
+import repositories.ScoreAnalyticsRepository;
 import repositories.SubjectScoreRepository;
 import repositories.UniversityRepository;
+import repositories.UserImportRepository;
 import repositories.UserRepository;
+import repositories.WriteBehindConfig;
+import repositories.WriteBehindSubjectScoreRepository;
 import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.IScoreAnalyticsRepository;
 import repositories.interfaces.ISubjectScoreRepository;
 import repositories.interfaces.IUniversityRepository;
 import repositories.interfaces.IUserRepository;
+import services.AllocationService;
+import services.AnalyticsService;
+import services.LeaderboardService;
+import services.AsyncProgramService;
+import services.AsyncSubjectScoreService;
+import services.AsyncUniversityService;
+import services.AsyncUserService;
+import services.MatchingService;
 import services.ProgramService;
 import services.SubjectScoreService;
 import services.UniversityService;
+import services.UserImportService;
 import services.UserService;
+import services.interfaces.IAllocationService;
+import services.interfaces.IAnalyticsService;
+import services.interfaces.ILeaderboardService;
+import services.interfaces.IMatchingService;
 import services.interfaces.IProgramService;
 import services.interfaces.ISubjectScoreService;
 import services.interfaces.IUniversityService;
-import services.interfaces.IUserService;
+import services.interfaces.IUserImportService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Main {
     public static void main(String[] args) {
-        IDataBase db = new PostgresDB();
-        ISubjectScoreRepository subjectRepo = new SubjectScoreRepository(db);
+        // -Dgranted.backend=memory keeps all data in memory for the life of the process,
+        // so the services and controllers can be run and measured without a database
+        boolean inMemory = System.getProperty("granted.backend", "postgres").equals("memory");
+
+        // Repositories borrow connections from the pool, closing them returns them to it
+        PooledDB db = inMemory ? null : new PooledDB(new PostgresDB());
+
+        if (db != null) {
+            // Bring the schema up to date before anything reads it,
+            // -Dgranted.migrate=false only checks it when migrations are applied by hand
+            try {
+                MigrationRunner migrationRunner = new MigrationRunner(db);
+                if (Boolean.parseBoolean(System.getProperty("granted.migrate", "true"))) {
+                    int applied = migrationRunner.migrate();
+                    if (applied > 0)
+                        System.out.println("Applied " + applied + " schema migrations");
+                }
+                migrationRunner.validate();
+            } catch (MigrationException e) {
+                System.out.println(e.getMessage());
+                db.close();
+                return;
+            }
+
+            // Unattended schema change: java Main migrate-normalized
+            if (args.length >= 1 && args[0].equals("migrate-normalized")) {
+                System.out.println(new NormalizedSchemaMigrator(db).migrate());
+                db.close();
+                return;
+            }
+        }
+
+        // Blocking lookups that run concurrently get a cheap virtual thread each
+        ExecutorService serviceExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        // -Dgranted.schema=normalized reads users and universities through join tables.
+        // The array schema writes no links, rows it created are linked by java Main migrate-normalized.
+        boolean normalized = System.getProperty("granted.schema", "arrays").equals("normalized");
+        if (normalized && db != null)
+            System.out.println("Normalized schema: run java Main migrate-normalized once after switching " +
+                    "from the array schema, or users and universities created there are not found");
+
+        // Every repository call is timed, the metrics menu and JMX show where the time goes
+        RepositoryMetrics metrics = RepositoryMetrics.fromSystemProperties();
+        IDataBase meteredDb = db == null ? null : metrics.wrap(db);
+
+        // -Dgranted.writeBehind=true queues subject score inserts and writes them in batches
+        WriteBehindSubjectScoreRepository writeBehind = !inMemory && Boolean.getBoolean("granted.writeBehind")
+                ? new WriteBehindSubjectScoreRepository(
+                        new SubjectScoreRepository(meteredDb), meteredDb, WriteBehindConfig.fromSystemProperties())
+                : null;
+        ISubjectScoreRepository subjectRepo = metrics.wrap(ISubjectScoreRepository.class, inMemory
+                ? new InMemorySubjectScoreRepository()
+                : writeBehind != null ? writeBehind : new SubjectScoreRepository(meteredDb));
         ISubjectScoreService subjectScoreService = new SubjectScoreService(subjectRepo);
         SubjectScoreController subjectScoreController = new SubjectScoreController(subjectScoreService);
-        IUserRepository userRepo = new UserRepository(db, subjectRepo);
-        IUserService userService = new UserService(userRepo);
-        UserController userController = new UserController(userService);
-        IProgramRepository programRepo = new ProgramRepository(db);
+        IUserRepository userRepo = metrics.wrap(IUserRepository.class, inMemory
+                ? new InMemoryUserRepository(subjectRepo)
+                : normalized ? new NormalizedUserRepository(meteredDb) : new UserRepository(meteredDb, subjectRepo));
+        UserService userService = new UserService(userRepo);
+        IUserImportService userImportService = new UserImportService(inMemory
+                ? new InMemoryUserImportRepository(userRepo)
+                : new UserImportRepository(meteredDb, normalized));
+        UserController userController = new UserController(userService, userImportService);
+        // Programs and universities rarely change, so their lookups are cached when they come from the database
+        int cacheSize = Integer.getInteger("granted.cache.maxSize", 10_000);
+        long cacheTtlMs = Long.getLong("granted.cache.ttlMs", 600_000);
+        CachedProgramRepository programCache = inMemory ? null : new CachedProgramRepository(
+                new ProgramRepository(meteredDb), cacheSize, cacheTtlMs);
+        IProgramRepository programRepo = metrics.wrap(IProgramRepository.class, inMemory
+                ? new InMemoryProgramRepository()
+                : programCache);
         IProgramService programService = new ProgramService(programRepo);
         ProgramController programController = new ProgramController(programService);
-        IUniversityRepository universityRepo = new UniversityRepository(db, programRepo);
+        // Electives of the stored programs are numbered before any applicant is read. The score store keeps
+        // the first 256 subject codes only, so applicants' other subjects can not push the electives out.
+        for (Program program : programRepo.getAll()) {
+            SubjectCatalog.shared().internAll(program.getElectedSubjectNames());
+        }
+        CachedUniversityRepository universityCache = inMemory ? null : new CachedUniversityRepository(
+                normalized
+                        ? new NormalizedUniversityRepository(meteredDb, programRepo)
+                        : new UniversityRepository(meteredDb, programRepo, serviceExecutor),
+                cacheSize, cacheTtlMs);
+        IUniversityRepository universityRepo = metrics.wrap(IUniversityRepository.class, inMemory
+                ? new InMemoryUniversityRepository(programRepo)
+                : universityCache);
         IUniversityService universityService = new UniversityService(universityRepo);
         UniversityController universityController = new UniversityController(universityService);
+
+        if (db != null) {
+            metrics.addSection(() -> db.getStats().toString());
+            metrics.addSection(() -> "Program cache:\n" + programCache.getStats());
+            metrics.addSection(() -> "University cache:\n" + universityCache.getStats());
+        }
+        if (writeBehind != null) {
+            metrics.addSection(() -> "Subject score write-behind:\n" +
+                    "Queued: " + writeBehind.getQueued() +
+                    ", batches: " + writeBehind.getWrittenBatches() +
+                    ", rows: " + writeBehind.getWrittenRows() +
+                    ", rejected: " + writeBehind.getRejected());
+        }
+        MetricsController metricsController = new MetricsController(metrics);
+        IMatchingService matchingService = new MatchingService(userRepo, programRepo);
+        IAllocationService allocationService = new AllocationService(userRepo, programRepo, inMemory
+                ? new InMemoryAllocationRepository()
+                : new AllocationRepository(meteredDb));
+        ILeaderboardService leaderboardService = new LeaderboardService(userRepo, programRepo);
+        // Users created from the menu or the API move up the leaderboard right away
+        userService.addCreateListener(leaderboardService::userCreated);
+        // Score statistics are aggregated by the database. Without one they come from all applicants' scores
+        // held in compact columns, which are loaded on first use.
+        ColumnarScoreStore scoreStore = inMemory ? new ColumnarScoreStore(userRepo) : null;
+        if (scoreStore != null) {
+            userService.addCreateListener(scoreStore::userCreated);
+            metrics.addSection(() -> "Score store:\n" +
+                    "Subjects: " + SubjectCatalog.shared().size() +
+                    ", memory: " + scoreStore.getMemoryBytes() + " bytes");
+        }
+        IScoreAnalyticsRepository analyticsRepo = metrics.wrap(IScoreAnalyticsRepository.class, inMemory
+                ? new InMemoryScoreAnalyticsRepository(scoreStore, programRepo)
+                : new ScoreAnalyticsRepository(meteredDb));
+        IAnalyticsService analyticsService = new AnalyticsService(analyticsRepo);
+        AnalyticsController analyticsController = new AnalyticsController(analyticsService);
+        MatchingController matchingController = new MatchingController(
+                matchingService, allocationService, leaderboardService);
+
+        // Unattended bulk load: java Main import <file> [reject-file]
+        if (args.length >= 2 && args[0].equals("import")) {
+            System.out.println(userController.importUsers(args[1], args.length > 2 ? args[2] : null));
+            shutdown(serviceExecutor, writeBehind, db);
+            return;
+        }
+
+        // HTTP/JSON API instead of the console menu: java Main serve [port]
+        if (args.length >= 1 && args[0].equals("serve")) {
+            HttpConfig httpConfig = HttpConfig.fromSystemProperties();
+            if (args.length >= 2)
+                httpConfig.setPort(Integer.parseInt(args[1]));
+
+            ApiServer server = new ApiServer(httpConfig, List.of(
+                    new SubjectScoreResource(new AsyncSubjectScoreService(subjectScoreService, serviceExecutor)),
+                    new UserResource(new AsyncUserService(userService, serviceExecutor)),
+                    new ProgramResource(new AsyncProgramService(programService, serviceExecutor)),
+                    new UniversityResource(new AsyncUniversityService(universityService, serviceExecutor))
+            ));
+
+            try {
+                server.start();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+                shutdown(serviceExecutor, writeBehind, db);
+                return;
+            }
+            System.out.println("Serving the API on port " + server.getPort());
+
+            // The server threads keep the JVM running until it is stopped with Ctrl+C or SIGTERM
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(2);
+                shutdown(serviceExecutor, writeBehind, db);
+            }));
+            return;
+        }
+
         GrantedApplication app = new GrantedApplication(
                 subjectScoreController, userController,
-                programController, universityController
+                programController, universityController,
+                matchingController, metricsController,
+                analyticsController
         );
         app.start();
+        shutdown(serviceExecutor, writeBehind, db);
+    }
+
+    // Queued subject scores are written before the pool goes away
+    private static void shutdown(
+            ExecutorService serviceExecutor, WriteBehindSubjectScoreRepository writeBehind, PooledDB db
+    ) {
+        serviceExecutor.shutdown();
+        if (writeBehind != null)
+            writeBehind.close();
+        if (db != null)
+            db.close();
     }
 }
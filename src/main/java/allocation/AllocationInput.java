@@ -0,0 +1,86 @@
+package allocation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import matching.EligibilityIndex;
+import models.Program;
+import models.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Applicants and programs flattened into primitive arrays.
+// Elective pairs are replaced by group numbers, so users and programs match when their groups are equal.
+@AllArgsConstructor
+@Getter
+public final class AllocationInput {
+    private final int[] userIds;
+    private final int[] userTotals;
+    private final int[] userGroups;
+
+    private final int[] programIds;
+    private final int[] programMinimumScores;
+    private final int[] programGroups;
+    private final int[] programQuotas;
+
+    private final int groupCount;
+
+    // Every program gets the same number of grants.
+    // Programs are listed by id, which settles ties between programs of the same minimum score.
+    public static AllocationInput from(List<User> users, List<Program> programs, int quota) {
+        Map<Long, Integer> groups = new HashMap<>();
+        programs = new ArrayList<>(programs);
+        programs.sort(Comparator.comparingInt(Program::getId));
+
+        int[] programIds = new int[programs.size()];
+        int[] programMinimumScores = new int[programs.size()];
+        int[] programGroups = new int[programs.size()];
+        int[] programQuotas = new int[programs.size()];
+        for (int i = 0; i < programs.size(); i++) {
+            Program program = programs.get(i);
+            long key = EligibilityIndex.electivesKey(program);
+
+            programIds[i] = program.getId();
+            programMinimumScores[i] = program.getMinimumScore();
+            programGroups[i] = groups.computeIfAbsent(key, k -> groups.size());
+            // Programs without two electives share one key, nobody can be placed there
+            programQuotas[i] = key == EligibilityIndex.NO_ELECTIVES ? 0 : quota;
+        }
+
+        int[] userIds = new int[users.size()];
+        int[] userTotals = new int[users.size()];
+        int[] userGroups = new int[users.size()];
+        int userCount = 0;
+        for (User user : users) {
+            // Users without five subject scores are left out like in EligibilityIndex
+            long key = EligibilityIndex.electivesKey(user);
+            if (key == EligibilityIndex.NO_ELECTIVES)
+                continue;
+
+            userIds[userCount] = user.getId();
+            userTotals[userCount] = EligibilityIndex.totalScore(user);
+            // Users whose electives no program asks for get their own group
+            userGroups[userCount] = groups.computeIfAbsent(key, k -> groups.size());
+            userCount++;
+        }
+
+        return new AllocationInput(
+                Arrays.copyOf(userIds, userCount), Arrays.copyOf(userTotals, userCount),
+                Arrays.copyOf(userGroups, userCount),
+                programIds, programMinimumScores, programGroups, programQuotas,
+                groups.size()
+        );
+    }
+
+    public int getUserCount() {
+        return userIds.length;
+    }
+
+    public int getProgramCount() {
+        return programIds.length;
+    }
+}
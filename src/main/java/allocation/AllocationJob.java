@@ -0,0 +1,196 @@
+package allocation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Awards every applicant at most one grant.
+// Applicants pick in order of total score, ties go to the lower user id, so runs are deterministic.
+// Each applicant takes a free grant of the most demanding program they reach, programs with the same
+// minimum score are taken in the order AllocationInput lists them.
+// Users and programs only match within their elective group, so groups are allocated in parallel.
+public final class AllocationJob {
+    // Work below this size is not split any further
+    private static final int USERS_PER_TASK = 16_384;
+
+    private final ForkJoinPool pool;
+
+    public AllocationJob(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public AllocationResult run(AllocationInput input) {
+        long start = System.nanoTime();
+
+        int[] userGroups = input.getUserGroups();
+        int[] userTotals = input.getUserTotals();
+        int[] userIds = input.getUserIds();
+
+        // Counting sort of users by group, userStart[g] .. userStart[g + 1] holds group g
+        int[] userStart = countingOffsets(userGroups, input.getGroupCount());
+        long[] userKeys = new long[input.getUserCount()];
+        int[] next = Arrays.copyOf(userStart, userStart.length);
+        for (int i = 0; i < userKeys.length; i++) {
+            userKeys[next[userGroups[i]]++] = rankKey(userTotals[i], userIds[i]);
+        }
+
+        // Same for programs, keyed by minimum score and position in the input
+        int[] programGroups = input.getProgramGroups();
+        int[] programStart = countingOffsets(programGroups, input.getGroupCount());
+        long[] programKeys = new long[input.getProgramCount()];
+        next = Arrays.copyOf(programStart, programStart.length);
+        for (int p = 0; p < programKeys.length; p++) {
+            programKeys[next[programGroups[p]]++] = rankKey(input.getProgramMinimumScores()[p], p);
+        }
+
+        // Reserve room for a full quota of winners per program
+        int[] quotas = input.getProgramQuotas();
+        int[] offsets = new int[quotas.length];
+        int totalQuota = 0;
+        for (int i = 0; i < quotas.length; i++) {
+            offsets[i] = totalQuota;
+            totalQuota = Math.addExact(totalQuota, quotas[i]);
+        }
+
+        int[] counts = new int[quotas.length];
+        int[] winnerIds = new int[totalQuota];
+        pool.invoke(new AllocateGroups(
+                quotas, userKeys, userStart, programKeys, programStart,
+                offsets, counts, winnerIds, 0, input.getGroupCount()));
+
+        return new AllocationResult(
+                input.getProgramIds(), offsets, counts, winnerIds,
+                (System.nanoTime() - start) / 1_000_000
+        );
+    }
+
+    // Ascending order of the key is descending score, then ascending id
+    static long rankKey(int score, int id) {
+        return ((long) (Integer.MAX_VALUE - Math.max(score, 0)) << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    static int scoreOf(long rankKey) {
+        return Integer.MAX_VALUE - (int) (rankKey >>> 32);
+    }
+
+    private static int[] countingOffsets(int[] groups, int groupCount) {
+        int[] start = new int[groupCount + 1];
+        for (int group : groups) {
+            start[group + 1]++;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            start[g + 1] += start[g];
+        }
+        return start;
+    }
+
+    private static final class AllocateGroups extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] quotas;
+        private final long[] userKeys;
+        private final int[] userStart;
+        private final long[] programKeys;
+        private final int[] programStart;
+        private final int[] offsets;
+        private final int[] counts;
+        private final int[] winnerIds;
+        private final int fromGroup;
+        private final int toGroup;
+
+        private AllocateGroups(
+                int[] quotas, long[] userKeys, int[] userStart, long[] programKeys, int[] programStart,
+                int[] offsets, int[] counts, int[] winnerIds,
+                int fromGroup, int toGroup
+        ) {
+            this.quotas = quotas;
+            this.userKeys = userKeys;
+            this.userStart = userStart;
+            this.programKeys = programKeys;
+            this.programStart = programStart;
+            this.offsets = offsets;
+            this.counts = counts;
+            this.winnerIds = winnerIds;
+            this.fromGroup = fromGroup;
+            this.toGroup = toGroup;
+        }
+
+        @Override
+        protected void compute() {
+            int users = userStart[toGroup] - userStart[fromGroup];
+
+            if (toGroup - fromGroup == 1 || users <= USERS_PER_TASK) {
+                for (int g = fromGroup; g < toGroup; g++) {
+                    allocate(g);
+                }
+                return;
+            }
+
+            // Split where about half of the users are on each side
+            int half = userStart[fromGroup] + users / 2;
+            int mid = fromGroup + 1;
+            while (mid < toGroup - 1 && userStart[mid + 1] <= half) {
+                mid++;
+            }
+
+            invokeAll(
+                    new AllocateGroups(quotas, userKeys, userStart, programKeys, programStart,
+                            offsets, counts, winnerIds, fromGroup, mid),
+                    new AllocateGroups(quotas, userKeys, userStart, programKeys, programStart,
+                            offsets, counts, winnerIds, mid, toGroup)
+            );
+        }
+
+        private void allocate(int group) {
+            int firstProgram = programStart[group];
+            int programs = programStart[group + 1] - firstProgram;
+            if (programs == 0)
+                return;
+
+            // Best users and most demanding programs first
+            Arrays.sort(userKeys, userStart[group], userStart[group + 1]);
+            Arrays.sort(programKeys, firstProgram, programStart[group + 1]);
+
+            // open[i] leads to the first program at or after position i with a free grant,
+            // position programs means there is none
+            int[] open = new int[programs + 1];
+            for (int i = 0; i <= programs; i++) {
+                open[i] = i < programs && quotas[(int) programKeys[firstProgram + i]] == 0 ? i + 1 : i;
+            }
+
+            int reachable = 0;
+            for (int u = userStart[group]; u < userStart[group + 1]; u++) {
+                int total = scoreOf(userKeys[u]);
+
+                // Programs the user reaches are the ones from reachable on, later users reach no more of them
+                while (reachable < programs && scoreOf(programKeys[firstProgram + reachable]) > total) {
+                    reachable++;
+                }
+
+                int position = findOpen(open, reachable);
+                // Every program the user reaches is full, and so is every program a later user reaches
+                if (position == programs)
+                    return;
+
+                int p = (int) programKeys[firstProgram + position];
+                winnerIds[offsets[p] + counts[p]++] = (int) userKeys[u];
+                if (counts[p] == quotas[p])
+                    open[position] = position + 1;
+            }
+        }
+
+        // Follows the links to the next free program and shortens them on the way back
+        private static int findOpen(int[] open, int position) {
+            int root = position;
+            while (open[root] != root) {
+                root = open[root];
+            }
+            while (open[position] != root) {
+                int link = open[position];
+                open[position] = root;
+                position = link;
+            }
+            return root;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package allocation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Grant winners of every program, stored back to back in one array.
+// Winners of program i are winnerIds[offsets[i]] .. winnerIds[offsets[i] + counts[i] - 1], best first.
+// A user is the winner of one program at most.
+@AllArgsConstructor
+@Getter
+public final class AllocationResult {
+    private final int[] programIds;
+    private final int[] offsets;
+    private final int[] counts;
+    private final int[] winnerIds;
+    private final long elapsedMs;
+
+    public interface WinnerConsumer {
+        void accept(int programId, int rank, int userId);
+    }
+
+    public void forEachWinner(WinnerConsumer consumer) {
+        for (int i = 0; i < programIds.length; i++) {
+            for (int rank = 0; rank < counts[i]; rank++) {
+                consumer.accept(programIds[i], rank + 1, winnerIds[offsets[i] + rank]);
+            }
+        }
+    }
+
+    public long getTotalWinners() {
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "Programs: " + programIds.length + "\n" +
+                "Grants awarded: " + getTotalWinners() + "\n" +
+                "Elapsed: " + elapsedMs + " ms";
+    }
+}
@@ -0,0 +1,29 @@
+package cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public final class CacheStats {
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "Size: " + getSize() +
+                ", hits: " + getHits() +
+                ", misses: " + getMisses() +
+                ", evictions: " + getEvictions() +
+                ", expirations: " + getExpirations() +
+                String.format(", hit rate: %.1f%%", getHitRate() * 100);
+    }
+}
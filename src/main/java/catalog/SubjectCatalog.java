@@ -0,0 +1,127 @@
+package catalog;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Every subject name seen by the application, numbered from 0 in the order names first appear.
+// Names that differ only in case or surrounding whitespace share a code, so electives compare as ints.
+// intern() hands out one String per spelling, rows read from the database keep that one
+// instead of their own copy of the same name.
+// Lookups for request input use findCode() and canonical(), which never number a name.
+// Main numbers the programs' electives at startup, so they get the smallest codes.
+public final class SubjectCatalog {
+    private static final SubjectCatalog SHARED = new SubjectCatalog();
+    // Spellings remembered at most, other spellings of a numbered name are looked up by their key
+    private static final int MAX_SPELLINGS = 10_000;
+
+    // Exact spelling to its code, the only lookup once a name has been seen
+    private final Map<String, Entry> bySpelling = new ConcurrentHashMap<>();
+    // Normalized name to code, written under lock
+    private final Map<String, Integer> codesByKey = new ConcurrentHashMap<>();
+    // First spelling of every code, slots below size are filled. Grown by doubling and replaced,
+    // a reader that saw size also sees an array holding that many names.
+    private volatile String[] names = new String[64];
+    private volatile int size;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public static SubjectCatalog shared() {
+        return SHARED;
+    }
+
+    // Canonical instance of the spelling, null stays null
+    public String intern(String name) {
+        return name == null ? null : entry(name).name;
+    }
+
+    // Interns the elements in place and returns the same array
+    public String[] internAll(String[] names) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                names[i] = intern(names[i]);
+            }
+        }
+        return names;
+    }
+
+    // Canonical instance of a numbered name, the name itself otherwise.
+    // For names from requests, which must not take codes from stored subjects.
+    public String canonical(String name) {
+        Entry entry = name == null ? null : find(name);
+        return entry == null ? name : entry.name;
+    }
+
+    // Code of the subject, a new one if the name was never seen, -1 for null
+    public int codeOf(String name) {
+        return name == null ? -1 : entry(name).code;
+    }
+
+    // Code of the subject, -1 if the name has none
+    public int findCode(String name) {
+        Entry entry = name == null ? null : find(name);
+        return entry == null ? -1 : entry.code;
+    }
+
+    public String nameOf(int code) {
+        int count = size;
+        return code >= 0 && code < count ? names[code] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Entry find(String name) {
+        Entry entry = bySpelling.get(name);
+        if (entry != null)
+            return entry;
+
+        Integer code = codesByKey.get(normalize(name));
+        return code == null ? null : new Entry(name, code);
+    }
+
+    private Entry entry(String name) {
+        Entry entry = bySpelling.get(name);
+        if (entry != null)
+            return entry;
+
+        String key = normalize(name);
+        Integer code = codesByKey.get(key);
+        if (code == null) {
+            lock.lock();
+            try {
+                code = codesByKey.get(key);
+                if (code == null) {
+                    code = size;
+                    String[] current = names;
+                    if (code == current.length)
+                        current = Arrays.copyOf(current, code * 2);
+                    current[code] = name;
+                    names = current;
+                    // Written last, nameOf() reads size first
+                    size = code + 1;
+                    codesByKey.put(key, code);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        entry = new Entry(name, code);
+        if (bySpelling.size() < MAX_SPELLINGS) {
+            Entry earlier = bySpelling.putIfAbsent(name, entry);
+            if (earlier != null)
+                return earlier;
+        }
+        return entry;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String name, int code) {
+    }
+}
@@ -0,0 +1,78 @@
+package controllers;
+
+import lombok.AllArgsConstructor;
+import models.ProgramReach;
+import models.ScoreHistogram;
+import models.SubjectSummary;
+import services.interfaces.IAnalyticsService;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class AnalyticsController {
+    private static final int MAX_BUCKETS = 100;
+    // Characters of the longest histogram bar
+    private static final int BAR_WIDTH = 40;
+
+    private final IAnalyticsService analyticsService;
+
+    public String getSubjectSummaries() {
+        List<SubjectSummary> summaries = analyticsService.getSubjectSummaries();
+        if (summaries.isEmpty())
+            return "No Subject Scores found";
+
+        StringBuilder response = new StringBuilder();
+        for (SubjectSummary summary : summaries) {
+            if (!response.isEmpty())
+                response.append("\n\n");
+            response.append(summary);
+        }
+        return response.toString();
+    }
+
+    public String getHistogram(String subject, int buckets) {
+        if (buckets < 1 || buckets > MAX_BUCKETS)
+            return "Number of buckets must be between 1 and " + MAX_BUCKETS;
+
+        ScoreHistogram histogram = analyticsService.getHistogram(subject, buckets);
+        if (histogram == null)
+            return "No Subject Scores were found";
+
+        long[] counts = histogram.getCounts();
+        long largest = 1;
+        for (long count : counts) {
+            largest = Math.max(largest, count);
+        }
+
+        StringBuilder response = new StringBuilder();
+        response.append(histogram.getSubject()).append(": ")
+                .append(histogram.getTotal()).append(" scores\n");
+        for (int i = 0; i < counts.length; i++) {
+            response.append(String.format("%5d - %5d | %-" + BAR_WIDTH + "s %d%n",
+                    histogram.getBucketStart(i), histogram.getBucketEnd(i),
+                    "#".repeat((int) (counts[i] * BAR_WIDTH / largest)), counts[i]));
+        }
+        return response.toString();
+    }
+
+    public String getProgramReach() {
+        List<ProgramReach> reach = analyticsService.getProgramReach();
+        if (reach.isEmpty())
+            return "No Programs found";
+
+        StringBuilder response = new StringBuilder();
+        for (ProgramReach program : reach) {
+            if (!response.isEmpty())
+                response.append("\n\n");
+            response.append(program);
+        }
+        return response.toString();
+    }
+
+    public String getProgramReach(int programId) {
+        ProgramReach reach = analyticsService.getProgramReach(programId);
+        if (reach == null)
+            return "Program was not found";
+        return reach.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package controllers;
+
+import allocation.AllocationResult;
+import lombok.AllArgsConstructor;
+import matching.EligibilityIndex;
+import models.Program;
+import models.RankedUser;
+import models.User;
+import serialization.TextSerializer;
+import services.interfaces.IAllocationService;
+import services.interfaces.ILeaderboardService;
+import services.interfaces.IMatchingService;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class MatchingController {
+    private final IMatchingService matchingService;
+    private final IAllocationService allocationService;
+    private final ILeaderboardService leaderboardService;
+
+    public String getEligiblePrograms(int userId) {
+        List<Program> programs = matchingService.getEligiblePrograms(userId);
+
+        if (programs == null)
+            return "User not found";
+        if (programs.isEmpty())
+            return "User is not eligible for any Program";
+
+        return TextSerializer.renderAll(programs, TextSerializer::writeProgram, "\n\n");
+    }
+
+    public String getEligibleUsers(int programId, int limit) {
+        if (limit <= 0)
+            return "Number of users must be positive";
+
+        List<User> users = matchingService.getEligibleUsers(programId, limit);
+
+        if (users == null)
+            return "Program was not found";
+        if (users.isEmpty())
+            return "No eligible users were found";
+
+        StringBuilder response = new StringBuilder();
+        int rank = 1;
+
+        // Users are already ranked by total score
+        for (User user : users) {
+            response.append(rank++).append(". ")
+                    .append("User #").append(user.getId()).append(" ")
+                    .append(user.getFirstName()).append(" ").append(user.getLastName())
+                    .append(" - ").append(EligibilityIndex.totalScore(user))
+                    .append("\n");
+        }
+
+        return response.toString();
+    }
+
+    public String getLeaderboard(int programId, int limit) {
+        if (limit <= 0)
+            return "Number of users must be positive";
+
+        List<RankedUser> rankedUsers = leaderboardService.getTop(programId, limit);
+
+        if (rankedUsers == null)
+            return "Program was not found";
+        if (rankedUsers.isEmpty())
+            return "No eligible users were found";
+
+        StringBuilder response = new StringBuilder();
+        response.append("Eligible users: ").append(rankedUsers.get(0).getEligibleCount()).append("\n");
+
+        for (RankedUser rankedUser : rankedUsers) {
+            User user = rankedUser.getUser();
+            response.append(rankedUser.getRank()).append(". ")
+                    .append("User #").append(user.getId()).append(" ")
+                    .append(user.getFirstName()).append(" ").append(user.getLastName())
+                    .append(" - ").append(rankedUser.getTotalScore())
+                    .append("\n");
+        }
+
+        return response.toString();
+    }
+
+    public String getRank(int programId, int userId) {
+        RankedUser rankedUser = leaderboardService.getRank(programId, userId);
+
+        if (rankedUser == null)
+            return "User is not eligible for this Program";
+
+        return "Rank " + rankedUser.getRank() + " of " + rankedUser.getEligibleCount() +
+                " with total score " + rankedUser.getTotalScore() +
+                String.format("%nAhead of %.1f%% of eligible users", rankedUser.getPercentile());
+    }
+
+    public String refresh() {
+        matchingService.refresh();
+        if (!leaderboardService.refresh())
+            return "Matching index was rebuilt, the leaderboard could not be rebuilt and was kept";
+        return "Matching index and leaderboard were rebuilt";
+    }
+
+    public String allocate(int quota) {
+        if (quota <= 0)
+            return "Number of grants must be positive";
+
+        AllocationResult result = allocationService.allocate(quota);
+
+        if (result == null)
+            return "Failed to save grant allocation";
+        return "Grant allocation finished\n" + result;
+    }
+}
@@ -0,0 +1,13 @@
+package controllers;
+
+import lombok.AllArgsConstructor;
+import metrics.RepositoryMetrics;
+
+@AllArgsConstructor
+public class MetricsController {
+    private final RepositoryMetrics repositoryMetrics;
+
+    public String getReport() {
+        return repositoryMetrics.getReport();
+    }
+}
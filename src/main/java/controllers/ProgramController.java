@@ -1,13 +1,20 @@
 package controllers;
 
 import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.PageSort;
 import models.Program;
+import serialization.TextSerializer;
 import services.interfaces.IProgramService;
 
+import java.io.PrintStream;
 import java.util.List;
 
 @AllArgsConstructor
 public class ProgramController {
+    private static final int MAX_PAGE_SIZE = 1_000;
+
     private final IProgramService programService;
 
     public String getAll() {
@@ -15,12 +22,36 @@ public class ProgramController {
         if (programs.isEmpty())
             return "No Programs were found";
 
-        StringBuilder response = new StringBuilder();
-        for (Program program : programs) {
-            response.append(program.toString()).append("\n\n");
+        return TextSerializer.renderAll(programs, TextSerializer::writeProgram, "\n\n");
+    }
+
+    public void writeAll(PrintStream out) {
+        // Print programs one by one as they are read instead of building one response
+        long count = TextSerializer.stream(out, programService::streamAll, TextSerializer::writeProgram, "\n\n");
+
+        if (count < 0)
+            out.println("Programs could not be read, the list above is incomplete");
+        else if (count == 0)
+            out.println("No Programs were found");
+    }
+
+    public String getPage(PageSort sort, String afterKey, int afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            return "Page size must be between 1 and " + MAX_PAGE_SIZE;
+
+        Page<Program> page;
+        try {
+            page = programService.getPage(PageRequest.of(sort, afterKey, afterId, limit));
+        } catch (NumberFormatException e) {
+            return "Score key must be an integer";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
         }
 
-        return response.toString();
+        if (page.getItems().isEmpty())
+            return "No Programs were found";
+
+        return TextSerializer.renderPage(page, TextSerializer::writeProgram, "\n\n");
     }
 
     public String getById(int id) {
@@ -29,7 +60,7 @@ public class ProgramController {
         if (program == null)
             return "Program was not found";
 
-        return program.toString();
+        return TextSerializer.render(program, TextSerializer::writeProgram);
     }
 
     public String create(String name, int min, String[] electives) {
@@ -37,7 +68,7 @@ public class ProgramController {
         Program createdProgram = programService.create(program);
 
         if (createdProgram != null)
-            return "Created Program\n" + createdProgram;
+            return "Created Program\n" + TextSerializer.render(createdProgram, TextSerializer::writeProgram);
         return "Failed to create Program";
     }
 }
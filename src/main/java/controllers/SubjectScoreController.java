@@ -1,13 +1,20 @@
 package controllers;
 
 import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.PageSort;
 import models.SubjectScore;
+import serialization.TextSerializer;
 import services.interfaces.ISubjectScoreService;
 
+import java.io.PrintStream;
 import java.util.List;
 
 @AllArgsConstructor
 public class SubjectScoreController {
+    private static final int MAX_PAGE_SIZE = 1_000;
+
     private final ISubjectScoreService subjectScoreService;
 
     public String getAll() {
@@ -16,14 +23,37 @@ public class SubjectScoreController {
         if (subjectScores.isEmpty())
             return "No Subject Scores found";
 
-        StringBuilder response = new StringBuilder();
+        return TextSerializer.renderAll(subjectScores, TextSerializer::writeSubjectScore, "\n\n");
+    }
+
+    public void writeAll(PrintStream out) {
+        // Print subject scores one by one as they are read instead of building one response
+        long count = TextSerializer.stream(
+                out, subjectScoreService::streamAll, TextSerializer::writeSubjectScore, "\n\n");
 
-        // Append all SubjectScore string representations to response
-        for (SubjectScore subjectScore : subjectScores) {
-            response.append(subjectScore.toString()).append("\n\n");
+        if (count < 0)
+            out.println("Subject Scores could not be read, the list above is incomplete");
+        else if (count == 0)
+            out.println("No Subject Scores found");
+    }
+
+    public String getPage(PageSort sort, String afterKey, int afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            return "Page size must be between 1 and " + MAX_PAGE_SIZE;
+
+        Page<SubjectScore> page;
+        try {
+            page = subjectScoreService.getPage(PageRequest.of(sort, afterKey, afterId, limit));
+        } catch (NumberFormatException e) {
+            return "Score key must be an integer";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
         }
 
-        return response.toString();
+        if (page.getItems().isEmpty())
+            return "No Subject Scores were found";
+
+        return TextSerializer.renderPage(page, TextSerializer::writeSubjectScore, "\n\n");
     }
 
     public String getById(int id) {
@@ -33,7 +63,7 @@ public class SubjectScoreController {
         // If SubjectScore does not exist, return appropriate response
         if (subjectScore == null)
             return "Subject Score was not found";
-        return subjectScore.toString();
+        return TextSerializer.render(subjectScore, TextSerializer::writeSubjectScore);
     }
 
     public String create(String subject, int score) {
@@ -44,6 +74,7 @@ public class SubjectScoreController {
         // Return appropriate response
         if (createdSubjectScore == null)
             return "Failed to create Subject Score";
-        return "Created Subject Score\n" + createdSubjectScore;
+        return "Created Subject Score\n" +
+                TextSerializer.render(createdSubjectScore, TextSerializer::writeSubjectScore);
     }
 }
@@ -1,15 +1,22 @@
 package controllers;
 
 import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.PageSort;
 import models.Program;
 import models.University;
+import serialization.TextSerializer;
 import services.interfaces.IUniversityService;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
 @AllArgsConstructor
 public class UniversityController {
+    private static final int MAX_PAGE_SIZE = 1_000;
+
     private final IUniversityService universityService;
 
     public String getAll() {
@@ -18,13 +25,47 @@ public class UniversityController {
         if (universities.isEmpty())
             return "No Universities were found";
 
-        StringBuilder response = new StringBuilder();
+        return TextSerializer.renderAll(universities, TextSerializer::writeUniversity, "\n");
+    }
+
+    public void writeAll(PrintStream out) {
+        // Print universities one by one as they are read instead of building one response
+        long count = TextSerializer.stream(out, universityService::streamAll, TextSerializer::writeUniversity, "\n");
 
-        for (University university : universities) {
-            response.append(university.toString()).append("\n");
+        if (count < 0)
+            out.println("Universities could not be read, the list above is incomplete");
+        else if (count == 0)
+            out.println("No Universities were found");
+    }
+
+    public String getPage(PageSort sort, String afterKey, int afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            return "Page size must be between 1 and " + MAX_PAGE_SIZE;
+        if (sort == PageSort.SCORE)
+            return "Universities can only be sorted by id or name";
+
+        Page<University> page;
+        try {
+            page = universityService.getPage(PageRequest.of(sort, afterKey, afterId, limit));
+        } catch (NumberFormatException e) {
+            return "Score key must be an integer";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
         }
 
-        return response.toString();
+        if (page.getItems().isEmpty())
+            return "No Universities were found";
+
+        return TextSerializer.renderPage(page, TextSerializer::writeUniversity, "\n");
+    }
+
+    public String getByProgramId(int programId) {
+        List<University> universities = universityService.getAllByProgramId(programId);
+
+        if (universities.isEmpty())
+            return "No Universities offer this Program";
+
+        return TextSerializer.renderAll(universities, TextSerializer::writeUniversity, "\n");
     }
 
     public String getById(int id) {
@@ -33,7 +74,7 @@ public class UniversityController {
         if (university == null)
             return "University was not found";
 
-        return university.toString();
+        return TextSerializer.render(university, TextSerializer::writeUniversity);
     }
 
     public String create(
@@ -58,6 +99,6 @@ public class UniversityController {
 
         if (createdUniversity == null)
             return "Could not create University";
-        return createdUniversity.toString();
+        return TextSerializer.render(createdUniversity, TextSerializer::writeUniversity);
     }
 }
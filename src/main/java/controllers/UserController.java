@@ -1,16 +1,26 @@
 package controllers;
 
 import lombok.AllArgsConstructor;
+import models.ImportStats;
+import models.Page;
+import models.PageRequest;
+import models.PageSort;
 import models.SubjectScore;
 import models.User;
+import serialization.TextSerializer;
+import services.interfaces.IUserImportService;
 import services.interfaces.IUserService;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
 @AllArgsConstructor
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 1_000;
+
     private final IUserService userService;
+    private final IUserImportService userImportService;
 
     public String getAll() {
         List<User> users = userService.getAll();
@@ -18,13 +28,36 @@ public class UserController {
         if (users == null)
             return "No users were found";
 
-        StringBuilder response = new StringBuilder();
+        return TextSerializer.renderAll(users, TextSerializer::writeUser, "\n\n");
+    }
+
+    public void writeAll(PrintStream out) {
+        // Print users one by one as they are read instead of building one response
+        long count = TextSerializer.stream(out, userService::streamAll, TextSerializer::writeUser, "\n\n");
+
+        if (count < 0)
+            out.println("Users could not be read, the list above is incomplete");
+        else if (count == 0)
+            out.println("No users were found");
+    }
 
-        for (User user : users) {
-            response.append(user.toString()).append("\n\n");
+    public String getPage(PageSort sort, String afterKey, int afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            return "Page size must be between 1 and " + MAX_PAGE_SIZE;
+
+        Page<User> page;
+        try {
+            page = userService.getPage(PageRequest.of(sort, afterKey, afterId, limit));
+        } catch (NumberFormatException e) {
+            return "Score key must be an integer";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
         }
 
-        return response.toString();
+        if (page.getItems().isEmpty())
+            return "No Users were found";
+
+        return TextSerializer.renderPage(page, TextSerializer::writeUser, "\n\n");
     }
 
     public String getById(int id) {
@@ -33,7 +66,7 @@ public class UserController {
         if (user == null)
             return "User not found";
 
-        return user.toString();
+        return TextSerializer.render(user, TextSerializer::writeUser);
     }
 
     public String create(
@@ -55,6 +88,17 @@ public class UserController {
 
         if (createdUser == null)
             return "Failed to create User";
-        return "Created User\n" + createdUser;
+        return "Created User\n" + TextSerializer.render(createdUser, TextSerializer::writeUser);
+    }
+
+    public String importUsers(String path, String rejectPath) {
+        // Reject file defaults to the input file name with .rejects appended
+        if (rejectPath == null || rejectPath.isBlank())
+            rejectPath = path + ".rejects";
+
+        ImportStats stats = userImportService.importUsers(path, rejectPath);
+
+        return "Import finished\n" + stats +
+                "\nRejected rows were written to " + rejectPath;
     }
 }
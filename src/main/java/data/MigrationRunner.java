@@ -0,0 +1,227 @@
+package data;
+
+import data.interfaces.IDataBase;
+import exceptions.MigrationException;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Brings the database schema to the latest version. Every migration runs once, in order, and is
+// recorded in schema_version together with a checksum so edited migrations are noticed.
+@AllArgsConstructor
+public class MigrationRunner {
+    private static final String DIRECTORY = "db/migration/";
+
+    // Append new migrations at the end, never change or reorder applied ones
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__create_tables.sql",
+            "V2__add_lookup_indexes.sql",
+            "V3__add_page_indexes.sql",
+            "V4__add_user_total_score.sql",
+            "V5__create_join_tables.sql",
+            "V6__one_grant_per_user.sql"
+    );
+
+    // Indexes the repository queries rely on, startup fails if one of them is missing
+    private static final List<String> REQUIRED_INDEXES = List.of(
+            "users_email_idx",
+            "users_last_name_id_idx",
+            "users_total_score_id_idx",
+            "subject_scores_subject_score_idx",
+            "subject_scores_subject_id_idx",
+            "subject_scores_score_id_idx",
+            "programs_electives_idx",
+            "programs_name_id_idx",
+            "programs_minimum_score_id_idx",
+            "universities_program_ids_idx",
+            "universities_name_id_idx",
+            "grant_allocations_user_id_idx",
+            "user_subject_scores_subject_score_id_idx",
+            "university_programs_program_id_idx"
+    );
+
+    // Only one application instance migrates at a time, the others wait for it
+    private static final long LOCK_ID = 0x6772616e746564L;
+
+    private final IDataBase db;
+
+    // Apply pending migrations and return how many were applied
+    public int migrate() throws MigrationException {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+            if (con == null)
+                throw new MigrationException("No database connection to run migrations");
+
+            // DDL is transactional in Postgres, a failed migration leaves the schema untouched
+            con.setAutoCommit(false);
+
+            try (Statement stmt = con.createStatement()) {
+                stmt.execute("SELECT pg_advisory_xact_lock(" + LOCK_ID + ")");
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                        "version INTEGER PRIMARY KEY, " +
+                        "script CHARACTER VARYING NOT NULL, " +
+                        "checksum BIGINT NOT NULL, " +
+                        "applied_at TIMESTAMP NOT NULL DEFAULT now())");
+            }
+
+            Map<Integer, Long> applied = appliedChecksums(con);
+            int count = 0;
+
+            for (int i = 0; i < MIGRATIONS.size(); i++) {
+                int version = i + 1;
+                String script = MIGRATIONS.get(i);
+                String text = readScript(script);
+                long checksum = checksum(text);
+
+                if (applied.containsKey(version)) {
+                    if (applied.get(version) != checksum)
+                        throw new MigrationException("Migration " + script + " was changed after it was applied");
+                    continue;
+                }
+
+                try (Statement stmt = con.createStatement()) {
+                    for (String sql : SqlScript.split(text)) {
+                        stmt.execute(sql);
+                    }
+                }
+                record(con, version, script, checksum);
+                count++;
+            }
+
+            con.commit();
+            return count;
+        } catch (SQLException e) {
+            rollback(con);
+            throw new MigrationException("Schema migration failed: " + e.getMessage());
+        } catch (IOException e) {
+            rollback(con);
+            throw new MigrationException(e.getMessage());
+        } catch (MigrationException e) {
+            rollback(con);
+            throw e;
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Check that the database is at the latest version and every required index exists
+    public void validate() throws MigrationException {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+            if (con == null)
+                throw new MigrationException("No database connection to validate the schema");
+
+            int version = 0;
+            try (Statement stmt = con.createStatement()) {
+                // Databases that were never migrated have no version table at all
+                try (ResultSet rs = stmt.executeQuery("SELECT to_regclass('schema_version') IS NOT NULL")) {
+                    rs.next();
+                    if (!rs.getBoolean(1))
+                        throw new MigrationException("Database schema has never been migrated");
+                }
+
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+                    if (rs.next())
+                        version = rs.getInt(1);
+                }
+            }
+
+            if (version < MIGRATIONS.size())
+                throw new MigrationException("Database schema is at version " + version +
+                        ", the application needs version " + MIGRATIONS.size());
+
+            List<String> missing = new ArrayList<>();
+            String query = "SELECT 1 FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ?";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                for (String index : REQUIRED_INDEXES) {
+                    stmt.setString(1, index);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next())
+                            missing.add(index);
+                    }
+                }
+            }
+
+            if (!missing.isEmpty())
+                throw new MigrationException("Database schema is missing indexes: " + missing);
+        } catch (SQLException e) {
+            throw new MigrationException("Schema validation failed: " + e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Map<Integer, Long> appliedChecksums(Connection con) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+
+        return applied;
+    }
+
+    private void record(Connection con, int version, String script, long checksum) throws SQLException {
+        String query = "INSERT INTO schema_version (version,script,checksum) VALUES(?,?,?)";
+
+        try (PreparedStatement stmt = con.prepareStatement(query)) {
+            stmt.setInt(1, version);
+            stmt.setString(2, script);
+            stmt.setLong(3, checksum);
+            stmt.executeUpdate();
+        }
+    }
+
+    private String readScript(String script) throws IOException {
+        return SqlScript.read(DIRECTORY + script);
+    }
+
+    private long checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private void rollback(Connection con) {
+        if (con == null)
+            return;
+
+        try {
+            con.rollback();
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
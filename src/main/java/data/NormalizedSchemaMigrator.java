@@ -0,0 +1,63 @@
+package data;
+
+import data.interfaces.IDataBase;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Fills the join tables of the normalized schema, created by migration V5, from the id arrays.
+// Safe to run again: links that already exist are skipped.
+@AllArgsConstructor
+public class NormalizedSchemaMigrator {
+    private static final String SCRIPT = "db/normalized_backfill.sql";
+
+    private final IDataBase db;
+
+    public String migrate() {
+        Connection con = null;
+
+        try {
+            List<String> statements = SqlScript.load(SCRIPT);
+
+            con = db.getConnection();
+            // Either both tables are filled or nothing changed
+            con.setAutoCommit(false);
+
+            long copied = 0;
+            try (Statement stmt = con.createStatement()) {
+                for (String sql : statements) {
+                    copied += stmt.executeUpdate(sql);
+                }
+            }
+
+            con.commit();
+            return "Normalized schema is ready, copied " + copied + " links from id arrays";
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+
+            if (con != null) {
+                try {
+                    con.rollback();
+                } catch (SQLException ex) {
+                    System.out.println(ex.getMessage());
+                }
+            }
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return "Failed to migrate to the normalized schema";
+    }
+}
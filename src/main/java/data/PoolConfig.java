@@ -0,0 +1,38 @@
+package data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class PoolConfig {
+    // Upper bound of physical connections, keep it well below Postgres max_connections
+    private int maxSize = 10;
+    // Idle connections the housekeeper keeps open even when they exceed idleTimeoutMs
+    private int minIdle = 2;
+    // How long a caller waits for a free connection before getConnection() gives up
+    private long connectionTimeoutMs = 5_000;
+    // Idle connections older than this are closed by the housekeeper
+    private long idleTimeoutMs = 600_000;
+    // Physical connections are retired after this age, even if they are healthy
+    private long maxLifetimeMs = 1_800_000;
+    // Connections idle for less than this are handed out without a validation round trip
+    private long validationBypassMs = 500;
+    private int validationTimeoutSeconds = 2;
+    private long housekeepingIntervalMs = 30_000;
+
+    // Read overrides such as -Dgranted.pool.maxSize=20 from system properties
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig config = new PoolConfig();
+
+        config.setMaxSize(Integer.getInteger("granted.pool.maxSize", config.getMaxSize()));
+        config.setMinIdle(Integer.getInteger("granted.pool.minIdle", config.getMinIdle()));
+        config.setConnectionTimeoutMs(Long.getLong(
+                "granted.pool.connectionTimeoutMs", config.getConnectionTimeoutMs()));
+        config.setIdleTimeoutMs(Long.getLong(
+                "granted.pool.idleTimeoutMs", config.getIdleTimeoutMs()));
+        config.setMaxLifetimeMs(Long.getLong(
+                "granted.pool.maxLifetimeMs", config.getMaxLifetimeMs()));
+
+        return config;
+    }
+}
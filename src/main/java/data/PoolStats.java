@@ -0,0 +1,31 @@
+package data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public final class PoolStats {
+    private final int total;
+    private final int idle;
+    private final int active;
+    private final int waiting;
+    private final long created;
+    private final long destroyed;
+    private final long borrowed;
+    private final long timeouts;
+    private final long validationFailures;
+    private final long leakedStatements;
+
+    @Override
+    public String toString() {
+        return "Connection pool:\n" +
+                "Total: " + getTotal() + ", active: " + getActive() +
+                ", idle: " + getIdle() + ", waiting: " + getWaiting() + "\n" +
+                "Created: " + getCreated() + ", destroyed: " + getDestroyed() +
+                ", borrowed: " + getBorrowed() + "\n" +
+                "Timeouts: " + getTimeouts() +
+                ", failed validations: " + getValidationFailures() +
+                ", statements left open: " + getLeakedStatements();
+    }
+}
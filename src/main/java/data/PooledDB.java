@@ -0,0 +1,337 @@
+package data;
+
+import data.interfaces.IDataBase;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class PooledDB implements IDataBase {
+    private final IDataBase source;
+    private final PoolConfig config;
+    // Most recently returned connection is handed out first, so rarely used ones can expire
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    // One permit per connection that may be lent out at the same time
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leakedStatements = new AtomicLong();
+
+    public PooledDB(IDataBase source) {
+        this(source, PoolConfig.fromSystemProperties());
+    }
+
+    public PooledDB(IDataBase source, PoolConfig config) {
+        this.source = source;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "granted-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(
+                this::evictIdle,
+                config.getHousekeepingIntervalMs(),
+                config.getHousekeepingIntervalMs(),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public Connection getConnection() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getConnectionTimeoutMs());
+
+        try {
+            // Wait until one of the pool slots is free
+            if (!permits.tryAcquire(config.getConnectionTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                System.out.println("Timed out waiting for a database connection");
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        try {
+            PooledConnection pooled = borrow(deadline);
+            if (pooled == null) {
+                permits.release();
+                return null;
+            }
+
+            borrowed.incrementAndGet();
+            return pooled.lend();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection borrow(long deadline) {
+        while (true) {
+            PooledConnection pooled = idle.pollFirst();
+
+            if (pooled == null) {
+                // Open a new physical connection if the pool is not full yet
+                if (total.incrementAndGet() <= config.getMaxSize()) {
+                    return open();
+                }
+                total.decrementAndGet();
+
+                // Otherwise another caller is about to return one
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.incrementAndGet();
+                    System.out.println("Timed out waiting for a database connection");
+                    return null;
+                }
+                try {
+                    pooled = idle.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                if (pooled == null) {
+                    continue;
+                }
+            }
+
+            if (isExpired(pooled)) {
+                destroy(pooled);
+                continue;
+            }
+            if (!isAlive(pooled)) {
+                validationFailures.incrementAndGet();
+                destroy(pooled);
+                continue;
+            }
+
+            return pooled;
+        }
+    }
+
+    private PooledConnection open() {
+        Connection physical = source.getConnection();
+
+        if (physical == null) {
+            total.decrementAndGet();
+            return null;
+        }
+
+        created.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private boolean isExpired(PooledConnection pooled) {
+        return System.currentTimeMillis() - pooled.createdAt >= config.getMaxLifetimeMs();
+    }
+
+    private boolean isAlive(PooledConnection pooled) {
+        // Skip the round trip for connections that were in use a moment ago
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < config.getValidationBypassMs())
+            return true;
+
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            // Leave the connection the way the next caller expects it
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.physical.clearWarnings();
+        } catch (SQLException e) {
+            destroy(pooled);
+            permits.release();
+            return;
+        }
+
+        if (isExpired(pooled)) {
+            destroy(pooled);
+        } else {
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        destroyed.incrementAndGet();
+
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+
+        // Oldest idle connections sit at the tail of the deque, so they are checked and evicted first
+        PooledConnection[] snapshot = idle.toArray(new PooledConnection[0]);
+        for (int i = snapshot.length - 1; i >= 0; i--) {
+            PooledConnection pooled = snapshot[i];
+            boolean idleTooLong = now - pooled.lastReturnedAt >= config.getIdleTimeoutMs()
+                    && idle.size() > config.getMinIdle();
+
+            // remove() fails if a caller borrowed the connection in the meantime
+            if ((idleTooLong || isExpired(pooled)) && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    public PoolStats getStats() {
+        int idleCount = idle.size();
+        int totalCount = Math.max(total.get(), idleCount);
+
+        return new PoolStats(
+                totalCount,
+                idleCount,
+                totalCount - idleCount,
+                permits.getQueueLength(),
+                created.get(),
+                destroyed.get(),
+                borrowed.get(),
+                timeouts.get(),
+                validationFailures.get(),
+                leakedStatements.get()
+        );
+    }
+
+    public void close() {
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastReturnedAt = createdAt;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        // Hand out a proxy whose close() returns the connection to the pool
+        private Connection lend() {
+            Lease lease = new Lease(this);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> lease.invoke(proxy, method, args)
+            );
+        }
+    }
+
+    private final class Lease {
+        private PooledConnection pooled;
+        // Statements created through this lease, the ones left open are closed on release
+        private final List<Statement> statements = new ArrayList<>();
+        // Calls run JDBC I/O while holding it, a monitor would pin virtual threads to their carrier
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        private Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            lock.lock();
+            try {
+                return invokeLocked(proxy, method, args);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Object invokeLocked(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (method.getDeclaringClass() == Object.class) {
+                if (name.equals("equals"))
+                    return proxy == args[0];
+                if (name.equals("hashCode"))
+                    return System.identityHashCode(proxy);
+                return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+            }
+
+            if (name.equals("close")) {
+                // Closing twice must not return the connection twice
+                if (pooled != null) {
+                    PooledConnection returned = pooled;
+                    pooled = null;
+                    closeStatements();
+                    release(returned);
+                }
+                return null;
+            }
+            if (name.equals("isClosed")) {
+                return pooled == null || pooled.physical.isClosed();
+            }
+            if (pooled == null) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (result instanceof Statement statement) {
+                statements.add(statement);
+            }
+            return result;
+        }
+
+        // Open statements would keep their cursors and portals alive on the physical connection
+        private void closeStatements() {
+            for (Statement statement : statements) {
+                try {
+                    if (!statement.isClosed()) {
+                        leakedStatements.incrementAndGet();
+                        statement.close();
+                    }
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+            statements.clear();
+        }
+    }
+}
@@ -4,17 +4,39 @@ import data.interfaces.IDataBase;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.util.Properties;
 
 public class PostgresDB implements IDataBase {
+    static {
+        try {
+            // Load driver's class file into memory once, not on every connection
+            Class.forName("org.postgresql.Driver");
+        } catch (ClassNotFoundException e) {
+            System.out.println("PostgreSQL driver is not on the classpath");
+        }
+    }
+
+    // Statements run this many times on a connection are prepared on the server and their plan is
+    // reused, 1 prepares them right away since pooled connections live long and queries are constant
+    private static final int PREPARE_THRESHOLD = Integer.getInteger("granted.jdbc.prepareThreshold", 1);
+    // Server prepared statements the driver keeps per connection, keyed by SQL text
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("granted.jdbc.statementCacheSize", 256);
+    private static final int STATEMENT_CACHE_MIB = Integer.getInteger("granted.jdbc.statementCacheMiB", 5);
+
     @Override
     public Connection getConnection() {
         String connectionURL = "jdbc:postgresql://localhost:5432/granted";
-        try {
-            // Load driver's class file into memory at runtime
-            Class.forName("org.postgresql.Driver");
 
+        Properties props = new Properties();
+        props.setProperty("user", "postgres");
+        props.setProperty("password", "1234");
+        props.setProperty("prepareThreshold", String.valueOf(PREPARE_THRESHOLD));
+        props.setProperty("preparedStatementCacheQueries", String.valueOf(STATEMENT_CACHE_SIZE));
+        props.setProperty("preparedStatementCacheSizeMiB", String.valueOf(STATEMENT_CACHE_MIB));
+
+        try {
             // Establish connection to database
-            Connection con = DriverManager.getConnection(connectionURL, "postgres", "1234");
+            Connection con = DriverManager.getConnection(connectionURL, props);
 
             return con;
         } catch (Exception e) {
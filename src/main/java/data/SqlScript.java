@@ -0,0 +1,51 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads a .sql file from the classpath and splits it into single statements
+public final class SqlScript {
+    private SqlScript() {
+    }
+
+    public static List<String> load(String resource) throws IOException {
+        return split(read(resource));
+    }
+
+    public static String read(String resource) throws IOException {
+        try (InputStream in = SqlScript.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null)
+                throw new IOException("SQL script " + resource + " was not found on the classpath");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Statements end with a semicolon at the end of a line, lines starting with -- are comments
+    public static List<String> split(String text) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--"))
+                continue;
+
+            statement.append(line).append('\n');
+
+            if (trimmed.endsWith(";")) {
+                // Drop the semicolon, the driver sends one statement at a time
+                statement.setLength(statement.lastIndexOf(";"));
+                statements.add(statement.toString().trim());
+                statement.setLength(0);
+            }
+        }
+
+        if (!statement.toString().isBlank())
+            statements.add(statement.toString().trim());
+
+        return statements;
+    }
+}
@@ -3,5 +3,8 @@ package data.interfaces;
 import java.sql.Connection;
 
 public interface IDataBase {
+    // Rows fetched per round trip when a table is streamed, -Dgranted.fetchSize overrides it
+    int FETCH_SIZE = Integer.getInteger("granted.fetchSize", 1_000);
+
     Connection getConnection();
 }
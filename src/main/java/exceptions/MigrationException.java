@@ -0,0 +1,7 @@
+package exceptions;
+
+public class MigrationException extends Exception {
+    public MigrationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,149 @@
+package http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import http.interfaces.IResource;
+import lombok.AllArgsConstructor;
+import serialization.BufferPool;
+import serialization.ByteWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs one request of a resource: admission against the in-flight limit, the service call
+// with a deadline and the JSON response. Every exchange runs on its own virtual thread.
+@AllArgsConstructor
+public class ApiHandler implements HttpHandler {
+    // Bodies are small JSON documents, anything bigger is refused before it is read
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final IResource resource;
+    private final HttpConfig config;
+    // Shared by all resources, so the limit holds for the whole server
+    private final Semaphore inFlight;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!acquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, ApiResponse.error(503, "Server is busy, try again later"));
+                return;
+            }
+
+            CompletableFuture<ApiResponse> call;
+            try {
+                call = resource.handle(readRequest(exchange));
+            } catch (IllegalArgumentException e) {
+                inFlight.release();
+                send(exchange, ApiResponse.error(400, e.getMessage()));
+                return;
+            } catch (IOException | RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+
+            if (call == null) {
+                inFlight.release();
+                send(exchange, ApiResponse.error(404, "No such operation: " +
+                        exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()));
+                return;
+            }
+
+            // The slot is given back when the service call ends, not when the client gave up waiting,
+            // otherwise slow queries would pile up behind timed out requests
+            call.whenComplete((response, error) -> inFlight.release());
+
+            send(exchange, await(call));
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return inFlight.tryAcquire(config.getQueueTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ApiResponse await(CompletableFuture<ApiResponse> call) {
+        try {
+            return call.get(config.getRequestTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A response that comes too late still hands its buffer back to the pool
+            call.thenAccept(late -> BufferPool.shared().release(late.getBody()));
+            return ApiResponse.error(504, "Request timed out");
+        } catch (ExecutionException e) {
+            System.out.println(e.getCause().getMessage());
+            return ApiResponse.error(500, "Internal server error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ApiResponse.error(503, "Server is shutting down");
+        }
+    }
+
+    private ApiRequest readRequest(HttpExchange exchange) throws IOException {
+        // Segments after the resource path: /users/42 gives ["42"]
+        String path = exchange.getRequestURI().getPath().substring(resource.path().length());
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty())
+                segments.add(segment);
+        }
+
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq <= 0)
+                    continue;
+
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        String body = null;
+        if (exchange.getRequestMethod().equals("POST")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES)
+                    throw new IllegalArgumentException("Request body is too large");
+
+                body = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+
+        return new ApiRequest(exchange.getRequestMethod(), segments, query, body);
+    }
+
+    private void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        ByteWriter body = response.getBody();
+
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            // A known length keeps the connection open for the next request of the client
+            exchange.sendResponseHeaders(response.getStatus(), body.size());
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                body.writeTo(out);
+            }
+        } finally {
+            BufferPool.shared().release(body);
+        }
+    }
+}
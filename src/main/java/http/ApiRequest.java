@@ -0,0 +1,123 @@
+package http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import models.PageRequest;
+import models.PageSort;
+import utils.JsonParser;
+
+import java.util.List;
+import java.util.Map;
+
+// Request as the resources see it: path segments after the resource name, query parameters and body
+@AllArgsConstructor
+@Getter
+public final class ApiRequest {
+    private static final int MAX_PAGE_SIZE = 1_000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final String method;
+    private final List<String> segments;
+    private final Map<String, String> query;
+    private final String body;
+
+    public boolean isGet() {
+        return method.equals("GET");
+    }
+
+    public boolean isPost() {
+        return method.equals("POST");
+    }
+
+    public String segment(int index) {
+        return index < segments.size() ? segments.get(index) : null;
+    }
+
+    // Id taken from the path, such as 42 in /users/42
+    public int id(int index) {
+        try {
+            return Integer.parseInt(segment(index));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Id must be an integer");
+        }
+    }
+
+    public Integer intParam(String name) {
+        String value = query.get(name);
+        if (value == null)
+            return null;
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be an integer");
+        }
+    }
+
+    // Page asked for by ?sort=&afterKey=&afterId=&limit=, the same rules as in the console menu apply
+    public PageRequest pageRequest(boolean scoreAllowed) {
+        PageSort sort;
+        try {
+            sort = PageSort.valueOf(query.getOrDefault("sort", "ID").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort " + query.get("sort"));
+        }
+        if (sort == PageSort.SCORE && !scoreAllowed)
+            throw new IllegalArgumentException("This resource can not be sorted by score");
+
+        Integer limit = intParam("limit");
+        if (limit == null)
+            limit = DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        Integer afterId = intParam("afterId");
+
+        try {
+            return PageRequest.of(sort, query.get("afterKey"), afterId == null ? 0 : afterId, limit);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Score key must be an integer");
+        }
+    }
+
+    public Map<String, Object> jsonBody() {
+        if (body == null || body.isBlank())
+            throw new IllegalArgumentException("Request body is required");
+
+        return JsonParser.parseObject(body);
+    }
+
+    // Field readers for JSON bodies, a missing or mistyped field is a bad request
+    public static String string(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof String))
+            throw new IllegalArgumentException("Field " + name + " is required");
+
+        return (String) value;
+    }
+
+    public static int integer(Map<String, Object> fields, String name) {
+        try {
+            return Integer.parseInt(string(fields, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field " + name + " must be an integer");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Object> list(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof List))
+            throw new IllegalArgumentException("Field " + name + " must be an array");
+
+        return (List<Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> object(Object value, String name) {
+        if (!(value instanceof Map))
+            throw new IllegalArgumentException("Every item of " + name + " must be an object");
+
+        return (Map<String, Object>) value;
+    }
+}
@@ -0,0 +1,49 @@
+package http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import models.Page;
+import serialization.BufferPool;
+import serialization.ByteWriter;
+import serialization.JsonSerializer;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+@AllArgsConstructor
+@Getter
+public final class ApiResponse {
+    private final int status;
+    // JSON body already encoded into a pooled buffer, the handler sends it and returns the buffer
+    private final ByteWriter body;
+
+    public static <T> ApiResponse ok(T item, BiConsumer<ByteWriter, T> writer) {
+        return of(200, item, writer);
+    }
+
+    public static <T> ApiResponse created(T item, BiConsumer<ByteWriter, T> writer) {
+        return of(201, item, writer);
+    }
+
+    public static <T> ApiResponse list(List<T> items, BiConsumer<ByteWriter, T> writer) {
+        ByteWriter body = BufferPool.shared().acquire();
+        JsonSerializer.writeList(body, items, writer);
+        return new ApiResponse(200, body);
+    }
+
+    public static <T> ApiResponse page(Page<T> page, BiConsumer<ByteWriter, T> writer) {
+        ByteWriter body = BufferPool.shared().acquire();
+        JsonSerializer.writePage(body, page, writer);
+        return new ApiResponse(200, body);
+    }
+
+    public static ApiResponse error(int status, String message) {
+        return of(status, message, JsonSerializer::writeError);
+    }
+
+    private static <T> ApiResponse of(int status, T item, BiConsumer<ByteWriter, T> writer) {
+        ByteWriter body = BufferPool.shared().acquire();
+        writer.accept(body, item);
+        return new ApiResponse(status, body);
+    }
+}
@@ -0,0 +1,62 @@
+package http;
+
+import com.sun.net.httpserver.HttpServer;
+import http.interfaces.IResource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Embedded HTTP/JSON server in front of the async services
+public class ApiServer {
+    private final HttpConfig config;
+    private final List<IResource> resources;
+    private final Semaphore inFlight;
+    // Exchanges block while they wait for the service call, a virtual thread each makes that cheap
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer server;
+
+    public ApiServer(HttpConfig config, List<IResource> resources) {
+        this.config = config;
+        this.resources = resources;
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+    }
+
+    public void start() throws IOException {
+        // The JDK server reads its connection settings from system properties once,
+        // values given on the command line are kept
+        setDefault("sun.net.httpserver.idleInterval", config.getIdleIntervalSeconds());
+        setDefault("sun.net.httpserver.maxIdleConnections", config.getMaxIdleConnections());
+        setDefault("sun.net.httpserver.maxReqTime", config.getMaxRequestSeconds());
+        setDefault("sun.net.httpserver.maxRspTime", config.getMaxResponseSeconds());
+        setDefault("jdk.httpserver.maxConnections", config.getMaxConnections());
+
+        server = HttpServer.create(new InetSocketAddress(config.getPort()), config.getBacklog());
+        server.setExecutor(executor);
+
+        for (IResource resource : resources) {
+            server.createContext(resource.path(), new ApiHandler(resource, config, inFlight));
+        }
+
+        server.start();
+    }
+
+    // Stop accepting connections, give running exchanges up to delaySeconds to finish
+    public void stop(int delaySeconds) {
+        if (server != null)
+            server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void setDefault(String property, long value) {
+        if (System.getProperty(property) == null)
+            System.setProperty(property, String.valueOf(value));
+    }
+}
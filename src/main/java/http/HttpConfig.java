@@ -0,0 +1,48 @@
+package http;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class HttpConfig {
+    private int port = 8080;
+    // Connections the OS queues while the server accepts others
+    private int backlog = 1_024;
+    // Open connections at once, further clients wait in the backlog
+    private int maxConnections = 10_000;
+    // Requests being served at once, the rest wait up to queueTimeoutMs and then get 503
+    private int maxInFlight = 1_000;
+    private long queueTimeoutMs = 50;
+    // A request that takes longer gets 504, its service call still holds an in-flight slot until it ends
+    private long requestTimeoutMs = 5_000;
+    // Keep-alive connections are closed after this many seconds without a request
+    private long idleIntervalSeconds = 30;
+    private int maxIdleConnections = 1_000;
+    // Clients must send the whole request and read the whole response within these many seconds
+    private long maxRequestSeconds = 10;
+    private long maxResponseSeconds = 30;
+
+    // Read overrides such as -Dgranted.http.port=9090 from system properties
+    public static HttpConfig fromSystemProperties() {
+        HttpConfig config = new HttpConfig();
+
+        config.setPort(Integer.getInteger("granted.http.port", config.getPort()));
+        config.setBacklog(Integer.getInteger("granted.http.backlog", config.getBacklog()));
+        config.setMaxConnections(Integer.getInteger(
+                "granted.http.maxConnections", config.getMaxConnections()));
+        config.setMaxInFlight(Integer.getInteger("granted.http.maxInFlight", config.getMaxInFlight()));
+        config.setQueueTimeoutMs(Long.getLong("granted.http.queueTimeoutMs", config.getQueueTimeoutMs()));
+        config.setRequestTimeoutMs(Long.getLong(
+                "granted.http.requestTimeoutMs", config.getRequestTimeoutMs()));
+        config.setIdleIntervalSeconds(Long.getLong(
+                "granted.http.idleIntervalSeconds", config.getIdleIntervalSeconds()));
+        config.setMaxIdleConnections(Integer.getInteger(
+                "granted.http.maxIdleConnections", config.getMaxIdleConnections()));
+        config.setMaxRequestSeconds(Long.getLong(
+                "granted.http.maxRequestSeconds", config.getMaxRequestSeconds()));
+        config.setMaxResponseSeconds(Long.getLong(
+                "granted.http.maxResponseSeconds", config.getMaxResponseSeconds()));
+
+        return config;
+    }
+}
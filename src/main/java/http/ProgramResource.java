@@ -0,0 +1,67 @@
+package http;
+
+import http.interfaces.IResource;
+import lombok.AllArgsConstructor;
+import models.Program;
+import serialization.JsonSerializer;
+import services.interfaces.IAsyncProgramService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// GET /programs and /programs/page (one page each), /programs/{id} and POST /programs
+@AllArgsConstructor
+public class ProgramResource implements IResource {
+    private final IAsyncProgramService programService;
+
+    @Override
+    public String path() {
+        return "/programs";
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> handle(ApiRequest request) {
+        String first = request.segment(0);
+
+        // Plain /programs answers with the first page as well
+        if (request.isGet() && (first == null || first.equals("page") && request.getSegments().size() == 1))
+            return programService.getPage(request.pageRequest(true))
+                    .thenApply(page -> ApiResponse.page(page, JsonSerializer::writeProgram));
+
+        if (request.isGet() && request.getSegments().size() == 1)
+            return programService.getById(request.id(0)).thenApply(program -> program == null
+                    ? ApiResponse.error(404, "Program not found")
+                    : ApiResponse.ok(program, JsonSerializer::writeProgram));
+
+        if (request.isPost() && first == null) {
+            Program program = readProgram(request.jsonBody());
+
+            return programService.create(program).thenApply(created -> created == null
+                    ? ApiResponse.error(500, "Failed to create Program")
+                    : ApiResponse.created(created, JsonSerializer::writeProgram));
+        }
+
+        return null;
+    }
+
+    // {"name":"Physics","minimumScore":200,"electives":["Math","Physics"]}, also used for university bodies
+    static Program readProgram(Map<String, Object> fields) {
+        List<Object> electives = ApiRequest.list(fields, "electives");
+        if (electives.size() != 2)
+            throw new IllegalArgumentException("A program must have 2 electives");
+
+        String[] electedSubjectNames = new String[electives.size()];
+        for (int i = 0; i < electives.size(); i++) {
+            if (!(electives.get(i) instanceof String))
+                throw new IllegalArgumentException("Electives must be strings");
+            electedSubjectNames[i] = (String) electives.get(i);
+        }
+
+        return new Program(
+                ApiRequest.string(fields, "name"),
+                ApiRequest.integer(fields, "minimumScore"),
+                electedSubjectNames
+        );
+    }
+}
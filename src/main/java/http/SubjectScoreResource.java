@@ -0,0 +1,51 @@
+package http;
+
+import http.interfaces.IResource;
+import lombok.AllArgsConstructor;
+import models.SubjectScore;
+import serialization.JsonSerializer;
+import services.interfaces.IAsyncSubjectScoreService;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// GET /subject-scores and /subject-scores/page (one page each), /subject-scores/{id}
+// and POST /subject-scores
+@AllArgsConstructor
+public class SubjectScoreResource implements IResource {
+    private final IAsyncSubjectScoreService subjectScoreService;
+
+    @Override
+    public String path() {
+        return "/subject-scores";
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> handle(ApiRequest request) {
+        String first = request.segment(0);
+
+        // Subject scores are only listed page by page, the plain path gives the first one
+        if (request.isGet() && (first == null || first.equals("page") && request.getSegments().size() == 1))
+            return subjectScoreService.getPage(request.pageRequest(true))
+                    .thenApply(page -> ApiResponse.page(page, JsonSerializer::writeSubjectScore));
+
+        if (request.isGet() && request.getSegments().size() == 1)
+            return subjectScoreService.getById(request.id(0)).thenApply(subjectScore -> subjectScore == null
+                    ? ApiResponse.error(404, "Subject Score not found")
+                    : ApiResponse.ok(subjectScore, JsonSerializer::writeSubjectScore));
+
+        if (request.isPost() && first == null) {
+            Map<String, Object> fields = request.jsonBody();
+            SubjectScore subjectScore = new SubjectScore(
+                    ApiRequest.string(fields, "subject"),
+                    ApiRequest.integer(fields, "score")
+            );
+
+            return subjectScoreService.create(subjectScore).thenApply(created -> created == null
+                    ? ApiResponse.error(500, "Failed to create Subject Score")
+                    : ApiResponse.created(created, JsonSerializer::writeSubjectScore));
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package http;
+
+import http.interfaces.IResource;
+import lombok.AllArgsConstructor;
+import models.Program;
+import models.University;
+import serialization.JsonSerializer;
+import services.interfaces.IAsyncUniversityService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// GET /universities?programId=, /universities and /universities/page (one page each), /universities/{id}
+// and POST /universities
+@AllArgsConstructor
+public class UniversityResource implements IResource {
+    private final IAsyncUniversityService universityService;
+
+    @Override
+    public String path() {
+        return "/universities";
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> handle(ApiRequest request) {
+        String first = request.segment(0);
+
+        // Only the universities offering one program come as a whole list
+        Integer programId = first == null ? request.intParam("programId") : null;
+        if (request.isGet() && programId != null)
+            return universityService.getAllByProgramId(programId)
+                    .thenApply(found -> ApiResponse.list(found, JsonSerializer::writeUniversity));
+
+        // Without a filter the plain list is the first page, universities have no score to sort by
+        if (request.isGet() && (first == null || first.equals("page") && request.getSegments().size() == 1))
+            return universityService.getPage(request.pageRequest(false))
+                    .thenApply(page -> ApiResponse.page(page, JsonSerializer::writeUniversity));
+
+        if (request.isGet() && request.getSegments().size() == 1)
+            return universityService.getById(request.id(0)).thenApply(university -> university == null
+                    ? ApiResponse.error(404, "University not found")
+                    : ApiResponse.ok(university, JsonSerializer::writeUniversity));
+
+        if (request.isPost() && first == null) {
+            // {"name":"...","programs":[{program}, ...]}, the programs are created with the university
+            Map<String, Object> fields = request.jsonBody();
+            List<Program> programs = new ArrayList<>();
+
+            for (Object item : ApiRequest.list(fields, "programs")) {
+                programs.add(ProgramResource.readProgram(ApiRequest.object(item, "programs")));
+            }
+
+            University university = new University(ApiRequest.string(fields, "name"), programs);
+
+            return universityService.create(university).thenApply(created -> created == null
+                    ? ApiResponse.error(500, "Failed to create University")
+                    : ApiResponse.created(created, JsonSerializer::writeUniversity));
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package http;
+
+import http.interfaces.IResource;
+import lombok.AllArgsConstructor;
+import models.SubjectScore;
+import models.User;
+import serialization.JsonSerializer;
+import services.interfaces.IAsyncUserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// GET /users and /users/page (one page each), /users/{id} and POST /users
+@AllArgsConstructor
+public class UserResource implements IResource {
+    private final IAsyncUserService userService;
+
+    @Override
+    public String path() {
+        return "/users";
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> handle(ApiRequest request) {
+        String first = request.segment(0);
+
+        // A whole table would not fit a response, so the plain list is its first page
+        if (request.isGet() && (first == null || first.equals("page") && request.getSegments().size() == 1))
+            return userService.getPage(request.pageRequest(true))
+                    .thenApply(page -> ApiResponse.page(page, JsonSerializer::writeUser));
+
+        if (request.isGet() && request.getSegments().size() == 1)
+            return userService.getById(request.id(0)).thenApply(user -> user == null
+                    ? ApiResponse.error(404, "User not found")
+                    : ApiResponse.ok(user, JsonSerializer::writeUser));
+
+        if (request.isPost() && first == null) {
+            User user = readUser(request.jsonBody());
+
+            return userService.create(user).thenApply(created -> created == null
+                    ? ApiResponse.error(500, "Failed to create User")
+                    : ApiResponse.created(created, JsonSerializer::writeUser));
+        }
+
+        return null;
+    }
+
+    // {"firstName":"...","lastName":"...","email":"...","password":"...",
+    //  "subjectScores":[{"subject":"Math","score":90}, ...]} with the 5 subject scores of the user
+    private User readUser(Map<String, Object> fields) {
+        List<Object> items = ApiRequest.list(fields, "subjectScores");
+        if (items.size() != 5)
+            throw new IllegalArgumentException("Number of subjects must be 5");
+
+        List<SubjectScore> subjectScores = new ArrayList<>(5);
+        for (Object item : items) {
+            Map<String, Object> score = ApiRequest.object(item, "subjectScores");
+            subjectScores.add(new SubjectScore(
+                    ApiRequest.string(score, "subject"),
+                    ApiRequest.integer(score, "score")
+            ));
+        }
+
+        return new User(
+                ApiRequest.string(fields, "firstName"),
+                ApiRequest.string(fields, "lastName"),
+                ApiRequest.string(fields, "email"),
+                ApiRequest.string(fields, "password"),
+                subjectScores
+        );
+    }
+}
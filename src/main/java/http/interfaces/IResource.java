@@ -0,0 +1,16 @@
+package http.interfaces;
+
+import http.ApiRequest;
+import http.ApiResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+// One collection of the API such as /users, requests are dispatched by their path segments
+public interface IResource {
+    // Path the resource is mounted at, such as "/users"
+    String path();
+
+    // Start the service call for the request, null when no route matches.
+    // A malformed request throws IllegalArgumentException with the message for the client.
+    CompletableFuture<ApiResponse> handle(ApiRequest request);
+}
@@ -0,0 +1,226 @@
+package matching;
+
+import catalog.SubjectCatalog;
+import models.Program;
+import models.SubjectScore;
+import models.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable index of users and programs grouped by their pair of elective subjects.
+// A user is eligible for a program if both chose the same electives and the user's
+// total score reaches the program's minimum score.
+public final class EligibilityIndex {
+    // Key of a missing elective, subject codes are never negative. It matches nothing.
+    public static final long NO_ELECTIVES = -1;
+
+    private final Map<Long, ProgramBucket> programsByElectives;
+    private final Map<Long, UserBucket> usersByElectives;
+    private final Map<Integer, User> usersById;
+    private final Map<Integer, Program> programsById;
+
+    private EligibilityIndex(
+            Map<Long, ProgramBucket> programsByElectives,
+            Map<Long, UserBucket> usersByElectives,
+            Map<Integer, User> usersById,
+            Map<Integer, Program> programsById
+    ) {
+        this.programsByElectives = programsByElectives;
+        this.usersByElectives = usersByElectives;
+        this.usersById = usersById;
+        this.programsById = programsById;
+    }
+
+    public static EligibilityIndex build(List<User> users, List<Program> programs) {
+        Map<Long, List<Program>> programGroups = new HashMap<>();
+        Map<Integer, Program> programsById = new HashMap<>();
+        for (Program program : programs) {
+            String[] electives = program.getElectedSubjectNames();
+            if (electives == null || electives.length != 2)
+                continue;
+
+            programsById.put(program.getId(), program);
+            long key = electivesKey(program);
+            if (key != NO_ELECTIVES)
+                programGroups.computeIfAbsent(key, k -> new ArrayList<>()).add(program);
+        }
+
+        Map<Long, List<User>> userGroups = new HashMap<>();
+        Map<Integer, User> usersById = new HashMap<>();
+        for (User user : users) {
+            if (user.getSubjectScores() == null || user.getSubjectScores().size() != 5)
+                continue;
+
+            usersById.put(user.getId(), user);
+            long key = electivesKey(user);
+            if (key != NO_ELECTIVES)
+                userGroups.computeIfAbsent(key, k -> new ArrayList<>()).add(user);
+        }
+
+        Map<Long, ProgramBucket> programsByElectives = new HashMap<>();
+        programGroups.forEach((key, group) -> programsByElectives.put(key, new ProgramBucket(group)));
+
+        Map<Long, UserBucket> usersByElectives = new HashMap<>();
+        userGroups.forEach((key, group) -> usersByElectives.put(key, new UserBucket(group)));
+
+        return new EligibilityIndex(programsByElectives, usersByElectives, usersById, programsById);
+    }
+
+    public User getUser(int id) {
+        return usersById.get(id);
+    }
+
+    public Program getProgram(int id) {
+        return programsById.get(id);
+    }
+
+    // Programs the user qualifies for, most demanding first. None for a user without five subject scores.
+    public List<Program> eligiblePrograms(User user) {
+        long key = electivesKey(user);
+        ProgramBucket bucket = key == NO_ELECTIVES ? null : programsByElectives.get(key);
+        if (bucket == null)
+            return Collections.emptyList();
+
+        return bucket.reachableWith(totalScore(user));
+    }
+
+    // Users qualifying for the program ranked by total score, at most limit of them.
+    // None for a program without two electives, build() leaves such programs out but callers may not.
+    public List<User> eligibleUsers(Program program, int limit) {
+        long key = electivesKey(program);
+        UserBucket bucket = key == NO_ELECTIVES ? null : usersByElectives.get(key);
+        if (bucket == null)
+            return Collections.emptyList();
+
+        return bucket.reaching(program.getMinimumScore(), limit);
+    }
+
+    public static int totalScore(User user) {
+        int total = 0;
+        for (SubjectScore subjectScore : user.getSubjectScores()) {
+            total += subjectScore.getScore();
+        }
+        return total;
+    }
+
+    // Electives are the last two of the five subject scores, NO_ELECTIVES without five of them
+    public static long electivesKey(User user) {
+        List<SubjectScore> subjectScores = user.getSubjectScores();
+        if (subjectScores == null || subjectScores.size() != 5)
+            return NO_ELECTIVES;
+
+        return electivesKey(subjectScores.get(3).getSubject(), subjectScores.get(4).getSubject());
+    }
+
+    // NO_ELECTIVES unless the program names exactly two electives
+    public static long electivesKey(Program program) {
+        String[] electives = program.getElectedSubjectNames();
+        if (electives == null || electives.length != 2)
+            return NO_ELECTIVES;
+
+        return electivesKey(electives[0], electives[1]);
+    }
+
+    // The order of the two electives does not matter, neither does case or surrounding whitespace.
+    // NO_ELECTIVES if one of them is null.
+    public static long electivesKey(String first, String second) {
+        SubjectCatalog catalog = SubjectCatalog.shared();
+        int firstCode = catalog.codeOf(first);
+        int secondCode = catalog.codeOf(second);
+        return firstCode < 0 || secondCode < 0 ? NO_ELECTIVES : electivesKey(firstCode, secondCode);
+    }
+
+    // Both subject codes in one number, the smaller one in the high half
+    public static long electivesKey(int first, int second) {
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+        return ((long) low << 32) | (high & 0xffffffffL);
+    }
+
+    // Programs sharing the same electives, sorted by minimum score in ascending order
+    private static final class ProgramBucket {
+        private final Program[] programs;
+        private final int[] minimumScores;
+
+        private ProgramBucket(List<Program> group) {
+            programs = group.toArray(new Program[0]);
+            Arrays.sort(programs, Comparator.comparingInt(Program::getMinimumScore)
+                    .thenComparingInt(Program::getId));
+
+            minimumScores = new int[programs.length];
+            for (int i = 0; i < programs.length; i++) {
+                minimumScores[i] = programs[i].getMinimumScore();
+            }
+        }
+
+        private List<Program> reachableWith(int total) {
+            // Number of programs whose minimum score is not above total
+            int count = upperBound(minimumScores, total);
+
+            List<Program> result = new ArrayList<>(count);
+            for (int i = count - 1; i >= 0; i--) {
+                result.add(programs[i]);
+            }
+            return result;
+        }
+
+        private static int upperBound(int[] sorted, int value) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] <= value)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+    }
+
+    // Users sharing the same electives, sorted by total score in descending order, ties by id
+    private static final class UserBucket {
+        private final User[] users;
+        private final int[] totals;
+
+        private UserBucket(List<User> group) {
+            int[] unsortedTotals = new int[group.size()];
+            Integer[] order = new Integer[group.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+                unsortedTotals[i] = totalScore(group.get(i));
+            }
+            Arrays.sort(order, (a, b) -> unsortedTotals[a] != unsortedTotals[b]
+                    ? Integer.compare(unsortedTotals[b], unsortedTotals[a])
+                    : Integer.compare(group.get(a).getId(), group.get(b).getId()));
+
+            users = new User[order.length];
+            totals = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                users[i] = group.get(order[i]);
+                totals[i] = unsortedTotals[order[i]];
+            }
+        }
+
+        private List<User> reaching(int minimumScore, int limit) {
+            // Number of users whose total is at least minimumScore
+            int low = 0;
+            int high = totals.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (totals[mid] >= minimumScore)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+
+            return Arrays.asList(users).subList(0, Math.min(low, limit));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package matching;
+
+import models.Program;
+import models.RankedUser;
+import models.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Users ranked by total score, one RankTree per pair of electives. Users qualifying for a program
+// are the leading part of its electives' ranking down to the program's minimum score, so every
+// program is answered from the shared tree and a new user is inserted only once.
+// Safe for concurrent readers and writers.
+public final class Leaderboard {
+    // Totals are stored as LIMIT - total so that higher totals sort first
+    private static final int LIMIT = 1 << 30;
+
+    private final Map<Long, Ranking> rankings = new ConcurrentHashMap<>();
+    private final Map<Integer, User> usersById = new ConcurrentHashMap<>();
+
+    // Add a user, false if it was already ranked or has no valid subject scores
+    public boolean add(User user) {
+        if (user.getSubjectScores() == null || user.getSubjectScores().size() != 5)
+            return false;
+
+        long electives = EligibilityIndex.electivesKey(user);
+        if (electives == EligibilityIndex.NO_ELECTIVES)
+            return false;
+
+        Ranking ranking = rankings.computeIfAbsent(electives, k -> new Ranking());
+        usersById.put(user.getId(), user);
+
+        ranking.lock.writeLock().lock();
+        try {
+            return ranking.tree.insert(key(EligibilityIndex.totalScore(user), user.getId()));
+        } finally {
+            ranking.lock.writeLock().unlock();
+        }
+    }
+
+    // Best eligible users of the program, at most limit of them
+    public List<RankedUser> top(Program program, int limit) {
+        Ranking ranking = rankingOf(program);
+        if (ranking == null)
+            return Collections.emptyList();
+
+        long[] keys;
+        int eligible;
+
+        ranking.lock.readLock().lock();
+        try {
+            eligible = ranking.tree.rank(bound(program.getMinimumScore()));
+            keys = new long[Math.min(limit, eligible)];
+
+            int[] filled = {0};
+            ranking.tree.ascending(keys.length, key -> keys[filled[0]++] = key);
+        } finally {
+            ranking.lock.readLock().unlock();
+        }
+
+        List<RankedUser> result = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            result.add(new RankedUser(usersById.get(userId(keys[i])), total(keys[i]), i + 1, eligible));
+        }
+        return result;
+    }
+
+    // Position of the user among the eligible users of the program, null if the user is not one of them
+    public RankedUser rankOf(Program program, int userId) {
+        User user = usersById.get(userId);
+        Ranking ranking = rankingOf(program);
+        if (user == null || ranking == null)
+            return null;
+
+        int total = EligibilityIndex.totalScore(user);
+        if (total < program.getMinimumScore())
+            return null;
+        if (EligibilityIndex.electivesKey(user) != EligibilityIndex.electivesKey(program))
+            return null;
+
+        ranking.lock.readLock().lock();
+        try {
+            int rank = ranking.tree.rank(key(total, userId)) + 1;
+            int eligible = ranking.tree.rank(bound(program.getMinimumScore()));
+            return new RankedUser(user, total, rank, eligible);
+        } finally {
+            ranking.lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(int userId) {
+        return usersById.containsKey(userId);
+    }
+
+    private Ranking rankingOf(Program program) {
+        long key = EligibilityIndex.electivesKey(program);
+        return key == EligibilityIndex.NO_ELECTIVES ? null : rankings.get(key);
+    }
+
+    // Higher totals first, equal totals by id
+    private static long key(int total, int userId) {
+        return ((long) (LIMIT - total) << 32) | (userId & 0xffffffffL);
+    }
+
+    // Keys below this one belong to users whose total is at least minimumScore
+    private static long bound(int minimumScore) {
+        return (long) (LIMIT - Math.max(minimumScore, 0) + 1) << 32;
+    }
+
+    private static int total(long key) {
+        return LIMIT - (int) (key >>> 32);
+    }
+
+    private static int userId(long key) {
+        return (int) key;
+    }
+
+    private static final class Ranking {
+        private final RankTree tree = new RankTree(1_024);
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+}
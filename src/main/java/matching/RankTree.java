@@ -0,0 +1,187 @@
+package matching;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Order statistics over distinct long keys: a treap whose nodes also count the keys below them,
+// so rank and k-th key are found in O(log n). Nodes live in parallel primitive arrays of
+// 24 bytes per key and no objects. Not thread safe.
+public final class RankTree {
+    // Index 0 is the empty tree, its size stays 0
+    private static final int NIL = 0;
+
+    private long[] keys;
+    private int[] left;
+    private int[] right;
+    private int[] size;
+    private int[] priority;
+    private int root = NIL;
+    private int used;
+    private int seed = 0x2545f491;
+
+    // Results of split(), kept in fields to avoid returning a pair
+    private int splitLeft;
+    private int splitRight;
+
+    public RankTree(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16) + 1;
+        keys = new long[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        size = new int[capacity];
+        priority = new int[capacity];
+    }
+
+    public int size() {
+        return size[root];
+    }
+
+    public boolean contains(long key) {
+        int node = root;
+        while (node != NIL) {
+            if (key == keys[node])
+                return true;
+            node = key < keys[node] ? left[node] : right[node];
+        }
+        return false;
+    }
+
+    // Add the key, false if it is already in the tree
+    public boolean insert(long key) {
+        if (contains(key))
+            return false;
+
+        if (used + 1 == keys.length)
+            grow();
+
+        int node = ++used;
+        keys[node] = key;
+        priority[node] = nextPriority();
+        size[node] = 1;
+
+        split(root, key);
+        int greater = splitRight;
+        root = merge(merge(splitLeft, node), greater);
+        return true;
+    }
+
+    // Number of keys smaller than key, whether or not key itself is in the tree
+    public int rank(long key) {
+        int rank = 0;
+        int node = root;
+
+        while (node != NIL) {
+            if (keys[node] < key) {
+                rank += size[left[node]] + 1;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+
+        return rank;
+    }
+
+    // Key with exactly index smaller keys
+    public long select(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Rank " + index + " of " + size());
+
+        int node = root;
+        while (true) {
+            int leftSize = size[left[node]];
+
+            if (index < leftSize) {
+                node = left[node];
+            } else if (index == leftSize) {
+                return keys[node];
+            } else {
+                index -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    // Smallest keys in ascending order, at most limit of them
+    public void ascending(int limit, LongConsumer action) {
+        // Path of nodes whose key is still to be visited
+        int[] stack = new int[64];
+        int depth = 0;
+        int node = root;
+        int visited = 0;
+
+        while (visited < limit && (node != NIL || depth > 0)) {
+            if (node != NIL) {
+                if (depth == stack.length)
+                    stack = Arrays.copyOf(stack, depth * 2);
+                stack[depth++] = node;
+                node = left[node];
+            } else {
+                node = stack[--depth];
+                action.accept(keys[node]);
+                visited++;
+                node = right[node];
+            }
+        }
+    }
+
+    // Split the subtree t into keys below key (splitLeft) and the rest (splitRight)
+    private void split(int t, long key) {
+        if (t == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+
+        if (keys[t] < key) {
+            split(right[t], key);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(left[t], key);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+
+    // Join two subtrees where every key of a is below every key of b
+    private int merge(int a, int b) {
+        if (a == NIL)
+            return b;
+        if (b == NIL)
+            return a;
+
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private void update(int node) {
+        size[node] = size[left[node]] + size[right[node]] + 1;
+    }
+
+    // Random priorities keep the expected depth logarithmic whatever order keys arrive in
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        size = Arrays.copyOf(size, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+    }
+}
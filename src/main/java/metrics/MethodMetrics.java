@@ -0,0 +1,100 @@
+package metrics;
+
+import lombok.Getter;
+import metrics.interfaces.IMethodMetricsMXBean;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters of one repository method, updated by every thread that calls it
+public final class MethodMetrics implements IMethodMetricsMXBean {
+    @Getter
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+
+    public MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    public void recordCall(long nanos, long rowCount) {
+        latency.record(nanos);
+        rows.add(rowCount);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public void recordAcquire(long nanos) {
+        acquires.increment();
+        acquireNanos.add(nanos);
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getConnectionAcquires() {
+        return acquires.sum();
+    }
+
+    @Override
+    public long getMeanConnectionAcquireMicros() {
+        long n = acquires.sum();
+        return n == 0 ? 0 : micros(acquireNanos.sum() / n);
+    }
+
+    @Override
+    public long getMeanMicros() {
+        return micros(latency.getMeanNanos());
+    }
+
+    @Override
+    public long getP50Micros() {
+        return micros(latency.getPercentileNanos(50));
+    }
+
+    @Override
+    public long getP99Micros() {
+        return micros(latency.getPercentileNanos(99));
+    }
+
+    @Override
+    public long getP999Micros() {
+        return micros(latency.getPercentileNanos(99.9));
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return micros(latency.getMaxNanos());
+    }
+
+    @Override
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(latency.getTotalNanos());
+    }
+
+    long getTotalNanos() {
+        return latency.getTotalNanos();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,289 @@
+package metrics;
+
+import data.interfaces.IDataBase;
+import metrics.interfaces.IRepositoryMetricsMXBean;
+import models.LookupResult;
+import models.Page;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Times every call made through a repository interface. wrap() puts a proxy in front of a repository,
+// the proxy records latency, rows returned and failed calls per method, and the connection handed out
+// by wrap(IDataBase) during the call adds its acquire time to the same method. Failed calls are the ones
+// that threw, got no connection or returned false. With trackErrors the connection and its statements
+// are proxied as well, so SQLExceptions a repository prints and swallows are counted too.
+// Each method is published over JMX as granted:type=Repository,name=<Interface>.<method>.
+public class RepositoryMetrics implements IRepositoryMetricsMXBean {
+    private static final String DOMAIN = "granted";
+    private static final String ACQUIRE = "IDataBase.getConnection";
+
+    private final boolean enabled;
+    private final boolean trackErrors;
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    // Repository call running on this thread, so the connection it borrows can report to it
+    private final ThreadLocal<Call> current = new ThreadLocal<>();
+    // Other stats printed below the table, such as the pool and the caches
+    private final List<Supplier<String>> sections = new CopyOnWriteArrayList<>();
+
+    private RepositoryMetrics(boolean enabled, boolean trackErrors) {
+        this.enabled = enabled;
+        this.trackErrors = trackErrors;
+    }
+
+    public static RepositoryMetrics create(boolean enabled, boolean trackErrors) {
+        RepositoryMetrics metrics = new RepositoryMetrics(enabled, trackErrors);
+        if (enabled)
+            register(DOMAIN + ":type=RepositoryMetrics", metrics);
+        return metrics;
+    }
+
+    // -Dgranted.metrics=false hands the repositories out unwrapped. -Dgranted.metrics.trackErrors=true
+    // proxies every connection and statement, which costs a reflective call per JDBC method.
+    public static RepositoryMetrics fromSystemProperties() {
+        return create(
+                Boolean.parseBoolean(System.getProperty("granted.metrics", "true")),
+                Boolean.getBoolean("granted.metrics.trackErrors"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <T> T wrap(Class<T> type, T target) {
+        if (!enabled)
+            return target;
+
+        // Looking the method up by name on every call would build a string each time
+        Map<Method, MethodMetrics> byMethod = new ConcurrentHashMap<>();
+
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class)
+                        return objectMethod(proxy, method, args, target);
+
+                    MethodMetrics metrics = byMethod.computeIfAbsent(
+                            method, m -> metricsFor(type.getSimpleName() + "." + m.getName()));
+                    return invoke(metrics, target, method, args);
+                }
+        ));
+    }
+
+    // Connections from the returned source report their acquire time to the repository call that asked for them
+    public IDataBase wrap(IDataBase db) {
+        if (!enabled)
+            return db;
+
+        MethodMetrics acquire = metricsFor(ACQUIRE);
+
+        return () -> {
+            long start = System.nanoTime();
+            Connection con = db.getConnection();
+            long elapsed = System.nanoTime() - start;
+
+            acquire.recordCall(elapsed, con == null ? 0 : 1);
+            Call call = current.get();
+            if (call != null)
+                call.metrics.recordAcquire(elapsed);
+
+            if (con == null) {
+                acquire.recordError();
+                if (call != null)
+                    call.failed = true;
+                return null;
+            }
+
+            return call == null || !trackErrors ? con : trackErrors(Connection.class, con, call);
+        };
+    }
+
+    public void addSection(Supplier<String> section) {
+        sections.add(section);
+    }
+
+    public Collection<MethodMetrics> getMethods() {
+        return methods.values();
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+
+        if (!enabled) {
+            report.append("Repository metrics are off (-Dgranted.metrics=false)\n");
+        } else {
+            // Methods that kept the database busiest come first
+            List<MethodMetrics> sorted = new ArrayList<>(methods.values());
+            sorted.sort(Comparator.comparingLong(MethodMetrics::getTotalNanos).reversed());
+
+            report.append("Repository calls, times in microseconds:\n");
+            if (!trackErrors)
+                report.append("Errors are calls that threw, got no connection or returned false, " +
+                        "-Dgranted.metrics.trackErrors=true also counts swallowed SQLExceptions\n");
+            report.append(String.format("%-40s %9s %7s %10s %8s %8s %8s %8s %8s %8s%n",
+                    "Method", "Calls", "Errors", "Rows", "Mean", "p50", "p99", "p99.9", "Max", "Acquire"));
+            for (MethodMetrics m : sorted) {
+                report.append(String.format("%-40s %9d %7d %10d %8d %8d %8d %8d %8d %8d%n",
+                        m.getName(), m.getCalls(), m.getErrors(), m.getRows(), m.getMeanMicros(),
+                        m.getP50Micros(), m.getP99Micros(), m.getP999Micros(), m.getMaxMicros(),
+                        m.getMeanConnectionAcquireMicros()));
+            }
+        }
+
+        for (Supplier<String> section : sections) {
+            report.append('\n').append(section.get()).append('\n');
+        }
+
+        return report.toString();
+    }
+
+    private Object invoke(MethodMetrics metrics, Object target, Method method, Object[] args) throws Throwable {
+        Call call = new Call(metrics);
+        countStreamedRows(args, call);
+
+        Call outer = current.get();
+        current.set(call);
+        long start = System.nanoTime();
+
+        try {
+            Object result = method.invoke(target, args);
+            call.rows += rows(result);
+            // streamAll and saveAll answer false when the database failed them
+            if (Boolean.FALSE.equals(result))
+                call.failed = true;
+            return result;
+        } catch (InvocationTargetException e) {
+            call.failed = true;
+            throw e.getCause();
+        } finally {
+            metrics.recordCall(System.nanoTime() - start, call.rows);
+            if (call.failed)
+                metrics.recordError();
+            current.set(outer);
+        }
+    }
+
+    // streamAll hands its rows to a consumer instead of returning them
+    @SuppressWarnings("unchecked")
+    private static void countStreamedRows(Object[] args, Call call) {
+        if (args == null)
+            return;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Consumer<?> consumer) {
+                Consumer<Object> action = (Consumer<Object>) consumer;
+                args[i] = (Consumer<Object>) item -> {
+                    call.rows++;
+                    action.accept(item);
+                };
+            }
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result == null || result instanceof Boolean)
+            return 0;
+        if (result instanceof Collection<?> items)
+            return items.size();
+        if (result instanceof Map<?, ?> items)
+            return items.size();
+        if (result instanceof Page<?> page)
+            return page.getItems().size();
+        if (result instanceof LookupResult<?> lookup)
+            return lookup.getFound().size();
+        return 1;
+    }
+
+    // Repositories print SQLExceptions and carry on, so they are caught on their way out of JDBC
+    private <T> T trackErrors(Class<T> type, T target, Call call) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class)
+                        return objectMethod(proxy, method, args, target);
+
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        if (e.getCause() instanceof SQLException)
+                            call.failed = true;
+                        throw e.getCause();
+                    }
+
+                    if (result instanceof CallableStatement statement)
+                        return trackErrors(CallableStatement.class, statement, call);
+                    if (result instanceof PreparedStatement statement)
+                        return trackErrors(PreparedStatement.class, statement, call);
+                    if (result instanceof Statement statement)
+                        return trackErrors(Statement.class, statement, call);
+                    return result;
+                }
+        ));
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args, Object target) throws Throwable {
+        String name = method.getName();
+        if (name.equals("equals"))
+            return proxy == args[0];
+        if (name.equals("hashCode"))
+            return System.identityHashCode(proxy);
+
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private MethodMetrics metricsFor(String name) {
+        return methods.computeIfAbsent(name, n -> {
+            MethodMetrics metrics = new MethodMetrics(n);
+            register(DOMAIN + ":type=Repository,name=" + n, metrics);
+            return metrics;
+        });
+    }
+
+    private static void register(String name, Object bean) {
+        try {
+            ObjectName objectName = new ObjectName(name);
+            // A second instance in the same JVM, such as a benchmark fork, replaces the first
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName))
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, objectName);
+        } catch (JMException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static final class Call {
+        private final MethodMetrics metrics;
+        private long rows;
+        private boolean failed;
+
+        private Call(MethodMetrics metrics) {
+            this.metrics = metrics;
+        }
+    }
+}
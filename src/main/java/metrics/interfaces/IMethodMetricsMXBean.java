@@ -0,0 +1,26 @@
+package metrics.interfaces;
+
+// What JMX clients such as jconsole see for one repository method
+public interface IMethodMetricsMXBean {
+    long getCalls();
+
+    long getErrors();
+
+    long getRows();
+
+    long getConnectionAcquires();
+
+    long getMeanConnectionAcquireMicros();
+
+    long getMeanMicros();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+
+    long getTotalMillis();
+}
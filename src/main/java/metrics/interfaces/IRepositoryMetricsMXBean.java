@@ -0,0 +1,6 @@
+package metrics.interfaces;
+
+public interface IRepositoryMetricsMXBean {
+    // Same text as the metrics menu prints
+    String getReport();
+}
@@ -0,0 +1,32 @@
+package models;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public final class ImportStats {
+    private final long startedAt = System.currentTimeMillis();
+    // Counters are atomic so progress can be read while the import is running
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+
+    public long getElapsedMs() {
+        return Math.max(1, System.currentTimeMillis() - startedAt);
+    }
+
+    public long getUsersPerSecond() {
+        return imported.get() * 1000 / getElapsedMs();
+    }
+
+    @Override
+    public String toString() {
+        return "Rows read: " + rowsRead.get() + "\n" +
+                "Imported users: " + imported.get() + "\n" +
+                "Rejected rows: " + rejected.get() + "\n" +
+                "Chunks committed: " + chunks.get() + "\n" +
+                "Elapsed: " + getElapsedMs() + " ms (" + getUsersPerSecond() + " users/s)";
+    }
+}
@@ -0,0 +1,30 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public final class LookupResult<T> {
+    // Found entities in the order their ids were requested
+    private final List<T> found;
+    // Requested ids that have no row in the table
+    private final List<Integer> missingIds;
+    // The rows could not be read, so no id is known to be missing
+    private final boolean failed;
+
+    public LookupResult(List<T> found, List<Integer> missingIds) {
+        this(found, missingIds, false);
+    }
+
+    public static <T> LookupResult<T> failed() {
+        return new LookupResult<>(new ArrayList<>(), new ArrayList<>(), true);
+    }
+
+    public boolean isComplete() {
+        return !failed && missingIds.isEmpty();
+    }
+}
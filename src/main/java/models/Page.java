@@ -0,0 +1,16 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public final class Page<T> {
+    private final List<T> items;
+    // Position of the last item, passed back to get the following page
+    private final String lastKey;
+    private final int lastId;
+    private final boolean hasMore;
+}
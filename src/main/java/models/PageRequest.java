@@ -0,0 +1,39 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public final class PageRequest {
+    private final PageSort sort;
+    // Sort key and id of the last row of the previous page, null and 0 for the first page
+    private final String afterKey;
+    private final int afterId;
+    private final int limit;
+
+    public static PageRequest first(PageSort sort, int limit) {
+        return new PageRequest(sort, null, 0, limit);
+    }
+
+    // Request typed in by a user, afterId 0 asks for the first page
+    public static PageRequest of(PageSort sort, String afterKey, int afterId, int limit) {
+        if (afterId == 0 || sort == PageSort.ID)
+            return new PageRequest(sort, null, afterId, limit);
+
+        if (afterKey == null)
+            throw new IllegalArgumentException("Key of the last row is required when sorting by " + sort);
+        if (sort == PageSort.SCORE)
+            Integer.parseInt(afterKey); // scores are compared as numbers
+
+        return new PageRequest(sort, afterKey, afterId, limit);
+    }
+
+    public boolean isFirst() {
+        return afterKey == null && afterId == 0;
+    }
+
+    public PageRequest next(Page<?> page) {
+        return new PageRequest(sort, page.getLastKey(), page.getLastId(), limit);
+    }
+}
@@ -0,0 +1,10 @@
+package models;
+
+public enum PageSort {
+    // Ascending id
+    ID,
+    // Ascending name, ties by ascending id
+    NAME,
+    // Descending score (total score for users, minimum score for programs), ties by descending id
+    SCORE
+}
@@ -17,6 +17,11 @@ public final class Program {
         this.electedSubjectNames = electedSubjectNames;
     }
 
+    // Independent copy, changing it leaves this program untouched
+    public Program copy() {
+        return new Program(id, name, minimumScore, electedSubjectNames.clone());
+    }
+
     @Override
     public String toString(){
        return "Program #" + getId() + ":\n" +
@@ -0,0 +1,23 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public final class ProgramReach {
+    private final int programId;
+    private final String programName;
+    private final int minimumScore;
+    // Applicants whose total score reaches the minimum score, whatever their electives
+    private final long clearing;
+    // Those of them who also chose the electives of the program
+    private final long eligible;
+
+    @Override
+    public String toString() {
+        return "Program #" + getProgramId() + " " + getProgramName() +
+                " (minimum score " + getMinimumScore() + "):\n" +
+                "Clearing the minimum score: " + getClearing() + ", eligible: " + getEligible();
+    }
+}
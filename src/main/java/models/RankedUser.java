@@ -0,0 +1,20 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public final class RankedUser {
+    private final User user;
+    private final int totalScore;
+    // 1 for the best eligible applicant of the program
+    private final int rank;
+    // Applicants that reach the minimum score of the program
+    private final int eligibleCount;
+
+    // Share of the eligible applicants ranked below this one, in percent
+    public double getPercentile() {
+        return 100.0 * (eligibleCount - rank) / eligibleCount;
+    }
+}
@@ -0,0 +1,32 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Scores of one subject counted in buckets of equal width, the first bucket starts at the lowest score
+@AllArgsConstructor
+@Getter
+public final class ScoreHistogram {
+    private final String subject;
+    private final int low;
+    private final int width;
+    private final long[] counts;
+
+    // Lowest score counted in the bucket
+    public int getBucketStart(int bucket) {
+        return low + bucket * width;
+    }
+
+    // Highest score counted in the bucket
+    public int getBucketEnd(int bucket) {
+        return low + (bucket + 1) * width - 1;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -16,6 +16,11 @@ public final class SubjectScore {
         this.score = score;
     }
 
+    // Independent copy, changing it leaves this subject score untouched
+    public SubjectScore copy() {
+        return new SubjectScore(id, subject, score);
+    }
+
     @Override
     public String toString() {
         return "Subject Score #" + getId() + ":\n" +
@@ -0,0 +1,29 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public final class SubjectSummary {
+    private final String subject;
+    private final long count;
+    private final int minimum;
+    private final int maximum;
+    private final double mean;
+    // Population standard deviation
+    private final double standardDeviation;
+    // Percentiles interpolate between neighbouring scores like percentile_cont does
+    private final double p25;
+    private final double median;
+    private final double p75;
+    private final double p90;
+
+    @Override
+    public String toString() {
+        return getSubject() + ": " + getCount() + " scores\n" +
+                String.format("Min %d, p25 %.1f, median %.1f, p75 %.1f, p90 %.1f, max %d%n",
+                        getMinimum(), getP25(), getMedian(), getP75(), getP90(), getMaximum()) +
+                String.format("Mean %.2f, standard deviation %.2f", getMean(), getStandardDeviation());
+    }
+}
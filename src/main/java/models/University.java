@@ -2,6 +2,7 @@ package models;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
+import java.util.ArrayList;
 import java.util.List;
 
 @AllArgsConstructor
@@ -16,6 +17,15 @@ public final class University{
         this.programs = programs;
     }
 
+    // Independent copy of the university and its programs
+    public University copy() {
+        List<Program> copiedPrograms = new ArrayList<>(programs.size());
+        for (Program program : programs) {
+            copiedPrograms.add(program.copy());
+        }
+        return new University(id, name, copiedPrograms);
+    }
+
     private String getAllProgramsString() {
         StringBuilder programsString = new StringBuilder();
         for (Program p : getPrograms()) {
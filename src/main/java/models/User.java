@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @AllArgsConstructor
@@ -28,6 +29,15 @@ public class User {
         this.subjectScores = subjectScores;
     }
 
+    // Independent copy of the user and its subject scores
+    public User copy() {
+        List<SubjectScore> copiedScores = new ArrayList<>(subjectScores.size());
+        for (SubjectScore subjectScore : subjectScores) {
+            copiedScores.add(subjectScore.copy());
+        }
+        return new User(id, firstName, lastName, email, password, copiedScores);
+    }
+
     @Override
     public String toString() {
         return "User #" + getId() + ":\n" +
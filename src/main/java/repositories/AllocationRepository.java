@@ -0,0 +1,69 @@
+package repositories;
+
+import allocation.AllocationResult;
+import data.interfaces.IDataBase;
+import lombok.AllArgsConstructor;
+import org.postgresql.PGConnection;
+import repositories.interfaces.IAllocationRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@AllArgsConstructor
+public class AllocationRepository implements IAllocationRepository {
+    private final IDataBase db;
+
+    @Override
+    public boolean saveAll(AllocationResult result) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+            // Results of the previous run are replaced in one transaction
+            con.setAutoCommit(false);
+
+            try (Statement stmt = con.createStatement()) {
+                stmt.executeUpdate("DELETE FROM grant_allocations");
+            }
+
+            // Write all winners with a single COPY
+            CopyWriter rows = new CopyWriter(con.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY grant_allocations (program_id,user_id,rank) FROM STDIN"));
+            int[] programIds = result.getProgramIds();
+            for (int p = 0; p < programIds.length; p++) {
+                int offset = result.getOffsets()[p];
+
+                // Winners are stored best first, so rank is their position plus one
+                for (int rank = 0; rank < result.getCounts()[p]; rank++) {
+                    rows.value(programIds[p]).value(result.getWinnerIds()[offset + rank])
+                            .value(rank + 1).endRow();
+                }
+            }
+            rows.finish();
+
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+
+            if (con != null) {
+                try {
+                    con.rollback();
+                } catch (SQLException ex) {
+                    System.out.println(ex.getMessage());
+                }
+            }
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package repositories;
+
+import cache.CacheStats;
+import cache.LruCache;
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
+import models.Program;
+import repositories.interfaces.IProgramRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Read-through cache in front of another program repository.
+// Programs are mutable, so the cache keeps its own copies and hands out fresh ones.
+public class CachedProgramRepository implements IProgramRepository {
+    private final IProgramRepository programRepo;
+    private final LruCache<Integer, Program> cache;
+
+    public CachedProgramRepository(IProgramRepository programRepo, int maxSize, long ttlMs) {
+        this.programRepo = programRepo;
+        this.cache = new LruCache<>(maxSize, ttlMs);
+    }
+
+    @Override
+    public List<Program> getAll() {
+        return programRepo.getAll();
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<Program> action) {
+        return programRepo.streamAll(fetchSize, action);
+    }
+
+    @Override
+    public Page<Program> getPage(PageRequest request) {
+        return programRepo.getPage(request);
+    }
+
+    @Override
+    public Program getById(int id) {
+        Program program = cache.get(id, key -> {
+            Program loaded = programRepo.getById(key);
+            return loaded != null ? loaded.copy() : null;
+        });
+        return program != null ? program.copy() : null;
+    }
+
+    @Override
+    public LookupResult<Program> getAllByIds(Integer[] ids) {
+        Map<Integer, Program> programsById = new HashMap<>();
+        List<Integer> notCached = new ArrayList<>();
+
+        for (Integer id : ids) {
+            Program program = cache.get(id);
+
+            if (program != null)
+                programsById.put(id, program.copy());
+            else
+                notCached.add(id);
+        }
+
+        // Load all programs that were not cached with one query
+        if (!notCached.isEmpty()) {
+            LookupResult<Program> loaded = programRepo.getAllByIds(notCached.toArray(new Integer[0]));
+            if (loaded.isFailed())
+                return loaded;
+
+            for (Program program : loaded.getFound()) {
+                cache.put(program.getId(), program.copy());
+                programsById.put(program.getId(), program);
+            }
+        }
+
+        List<Program> programs = new ArrayList<>(ids.length);
+        List<Integer> missingIds = new ArrayList<>();
+
+        // Keep the order of requested ids
+        for (Integer id : ids) {
+            Program program = programsById.get(id);
+
+            if (program != null)
+                programs.add(program);
+            else
+                missingIds.add(id);
+        }
+
+        return new LookupResult<>(programs, missingIds);
+    }
+
+    @Override
+    public Program create(Program program) {
+        // A new id is not cached yet, and no cached program changes
+        return programRepo.create(program);
+    }
+
+    @Override
+    public Program getLastCreated() {
+        return programRepo.getLastCreated();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+}
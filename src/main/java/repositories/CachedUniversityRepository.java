@@ -0,0 +1,67 @@
+package repositories;
+
+import cache.CacheStats;
+import cache.LruCache;
+import models.Page;
+import models.PageRequest;
+import models.University;
+import repositories.interfaces.IUniversityRepository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Read-through cache in front of another university repository, universities are cached with their programs.
+// The cache keeps its own copies, callers get a fresh one to change as they like.
+public class CachedUniversityRepository implements IUniversityRepository {
+    private final IUniversityRepository universityRepo;
+    private final LruCache<Integer, University> cache;
+
+    public CachedUniversityRepository(IUniversityRepository universityRepo, int maxSize, long ttlMs) {
+        this.universityRepo = universityRepo;
+        this.cache = new LruCache<>(maxSize, ttlMs);
+    }
+
+    @Override
+    public List<University> getAll() {
+        return universityRepo.getAll();
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<University> action) {
+        return universityRepo.streamAll(fetchSize, action);
+    }
+
+    @Override
+    public Page<University> getPage(PageRequest request) {
+        return universityRepo.getPage(request);
+    }
+
+    @Override
+    public List<University> getAllByProgramId(int programId) {
+        return universityRepo.getAllByProgramId(programId);
+    }
+
+    @Override
+    public University getById(int id) {
+        University university = cache.get(id, key -> {
+            University loaded = universityRepo.getById(key);
+            return loaded != null ? loaded.copy() : null;
+        });
+        return university != null ? university.copy() : null;
+    }
+
+    @Override
+    public University create(University university) {
+        // Programs of a university are fixed when it is created, so no cached entry goes stale
+        return universityRepo.create(university);
+    }
+
+    @Override
+    public University getLastCreated() {
+        return universityRepo.getLastCreated();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+}
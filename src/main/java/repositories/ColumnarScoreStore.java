@@ -0,0 +1,316 @@
+package repositories;
+
+import catalog.SubjectCatalog;
+import models.SubjectScore;
+import models.User;
+import repositories.interfaces.IScoreStore;
+import repositories.interfaces.IUserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Scores of all applicants in primitive columns indexed by the applicant's ordinal: one byte subject code
+// and one short score per subject, 15 bytes for the five subjects of an applicant plus 4 to find
+// the applicant by user id. Subject codes come from the shared SubjectCatalog, applicants with a subject
+// coded above 255 are left out. Loaded from the users table on first use, then kept current by userCreated().
+public class ColumnarScoreStore implements IScoreStore {
+    private static final int SUBJECTS = 5;
+    private static final int MAX_CODES = 256;
+    // Subjects coded too high to be stored, each is reported once
+    private static final Set<Integer> REPORTED_CODES = ConcurrentHashMap.newKeySet();
+
+    private final UserSnapshot<Columns> columns;
+
+    public ColumnarScoreStore(IUserRepository userRepo) {
+        this.columns = new UserSnapshot<>(userRepo, "Score store", Columns::new, Columns::add, Columns::trim);
+    }
+
+    @Override
+    public int size() {
+        return columns.get().size();
+    }
+
+    @Override
+    public boolean contains(int userId) {
+        Columns current = columns.get();
+
+        current.lock.readLock().lock();
+        try {
+            return current.ordinalOf(userId) >= 0;
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Integer getScore(int userId, String subject) {
+        Columns current = columns.get();
+        int code = codeOf(subject);
+        if (code < 0)
+            return null;
+
+        current.lock.readLock().lock();
+        try {
+            int ordinal = current.ordinalOf(userId);
+            if (ordinal < 0)
+                return null;
+
+            for (int i = ordinal * SUBJECTS; i < (ordinal + 1) * SUBJECTS; i++) {
+                if ((current.subjects[i] & 0xff) == code)
+                    return (int) current.scores[i];
+            }
+            return null;
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Integer getTotalScore(int userId) {
+        Columns current = columns.get();
+
+        current.lock.readLock().lock();
+        try {
+            int ordinal = current.ordinalOf(userId);
+            return ordinal < 0 ? null : current.total(ordinal);
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] getScores(String subject) {
+        Columns current = columns.get();
+        int code = codeOf(subject);
+        if (code < 0)
+            return new int[0];
+
+        current.lock.readLock().lock();
+        try {
+            int[] found = new int[current.count];
+            int n = 0;
+
+            for (int i = 0; i < current.count * SUBJECTS; i++) {
+                if ((current.subjects[i] & 0xff) == code)
+                    found[n++] = current.scores[i];
+            }
+            return Arrays.copyOf(found, n);
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] getTotalScores() {
+        Columns current = columns.get();
+
+        current.lock.readLock().lock();
+        try {
+            int[] totals = new int[current.count];
+            for (int ordinal = 0; ordinal < current.count; ordinal++) {
+                totals[ordinal] = current.total(ordinal);
+            }
+            return totals;
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] getTotalScores(String firstElective, String secondElective) {
+        Columns current = columns.get();
+        int first = codeOf(firstElective);
+        int second = codeOf(secondElective);
+        if (first < 0 || second < 0)
+            return new int[0];
+
+        current.lock.readLock().lock();
+        try {
+            int[] found = new int[current.count];
+            int n = 0;
+
+            for (int ordinal = 0; ordinal < current.count; ordinal++) {
+                if (current.chose(ordinal, first, second))
+                    found[n++] = current.total(ordinal);
+            }
+            return Arrays.copyOf(found, n);
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countEligible(String firstElective, String secondElective, int minimumScore) {
+        Columns current = columns.get();
+        int first = codeOf(firstElective);
+        int second = codeOf(secondElective);
+        if (first < 0 || second < 0)
+            return 0;
+
+        current.lock.readLock().lock();
+        try {
+            int eligible = 0;
+
+            for (int ordinal = 0; ordinal < current.count; ordinal++) {
+                if (current.chose(ordinal, first, second) && current.total(ordinal) >= minimumScore)
+                    eligible++;
+            }
+            return eligible;
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void userCreated(User user) {
+        columns.userCreated(user);
+    }
+
+    @Override
+    public boolean refresh() {
+        return columns.refresh();
+    }
+
+    // Bytes held by the columns, the dictionary is left out
+    public long getMemoryBytes() {
+        Columns current = columns.getIfBuilt();
+        return current == null ? 0 : current.memoryBytes();
+    }
+
+    // -1 if the subject has no code or can not be stored, looking it up never numbers it
+    private static int codeOf(String subject) {
+        return storable(SubjectCatalog.shared().findCode(subject), subject);
+    }
+
+    private static int storable(int code, String subject) {
+        if (code < MAX_CODES)
+            return code;
+
+        if (REPORTED_CODES.add(code))
+            System.out.println("Score store can not hold " + subject + ", only the first " + MAX_CODES +
+                    " subjects of the catalog fit. Its applicants are left out of the score statistics");
+        return -1;
+    }
+
+    private static final class Columns {
+        // Ordinal + 1 of every user id, 0 for ids that are not stored
+        private int[] ordinalsById = new int[1_024];
+        private byte[] subjects = new byte[1_024 * SUBJECTS];
+        private short[] scores = new short[1_024 * SUBJECTS];
+        private int count;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private void add(User user) {
+            List<SubjectScore> subjectScores = user.getSubjectScores();
+            if (subjectScores == null || subjectScores.size() != SUBJECTS || user.getId() <= 0)
+                return;
+
+            // Codes and scores are checked before anything is written
+            int[] rowCodes = new int[SUBJECTS];
+            for (int i = 0; i < SUBJECTS; i++) {
+                int score = subjectScores.get(i).getScore();
+                rowCodes[i] = intern(subjectScores.get(i).getSubject());
+                if (rowCodes[i] < 0 || score < Short.MIN_VALUE || score > Short.MAX_VALUE)
+                    return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (ordinalOf(user.getId()) >= 0)
+                    return;
+
+                // Grown by half, doubling would leave up to half of a large store unused
+                if (count * SUBJECTS == scores.length) {
+                    int capacity = Math.max(count + (count >> 1), count + 16);
+                    subjects = Arrays.copyOf(subjects, capacity * SUBJECTS);
+                    scores = Arrays.copyOf(scores, capacity * SUBJECTS);
+                }
+                if (user.getId() >= ordinalsById.length) {
+                    int capacity = Math.max(user.getId() + 1, ordinalsById.length + (ordinalsById.length >> 1));
+                    ordinalsById = Arrays.copyOf(ordinalsById, capacity);
+                }
+
+                int ordinal = count;
+                for (int i = 0; i < SUBJECTS; i++) {
+                    subjects[ordinal * SUBJECTS + i] = (byte) rowCodes[i];
+                    scores[ordinal * SUBJECTS + i] = (short) subjectScores.get(i).getScore();
+                }
+                ordinalsById[user.getId()] = ordinal + 1;
+                count++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Drop the room left by growing, users created later grow the arrays again
+        private void trim() {
+            lock.writeLock().lock();
+            try {
+                subjects = Arrays.copyOf(subjects, Math.max(count, 1) * SUBJECTS);
+                scores = Arrays.copyOf(scores, Math.max(count, 1) * SUBJECTS);
+
+                int maxId = 0;
+                for (int id = ordinalsById.length - 1; id > 0; id--) {
+                    if (ordinalsById[id] != 0) {
+                        maxId = id;
+                        break;
+                    }
+                }
+                ordinalsById = Arrays.copyOf(ordinalsById, maxId + 1);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private int size() {
+            lock.readLock().lock();
+            try {
+                return count;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Caller holds the lock, -1 if the user is not stored
+        private int ordinalOf(int userId) {
+            if (userId <= 0 || userId >= ordinalsById.length)
+                return -1;
+            return ordinalsById[userId] - 1;
+        }
+
+        private int total(int ordinal) {
+            int total = 0;
+            for (int i = ordinal * SUBJECTS; i < (ordinal + 1) * SUBJECTS; i++) {
+                total += scores[i];
+            }
+            return total;
+        }
+
+        // Electives are the last two of the five subjects, in either order
+        private boolean chose(int ordinal, int first, int second) {
+            int a = subjects[ordinal * SUBJECTS + 3] & 0xff;
+            int b = subjects[ordinal * SUBJECTS + 4] & 0xff;
+            return (a == first && b == second) || (a == second && b == first);
+        }
+
+        // Codes of the shared catalog, subjects coded above a byte can not be stored
+        private static int intern(String subject) {
+            if (subject == null)
+                return -1;
+
+            return storable(SubjectCatalog.shared().codeOf(subject), subject);
+        }
+
+        private long memoryBytes() {
+            lock.readLock().lock();
+            try {
+                return 4L * ordinalsById.length + subjects.length + 2L * scores.length;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
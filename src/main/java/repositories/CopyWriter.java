@@ -0,0 +1,76 @@
+package repositories;
+
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+// Writes rows in COPY text format and streams them to the server in large pieces
+final class CopyWriter {
+    // Rows are sent to the server whenever this many characters are buffered
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+    private boolean firstColumn = true;
+
+    CopyWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    CopyWriter value(int value) {
+        separate();
+        buffer.append(value);
+        return this;
+    }
+
+    CopyWriter value(String value) {
+        separate();
+
+        if (value == null) {
+            buffer.append("\\N");
+            return this;
+        }
+
+        // Escape characters that have a meaning in COPY text format
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        firstColumn = true;
+
+        if (buffer.length() >= COPY_BUFFER_SIZE)
+            flush();
+    }
+
+    void finish() throws SQLException {
+        flush();
+        copyIn.endCopy();
+    }
+
+    private void separate() {
+        if (!firstColumn)
+            buffer.append('\t');
+        firstColumn = false;
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() == 0)
+            return;
+
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,21 @@
+package repositories;
+
+import allocation.AllocationResult;
+import repositories.interfaces.IAllocationRepository;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Keeps the result of the last allocation run, which replaces the previous one
+public class InMemoryAllocationRepository implements IAllocationRepository {
+    private final AtomicReference<AllocationResult> last = new AtomicReference<>();
+
+    @Override
+    public boolean saveAll(AllocationResult result) {
+        last.set(result);
+        return true;
+    }
+
+    public AllocationResult getLast() {
+        return last.get();
+    }
+}
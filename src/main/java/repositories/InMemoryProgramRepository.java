@@ -0,0 +1,87 @@
+package repositories;
+
+import catalog.SubjectCatalog;
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
+import models.Program;
+import repositories.interfaces.IProgramRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Programs kept in memory, paged by name or by minimum score like the programs table.
+// Every returned program is a copy, like CachedProgramRepository hands out.
+public class InMemoryProgramRepository implements IProgramRepository {
+    private final IntTable<Program> programs = new IntTable<>();
+    private final MemoryPageIndex<Program> pageIndex = new MemoryPageIndex<>(
+            Program::getName, Program::getMinimumScore);
+
+    @Override
+    public List<Program> getAll() {
+        List<Program> all = new ArrayList<>();
+        programs.forEach(program -> all.add(program.copy()));
+        return all;
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<Program> action) {
+        programs.forEach(program -> action.accept(program.copy()));
+        return true;
+    }
+
+    @Override
+    public Page<Program> getPage(PageRequest request) {
+        Page<Program> page = pageIndex.page(programs, request);
+        page.getItems().replaceAll(Program::copy);
+        return page;
+    }
+
+    @Override
+    public Program getById(int id) {
+        Program program = programs.get(id);
+        return program != null ? program.copy() : null;
+    }
+
+    @Override
+    public LookupResult<Program> getAllByIds(Integer[] ids) {
+        List<Program> found = new ArrayList<>(ids.length);
+        List<Integer> missingIds = new ArrayList<>();
+
+        // Keep the order of requested ids and remember the ones that were not found
+        for (Integer id : ids) {
+            Program program = id == null ? null : programs.get(id);
+
+            if (program != null)
+                found.add(program.copy());
+            else
+                missingIds.add(id);
+        }
+
+        return new LookupResult<>(found, missingIds);
+    }
+
+    @Override
+    public Program create(Program program) {
+        if (program.getName() == null || program.getElectedSubjectNames() == null) {
+            System.out.println("Program name and elected subjects are required");
+            return null;
+        }
+
+        int id = programs.nextId();
+        // Electives are copied so the caller's array can not change the stored program
+        Program created = new Program(id, program.getName(), program.getMinimumScore(),
+                SubjectCatalog.shared().internAll(program.getElectedSubjectNames().clone()));
+        programs.put(id, created);
+        pageIndex.add(id, created);
+
+        return created.copy();
+    }
+
+    @Override
+    public Program getLastCreated() {
+        Program program = programs.last();
+        return program != null ? program.copy() : null;
+    }
+}
@@ -0,0 +1,169 @@
+package repositories;
+
+import catalog.SubjectCatalog;
+import lombok.AllArgsConstructor;
+import matching.EligibilityIndex;
+import models.Program;
+import models.ProgramReach;
+import models.ScoreHistogram;
+import models.SubjectSummary;
+import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.IScoreAnalyticsRepository;
+import repositories.interfaces.IScoreStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Same figures as ScoreAnalyticsRepository computed from the score columns, for the in-memory backend.
+// The columns only hold scores of applicants, subject scores created on their own are not counted.
+@AllArgsConstructor
+public class InMemoryScoreAnalyticsRepository implements IScoreAnalyticsRepository {
+    private final IScoreStore scoreStore;
+    private final IProgramRepository programRepo;
+
+    @Override
+    public List<SubjectSummary> getSubjectSummaries() {
+        SubjectCatalog catalog = SubjectCatalog.shared();
+        List<SubjectSummary> summaries = new ArrayList<>();
+
+        // Names of programs' electives are in the catalog too, subjects nobody took are skipped
+        for (int code = 0; code < catalog.size(); code++) {
+            String subject = catalog.nameOf(code);
+            int[] scores = scoreStore.getScores(subject);
+            if (scores.length == 0)
+                continue;
+
+            Arrays.sort(scores);
+            double mean = 0;
+            for (int score : scores) {
+                mean += score;
+            }
+            mean /= scores.length;
+
+            double squares = 0;
+            for (int score : scores) {
+                squares += (score - mean) * (score - mean);
+            }
+
+            summaries.add(new SubjectSummary(
+                    subject,
+                    scores.length,
+                    scores[0],
+                    scores[scores.length - 1],
+                    mean,
+                    Math.sqrt(squares / scores.length),
+                    percentile(scores, 0.25),
+                    percentile(scores, 0.5),
+                    percentile(scores, 0.75),
+                    percentile(scores, 0.9)
+            ));
+        }
+
+        summaries.sort(Comparator.comparing(SubjectSummary::getSubject));
+        return summaries;
+    }
+
+    @Override
+    public ScoreHistogram getHistogram(String subject, int buckets) {
+        int[] scores = scoreStore.getScores(subject);
+        if (scores.length == 0)
+            return null;
+
+        int low = Integer.MAX_VALUE;
+        int high = Integer.MIN_VALUE;
+        for (int score : scores) {
+            low = Math.min(low, score);
+            high = Math.max(high, score);
+        }
+
+        // Whole scores wide like the SQL version, width * buckets passes the highest score
+        int width = (high - low) / buckets + 1;
+        long[] counts = new long[buckets];
+        for (int score : scores) {
+            counts[(score - low) / width]++;
+        }
+
+        return new ScoreHistogram(SubjectCatalog.shared().canonical(subject), low, width, counts);
+    }
+
+    @Override
+    public List<ProgramReach> getProgramReach() {
+        int[] totals = scoreStore.getTotalScores();
+        Arrays.sort(totals);
+        // Programs sharing electives scan the columns once
+        Map<Long, int[]> totalsByElectives = new HashMap<>();
+
+        List<Program> programs = new ArrayList<>(programRepo.getAll());
+        programs.sort(Comparator.comparingInt(Program::getId));
+
+        List<ProgramReach> reach = new ArrayList<>(programs.size());
+        for (Program program : programs) {
+            reach.add(reachOf(program, totals, totalsByElectives));
+        }
+        return reach;
+    }
+
+    @Override
+    public ProgramReach getProgramReach(int programId) {
+        Program program = programRepo.getById(programId);
+        if (program == null)
+            return null;
+
+        int[] totals = scoreStore.getTotalScores();
+        Arrays.sort(totals);
+        return reachOf(program, totals, new HashMap<>());
+    }
+
+    private ProgramReach reachOf(Program program, int[] sortedTotals, Map<Long, int[]> totalsByElectives) {
+        String[] electives = program.getElectedSubjectNames();
+        SubjectCatalog catalog = SubjectCatalog.shared();
+        // Looked up without numbering them: an elective the catalog has not seen was chosen by nobody
+        boolean paired = electives != null && electives.length == 2;
+        int first = paired ? catalog.findCode(electives[0]) : -1;
+        int second = paired ? catalog.findCode(electives[1]) : -1;
+
+        int[] electiveTotals = first < 0 || second < 0 ? new int[0] : totalsByElectives.computeIfAbsent(
+                EligibilityIndex.electivesKey(first, second),
+                key -> {
+                    int[] found = scoreStore.getTotalScores(electives[0], electives[1]);
+                    Arrays.sort(found);
+                    return found;
+                });
+
+        return new ProgramReach(
+                program.getId(),
+                program.getName(),
+                program.getMinimumScore(),
+                sortedTotals.length - lowerBound(sortedTotals, program.getMinimumScore()),
+                electiveTotals.length - lowerBound(electiveTotals, program.getMinimumScore())
+        );
+    }
+
+    // Interpolates between the two closest ranks like percentile_cont
+    private static double percentile(int[] sorted, double fraction) {
+        double position = fraction * (sorted.length - 1);
+        int below = (int) position;
+        if (below + 1 >= sorted.length)
+            return sorted[below];
+
+        return sorted[below] + (position - below) * (sorted[below + 1] - sorted[below]);
+    }
+
+    // Number of values below value
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,98 @@
+package repositories;
+
+import catalog.SubjectCatalog;
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
+import models.SubjectScore;
+import repositories.interfaces.ISubjectScoreRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Subject scores kept in memory, selected with -Dgranted.backend=memory.
+// Returned subject scores are shared between callers and must not be changed.
+public class InMemorySubjectScoreRepository implements ISubjectScoreRepository {
+    private final IntTable<SubjectScore> subjectScores = new IntTable<>();
+    private final MemoryPageIndex<SubjectScore> pageIndex = new MemoryPageIndex<>(
+            SubjectScore::getSubject, SubjectScore::getScore);
+
+    @Override
+    public List<SubjectScore> getAll() {
+        List<SubjectScore> all = new ArrayList<>();
+        subjectScores.forEach(all::add);
+        return all;
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<SubjectScore> action) {
+        subjectScores.forEach(action);
+        return true;
+    }
+
+    @Override
+    public Page<SubjectScore> getPage(PageRequest request) {
+        return pageIndex.page(subjectScores, request);
+    }
+
+    @Override
+    public SubjectScore getById(int id) {
+        return subjectScores.get(id);
+    }
+
+    @Override
+    public LookupResult<SubjectScore> getAllByIds(Integer[] ids) {
+        List<SubjectScore> found = new ArrayList<>(ids.length);
+        List<Integer> missingIds = new ArrayList<>();
+
+        // Keep the order of requested ids and remember the ones that were not found
+        for (Integer id : ids) {
+            SubjectScore subjectScore = id == null ? null : subjectScores.get(id);
+
+            if (subjectScore != null)
+                found.add(subjectScore);
+            else
+                missingIds.add(id);
+        }
+
+        return new LookupResult<>(found, missingIds);
+    }
+
+    @Override
+    public Map<Integer, SubjectScore> getMapByIds(Integer[] ids) {
+        Map<Integer, SubjectScore> found = new HashMap<>();
+
+        for (Integer id : ids) {
+            SubjectScore subjectScore = id == null ? null : subjectScores.get(id);
+            if (subjectScore != null)
+                found.put(id, subjectScore);
+        }
+
+        return found;
+    }
+
+    @Override
+    public SubjectScore create(SubjectScore subjectScore) {
+        // Same rule as the NOT NULL column
+        if (subjectScore.getSubject() == null) {
+            System.out.println("Subject name is required");
+            return null;
+        }
+
+        int id = subjectScores.nextId();
+        SubjectScore created = new SubjectScore(
+                id, SubjectCatalog.shared().intern(subjectScore.getSubject()), subjectScore.getScore());
+        subjectScores.put(id, created);
+        pageIndex.add(id, created);
+
+        return created;
+    }
+
+    @Override
+    public SubjectScore getLastCreated() {
+        return subjectScores.last();
+    }
+}
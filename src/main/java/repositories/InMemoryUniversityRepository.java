@@ -0,0 +1,116 @@
+package repositories;
+
+import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.Program;
+import models.University;
+import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.IUniversityRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Universities kept in memory with their programs, programs are created through programRepo.
+// Universities are handed out as copies, the stored ones only change through this repository.
+@AllArgsConstructor
+public class InMemoryUniversityRepository implements IUniversityRepository {
+    private final IntTable<University> universities = new IntTable<>();
+    private final MemoryPageIndex<University> pageIndex = new MemoryPageIndex<>(University::getName, null);
+    // Ids of the universities offering each program, in ascending order
+    private final IntTable<int[]> universityIdsByProgram = new IntTable<>();
+    private final IProgramRepository programRepo;
+
+    @Override
+    public List<University> getAll() {
+        List<University> all = new ArrayList<>();
+        universities.forEach(university -> all.add(university.copy()));
+        return all;
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<University> action) {
+        universities.forEach(university -> action.accept(university.copy()));
+        return true;
+    }
+
+    @Override
+    public Page<University> getPage(PageRequest request) {
+        Page<University> page = pageIndex.page(universities, request);
+        page.getItems().replaceAll(University::copy);
+        return page;
+    }
+
+    @Override
+    public List<University> getAllByProgramId(int programId) {
+        int[] ids = programId < 0 ? null : universityIdsByProgram.get(programId);
+        if (ids == null)
+            return new ArrayList<>();
+
+        List<University> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            University university = universities.get(id);
+            if (university != null)
+                found.add(university.copy());
+        }
+        return found;
+    }
+
+    @Override
+    public University getById(int id) {
+        University university = universities.get(id);
+        return university != null ? university.copy() : null;
+    }
+
+    @Override
+    public University create(University university) {
+        if (university.getName() == null) {
+            System.out.println("University name is required");
+            return null;
+        }
+
+        List<Program> programs = new ArrayList<>();
+        for (Program program : university.getPrograms()) {
+            // Programs that fail to be created are left out, as UniversityRepository does
+            Program createdProgram = programRepo.create(program);
+            if (createdProgram != null)
+                programs.add(createdProgram);
+        }
+
+        int id = universities.nextId();
+        University created = new University(id, university.getName(), List.copyOf(programs));
+        universities.put(id, created);
+        pageIndex.add(id, created);
+
+        for (Program program : programs) {
+            universityIdsByProgram.update(program.getId(), ids -> append(ids, id));
+        }
+
+        return created.copy();
+    }
+
+    @Override
+    public University getLastCreated() {
+        University university = universities.last();
+        return university != null ? university.copy() : null;
+    }
+
+    // Ids arrive out of order when universities are created concurrently
+    private static int[] append(int[] ids, int id) {
+        if (ids == null)
+            return new int[]{id};
+
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0)
+            return ids;
+
+        int insertAt = -position - 1;
+        int[] grown = new int[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = id;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        return grown;
+    }
+}
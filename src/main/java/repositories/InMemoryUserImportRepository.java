@@ -0,0 +1,35 @@
+package repositories;
+
+import lombok.AllArgsConstructor;
+import models.User;
+import repositories.interfaces.IUserImportRepository;
+import repositories.interfaces.IUserRepository;
+
+import java.sql.SQLException;
+import java.util.List;
+
+// Bulk import into the in-memory users, each user is created on its own
+@AllArgsConstructor
+public class InMemoryUserImportRepository implements IUserImportRepository {
+    // SQLState of a NOT NULL violation, what Postgres reports for the same rows
+    private static final String NOT_NULL_VIOLATION = "23502";
+
+    private final IUserRepository userRepo;
+
+    @Override
+    public void copyUsers(List<User> users) throws SQLException {
+        // Checked up front so a bad row rejects the chunk before any user of it is added
+        for (User user : users) {
+            if (user.getSubjectScores() == null || user.getSubjectScores().size() != 5)
+                throw new SQLException("Number of subjects must be 5", NOT_NULL_VIOLATION);
+            if (user.getFirstName() == null || user.getLastName() == null
+                    || user.getEmail() == null || user.getPassword() == null)
+                throw new SQLException("First name, last name, email and password are required", NOT_NULL_VIOLATION);
+        }
+
+        for (User user : users) {
+            if (userRepo.create(user) == null)
+                throw new SQLException("User " + user.getEmail() + " could not be created");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package repositories;
+
+import exceptions.InvalidNumberOfSubjectsException;
+import lombok.AllArgsConstructor;
+import matching.EligibilityIndex;
+import models.Page;
+import models.PageRequest;
+import models.SubjectScore;
+import models.User;
+import repositories.interfaces.ISubjectScoreRepository;
+import repositories.interfaces.IUserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Users kept in memory with their subject scores, paged by last name or by total score.
+// Subject scores are created through subjectRepo like UserRepository inserts them into subject_scores.
+// Callers get copies, as from the database, so changing a returned user leaves the stored one intact.
+@AllArgsConstructor
+public class InMemoryUserRepository implements IUserRepository {
+    private final IntTable<User> users = new IntTable<>();
+    private final MemoryPageIndex<User> pageIndex = new MemoryPageIndex<>(
+            User::getLastName, EligibilityIndex::totalScore);
+    private final ISubjectScoreRepository subjectRepo;
+
+    @Override
+    public List<User> getAll() {
+        List<User> all = new ArrayList<>();
+        users.forEach(user -> all.add(user.copy()));
+        return all;
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<User> action) {
+        users.forEach(user -> action.accept(user.copy()));
+        return true;
+    }
+
+    @Override
+    public Page<User> getPage(PageRequest request) {
+        Page<User> page = pageIndex.page(users, request);
+        page.getItems().replaceAll(User::copy);
+        return page;
+    }
+
+    @Override
+    public User getById(int id) {
+        User user = users.get(id);
+        return user != null ? user.copy() : null;
+    }
+
+    @Override
+    public User getLastCreated() {
+        User user = users.last();
+        return user != null ? user.copy() : null;
+    }
+
+    @Override
+    public User create(User user) {
+        try {
+            if (user.getSubjectScores() == null || user.getSubjectScores().size() != 5) {
+                throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
+            }
+            if (user.getFirstName() == null || user.getLastName() == null
+                    || user.getEmail() == null || user.getPassword() == null) {
+                System.out.println("First name, last name, email and password are required");
+                return null;
+            }
+
+            List<SubjectScore> subjectScores = new ArrayList<>(5);
+            for (SubjectScore subjectScore : user.getSubjectScores()) {
+                SubjectScore created = subjectRepo.create(subjectScore);
+                if (created == null) {
+                    System.out.println("Subject scores of the user could not be created");
+                    return null;
+                }
+                subjectScores.add(created);
+            }
+
+            int id = users.nextId();
+            User created = new User(
+                    id,
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getEmail(),
+                    user.getPassword(),
+                    List.copyOf(subjectScores)
+            );
+            users.put(id, created);
+            pageIndex.add(id, created);
+
+            return created.copy();
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        }
+
+        return null;
+    }
+}
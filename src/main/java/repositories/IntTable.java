@@ -0,0 +1,119 @@
+package repositories;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+// Concurrent map from int keys to rows for the in-memory repositories. Ids are handed out from 1
+// like a serial column and index fixed size segments directly, so lookups neither hash nor box
+// and readers never lock. Only adding a segment takes the lock.
+final class IntTable<T> {
+    private static final int SEGMENT_BITS = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+
+    private final AtomicInteger lastId = new AtomicInteger();
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile AtomicReferenceArray<T>[] segments;
+
+    @SuppressWarnings("unchecked")
+    IntTable() {
+        // Generic arrays can not be created, an array of wildcard segments is cast instead
+        AtomicReferenceArray<T>[] first = (AtomicReferenceArray<T>[]) new AtomicReferenceArray<?>[1];
+        first[0] = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        segments = first;
+    }
+
+    // Reserve the next id, the row becomes visible once it is put
+    int nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    // Highest id handed out so far, its row may still be on its way
+    int lastId() {
+        return lastId.get();
+    }
+
+    void put(int id, T row) {
+        segmentFor(id).set(id & (SEGMENT_SIZE - 1), row);
+    }
+
+    T get(int id) {
+        if (id < 0)
+            return null;
+
+        AtomicReferenceArray<T>[] current = segments;
+        int segment = id >>> SEGMENT_BITS;
+        return segment < current.length ? current[segment].get(id & (SEGMENT_SIZE - 1)) : null;
+    }
+
+    // Replace the row of id with update(row), retried if another thread changed it meanwhile
+    T update(int id, UnaryOperator<T> update) {
+        AtomicReferenceArray<T> segment = segmentFor(id);
+        int index = id & (SEGMENT_SIZE - 1);
+
+        while (true) {
+            T row = segment.get(index);
+            T updated = update.apply(row);
+            if (segment.compareAndSet(index, row, updated))
+                return updated;
+        }
+    }
+
+    // Rows with ids above afterId in ascending id order until action returns false
+    void forEachAfter(int afterId, RowVisitor<T> action) {
+        int last = lastId.get();
+
+        for (int id = Math.max(afterId + 1, 1); id <= last; id++) {
+            T row = get(id);
+            if (row != null && !action.visit(id, row))
+                return;
+        }
+    }
+
+    void forEach(Consumer<T> action) {
+        forEachAfter(0, (id, row) -> {
+            action.accept(row);
+            return true;
+        });
+    }
+
+    // Row with the highest id that is visible
+    T last() {
+        for (int id = lastId.get(); id > 0; id--) {
+            T row = get(id);
+            if (row != null)
+                return row;
+        }
+        return null;
+    }
+
+    private AtomicReferenceArray<T> segmentFor(int id) {
+        int segment = id >>> SEGMENT_BITS;
+        AtomicReferenceArray<T>[] current = segments;
+        if (segment < current.length)
+            return current[segment];
+
+        growLock.lock();
+        try {
+            current = segments;
+            if (segment >= current.length) {
+                AtomicReferenceArray<T>[] grown = Arrays.copyOf(current, Math.max(segment + 1, current.length * 2));
+                for (int i = current.length; i < grown.length; i++) {
+                    grown[i] = new AtomicReferenceArray<>(SEGMENT_SIZE);
+                }
+                segments = grown;
+                current = grown;
+            }
+            return current[segment];
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    interface RowVisitor<T> {
+        boolean visit(int id, T row);
+    }
+}
@@ -0,0 +1,78 @@
+package repositories;
+
+import models.PageRequest;
+import models.PageSort;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Builds keyset (seek) page queries: rows after the last one of the previous page are found
+// through an index on (key, id), so every page costs the same no matter how deep it is
+final class KeysetQuery {
+    private final String select;
+    private final String nameColumn;
+    private final String scoreColumn;
+
+    // select must return an id column plus the name and score columns, null if the sort is not supported
+    KeysetQuery(String select, String nameColumn, String scoreColumn) {
+        this.select = select;
+        this.nameColumn = nameColumn;
+        this.scoreColumn = scoreColumn;
+    }
+
+    boolean supports(PageSort sort) {
+        return sort == PageSort.ID
+                || (sort == PageSort.NAME && nameColumn != null)
+                || (sort == PageSort.SCORE && scoreColumn != null);
+    }
+
+    // One extra row is fetched to know if there is a following page
+    PreparedStatement prepare(Connection con, PageRequest request) throws SQLException {
+        if (!supports(request.getSort()))
+            throw new IllegalArgumentException("Sorting by " + request.getSort() + " is not supported");
+
+        StringBuilder query = new StringBuilder("SELECT * FROM (").append(select).append(") AS page");
+
+        switch (request.getSort()) {
+            case ID -> query.append(" WHERE id > ? ORDER BY id");
+            case NAME -> {
+                if (!request.isFirst())
+                    query.append(" WHERE (").append(nameColumn).append(", id) > (?, ?)");
+                query.append(" ORDER BY ").append(nameColumn).append(", id");
+            }
+            case SCORE -> {
+                if (!request.isFirst())
+                    query.append(" WHERE (").append(scoreColumn).append(", id) < (?, ?)");
+                query.append(" ORDER BY ").append(scoreColumn).append(" DESC, id DESC");
+            }
+        }
+        query.append(" LIMIT ?");
+
+        PreparedStatement stmt = con.prepareStatement(query.toString());
+        int index = 1;
+
+        if (request.getSort() == PageSort.ID) {
+            stmt.setInt(index++, request.getAfterId());
+        } else if (!request.isFirst()) {
+            if (request.getSort() == PageSort.SCORE)
+                stmt.setInt(index++, Integer.parseInt(request.getAfterKey()));
+            else
+                stmt.setString(index++, request.getAfterKey());
+            stmt.setInt(index++, request.getAfterId());
+        }
+        stmt.setInt(index, request.getLimit() + 1);
+
+        return stmt;
+    }
+
+    // Sort key of the current row, null when sorting by id
+    String keyOf(ResultSet rs, PageRequest request) throws SQLException {
+        return switch (request.getSort()) {
+            case ID -> null;
+            case NAME -> rs.getString(nameColumn);
+            case SCORE -> rs.getString(scoreColumn);
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package repositories;
+
+import models.Page;
+import models.PageRequest;
+import models.PageSort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// In-memory counterpart of KeysetQuery: rows are kept ordered by (name, id) and by (score, id)
+// next to the table, so a page starts right after the last row of the previous one
+// instead of sorting the whole table. Names compare by Java string order, not by database collation.
+final class MemoryPageIndex<T> {
+    private final Function<T, String> name;
+    private final ToIntFunction<T> score;
+    private final NavigableSet<NameKey> byName;
+    // Score in the high half and id in the low half, highest first
+    private final NavigableSet<Long> byScore;
+
+    // null for a sort the rows do not support
+    MemoryPageIndex(Function<T, String> name, ToIntFunction<T> score) {
+        this.name = name;
+        this.score = score;
+        this.byName = name == null ? null : new ConcurrentSkipListSet<>(
+                Comparator.comparing(NameKey::name, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparingInt(NameKey::id));
+        this.byScore = score == null ? null : new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+    }
+
+    boolean supports(PageSort sort) {
+        return sort == PageSort.ID
+                || (sort == PageSort.NAME && byName != null)
+                || (sort == PageSort.SCORE && byScore != null);
+    }
+
+    void add(int id, T row) {
+        if (byName != null)
+            byName.add(new NameKey(name.apply(row), id));
+        if (byScore != null)
+            byScore.add(scoreKey(score.applyAsInt(row), id));
+    }
+
+    Page<T> page(IntTable<T> rows, PageRequest request) {
+        if (!supports(request.getSort()))
+            throw new IllegalArgumentException("Sorting by " + request.getSort() + " is not supported");
+
+        int limit = request.getLimit();
+        // One extra row tells that another page exists
+        List<T> items = new ArrayList<>(limit + 1);
+        List<Integer> ids = new ArrayList<>(limit + 1);
+
+        switch (request.getSort()) {
+            case ID -> rows.forEachAfter(request.getAfterId(), (id, row) -> {
+                items.add(row);
+                ids.add(id);
+                return items.size() <= limit;
+            });
+            case NAME -> {
+                NavigableSet<NameKey> after = request.isFirst()
+                        ? byName
+                        : byName.tailSet(new NameKey(request.getAfterKey(), request.getAfterId()), false);
+                for (NameKey key : after) {
+                    if (!collect(rows, key.id(), items, ids, limit))
+                        break;
+                }
+            }
+            case SCORE -> {
+                long afterKey = request.isFirst()
+                        ? 0
+                        : scoreKey(Integer.parseInt(request.getAfterKey()), request.getAfterId());
+                NavigableSet<Long> after = request.isFirst() ? byScore : byScore.tailSet(afterKey, false);
+                for (long key : after) {
+                    if (!collect(rows, (int) key, items, ids, limit))
+                        break;
+                }
+            }
+        }
+
+        boolean hasMore = items.size() > limit;
+        if (hasMore) {
+            items.remove(limit);
+            ids.remove(limit);
+        }
+        if (items.isEmpty())
+            return new Page<>(items, null, 0, false);
+
+        T last = items.get(items.size() - 1);
+        String lastKey = switch (request.getSort()) {
+            case ID -> null;
+            case NAME -> name.apply(last);
+            case SCORE -> String.valueOf(score.applyAsInt(last));
+        };
+
+        return new Page<>(items, lastKey, ids.get(ids.size() - 1), hasMore);
+    }
+
+    // false once the page and its extra row are full
+    private static <T> boolean collect(IntTable<T> rows, int id, List<T> items, List<Integer> ids, int limit) {
+        T row = rows.get(id);
+        if (row != null) {
+            items.add(row);
+            ids.add(id);
+        }
+        return items.size() <= limit;
+    }
+
+    private static long scoreKey(int score, int id) {
+        return ((long) score << 32) | (id & 0xffffffffL);
+    }
+
+    private record NameKey(String name, int id) {
+    }
+}
@@ -0,0 +1,315 @@
+package repositories;
+
+import catalog.SubjectCatalog;
+import data.interfaces.IDataBase;
+import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.Program;
+import models.University;
+import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.IUniversityRepository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Universities of the normalized schema: programs are linked through university_programs
+// and every university is loaded together with its programs by one join query
+@AllArgsConstructor
+public class NormalizedUniversityRepository implements IUniversityRepository {
+    private static final SubjectCatalog CATALOG = SubjectCatalog.shared();
+    // One row per program of a university, a university without programs gives one row of nulls
+    private static final String UNIVERSITY_SELECT = "SELECT un.id,un.name," +
+            "p.id AS program_id,p.name AS program_name,p.electives,p.minimum_score FROM universities un " +
+            "LEFT JOIN university_programs up ON up.university_id = un.id " +
+            "LEFT JOIN programs p ON p.id = up.program_id";
+
+    // Universities can be paged by name, they have no score
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery(
+            "SELECT id,name FROM universities", "name", null);
+
+    private final IDataBase db;
+    // Only used to insert the programs of a new university
+    private final IProgramRepository programRepo;
+
+    @Override
+    public List<University> getAll() {
+        Connection con = null;
+        List<University> universities = new ArrayList<>();
+
+        try {
+            con = db.getConnection();
+
+            // Query to get all universities with their programs in stored order
+            String query = UNIVERSITY_SELECT + " ORDER BY un.id, up.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                readUniversities(rs, universities::add);
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return universities;
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<University> action) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+            // Postgres only reads through a cursor inside a transaction
+            con.setAutoCommit(false);
+
+            String query = UNIVERSITY_SELECT + " ORDER BY un.id, up.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                // Fetch fetchSize rows per round trip instead of the whole table
+                stmt.setFetchSize(fetchSize);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    readUniversities(rs, action);
+                }
+            }
+
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public Page<University> getPage(PageRequest request) {
+        Connection con = null;
+        List<University> universities = new ArrayList<>(request.getLimit());
+        String lastKey = null;
+        int lastId = 0;
+        boolean hasMore = false;
+
+        // Ids of the page in page order
+        List<Integer> ids = new ArrayList<>(request.getLimit());
+
+        try {
+            con = db.getConnection();
+
+            try (PreparedStatement stmt = PAGE_QUERY.prepare(con, request);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // The extra row only tells that another page exists
+                    if (ids.size() == request.getLimit()) {
+                        hasMore = true;
+                        break;
+                    }
+
+                    ids.add(rs.getInt("id"));
+                    lastKey = PAGE_QUERY.keyOf(rs, request);
+                    lastId = rs.getInt("id");
+                }
+            }
+
+            if (!ids.isEmpty()) {
+                // Load the whole page with programs in one join query
+                Map<Integer, University> universitiesById = new HashMap<>();
+                String query = UNIVERSITY_SELECT + " WHERE un.id = ANY(?) ORDER BY un.id, up.position";
+
+                try (PreparedStatement stmt = con.prepareStatement(query)) {
+                    stmt.setArray(1, con.createArrayOf("integer", ids.toArray()));
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        readUniversities(rs, university -> universitiesById.put(university.getId(), university));
+                    }
+                }
+
+                for (Integer id : ids) {
+                    University university = universitiesById.get(id);
+                    if (university != null)
+                        universities.add(university);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return new Page<>(universities, lastKey, lastId, hasMore);
+    }
+
+    @Override
+    public List<University> getAllByProgramId(int programId) {
+        Connection con = null;
+        List<University> universities = new ArrayList<>();
+
+        try {
+            con = db.getConnection();
+
+            // Universities are found through the index on university_programs (program_id)
+            String query = UNIVERSITY_SELECT + " WHERE un.id IN " +
+                    "(SELECT university_id FROM university_programs WHERE program_id=?) " +
+                    "ORDER BY un.id, up.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, programId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    readUniversities(rs, universities::add);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return universities;
+    }
+
+    @Override
+    public University getById(int id) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to get university by id with its programs
+            String query = UNIVERSITY_SELECT + " WHERE un.id=? ORDER BY up.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<University> universities = new ArrayList<>(1);
+                    readUniversities(rs, universities::add);
+
+                    // If university in the table, return it
+                    if (!universities.isEmpty())
+                        return universities.get(0);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public University create(University university) {
+        return UniversityInserts.create(db, programRepo, university, true);
+    }
+
+    @Override
+    public University getLastCreated() {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to get last created university with its programs
+            String query = UNIVERSITY_SELECT +
+                    " WHERE un.id = (SELECT MAX(id) FROM universities) ORDER BY up.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                List<University> universities = new ArrayList<>(1);
+                readUniversities(rs, universities::add);
+
+                // If table is not empty, return university
+                if (!universities.isEmpty())
+                    return universities.get(0);
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    // Rows come ordered by university, so the programs of a university are next to each other
+    private void readUniversities(ResultSet rs, Consumer<University> action) throws SQLException {
+        University current = null;
+
+        while (rs.next()) {
+            int id = rs.getInt("id");
+
+            // A new university starts, hand over the previous one
+            if (current == null || current.getId() != id) {
+                if (current != null)
+                    action.accept(current);
+
+                current = new University(id, rs.getString("name"), new ArrayList<>());
+            }
+
+            // Universities without programs have a single row without program
+            int programId = rs.getInt("program_id");
+            if (!rs.wasNull()) {
+                // Convert SQL array into string array
+                Array sqlArr = rs.getArray("electives");
+                String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
+
+                current.getPrograms().add(new Program(
+                        programId,
+                        rs.getString("program_name"),
+                        rs.getInt("minimum_score"),
+                        electivesArr
+                ));
+            }
+        }
+
+        if (current != null)
+            action.accept(current);
+    }
+}
@@ -0,0 +1,301 @@
+package repositories;
+
+import catalog.SubjectCatalog;
+import data.interfaces.IDataBase;
+import exceptions.InvalidNumberOfSubjectsException;
+import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.SubjectScore;
+import models.User;
+import repositories.interfaces.IUserRepository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Users of the normalized schema: subject scores are linked through user_subject_scores
+// and every user is loaded together with its subject scores by one join query
+@AllArgsConstructor
+public class NormalizedUserRepository implements IUserRepository {
+    private static final SubjectCatalog CATALOG = SubjectCatalog.shared();
+    // One row per subject score of a user, a user without links gives one row of nulls
+    private static final String USER_SELECT = "SELECT u.id,u.first_name,u.last_name,u.email,u.password," +
+            "s.id AS score_id,s.subject,s.score FROM users u " +
+            "LEFT JOIN user_subject_scores us ON us.user_id = u.id " +
+            "LEFT JOIN subject_scores s ON s.id = us.subject_score_id";
+
+    // Users can be paged by last name or by the stored total of their subject scores
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery(
+            "SELECT id,last_name,total_score FROM users", "last_name", "total_score");
+
+    private final IDataBase db;
+
+    @Override
+    public List<User> getAll() {
+        Connection con = null;
+        List<User> users = new ArrayList<>();
+
+        try {
+            con = db.getConnection();
+
+            // Query to get all users with their subject scores in stored order
+            String query = USER_SELECT + " ORDER BY u.id, us.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                readUsers(rs, users::add);
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return users;
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<User> action) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+            // Postgres only reads through a cursor inside a transaction
+            con.setAutoCommit(false);
+
+            String query = USER_SELECT + " ORDER BY u.id, us.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                // Every user takes five rows
+                stmt.setFetchSize(fetchSize * 5);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    readUsers(rs, action);
+                }
+            }
+
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public Page<User> getPage(PageRequest request) {
+        Connection con = null;
+        List<User> users = new ArrayList<>(request.getLimit());
+        String lastKey = null;
+        int lastId = 0;
+        boolean hasMore = false;
+
+        // Ids of the page in page order
+        List<Integer> ids = new ArrayList<>(request.getLimit());
+
+        try {
+            con = db.getConnection();
+
+            try (PreparedStatement stmt = PAGE_QUERY.prepare(con, request);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // The extra row only tells that another page exists
+                    if (ids.size() == request.getLimit()) {
+                        hasMore = true;
+                        break;
+                    }
+
+                    ids.add(rs.getInt("id"));
+                    lastKey = PAGE_QUERY.keyOf(rs, request);
+                    lastId = rs.getInt("id");
+                }
+            }
+
+            if (!ids.isEmpty()) {
+                // Load the whole page with subject scores in one join query
+                Map<Integer, User> usersById = new HashMap<>();
+                String query = USER_SELECT + " WHERE u.id = ANY(?) ORDER BY u.id, us.position";
+
+                try (PreparedStatement stmt = con.prepareStatement(query)) {
+                    stmt.setArray(1, con.createArrayOf("integer", ids.toArray()));
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        readUsers(rs, user -> usersById.put(user.getId(), user));
+                    }
+                }
+
+                for (Integer id : ids) {
+                    User user = usersById.get(id);
+                    if (user != null)
+                        users.add(user);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return new Page<>(users, lastKey, lastId, hasMore);
+    }
+
+    @Override
+    public User getById(int id) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to get user by id with its subject scores
+            String query = USER_SELECT + " WHERE u.id=? ORDER BY us.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<User> users = new ArrayList<>(1);
+                    readUsers(rs, users::add);
+
+                    // If user in the table, return it
+                    if (!users.isEmpty())
+                        return users.get(0);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public User create(User user) {
+        return UserInserts.create(db, user, true);
+    }
+
+    @Override
+    public User getLastCreated() {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to get last created user with its subject scores
+            String query = USER_SELECT + " WHERE u.id = (SELECT MAX(id) FROM users) ORDER BY us.position";
+
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                List<User> users = new ArrayList<>(1);
+                readUsers(rs, users::add);
+
+                // If table is not empty, return user
+                if (!users.isEmpty())
+                    return users.get(0);
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        // Return null if table is empty or if exception is thrown
+        return null;
+    }
+
+    // Rows come ordered by user, so the subject scores of a user are next to each other
+    private void readUsers(
+            ResultSet rs, Consumer<User> action
+    ) throws SQLException, InvalidNumberOfSubjectsException {
+        User current = null;
+
+        while (rs.next()) {
+            int id = rs.getInt("id");
+
+            // A new user starts, hand over the previous one
+            if (current == null || current.getId() != id) {
+                if (current != null)
+                    emitUser(current, action);
+
+                current = new User(
+                        id,
+                        rs.getString("first_name"),
+                        rs.getString("last_name"),
+                        rs.getString("email"),
+                        rs.getString("password"),
+                        new ArrayList<>(5)
+                );
+            }
+
+            // Users without links have a single row without subject score
+            int scoreId = rs.getInt("score_id");
+            if (!rs.wasNull()) {
+                current.getSubjectScores().add(new SubjectScore(
+                        scoreId,
+                        CATALOG.intern(rs.getString("subject")),
+                        rs.getInt("score")
+                ));
+            }
+        }
+
+        if (current != null)
+            emitUser(current, action);
+    }
+
+    private void emitUser(User user, Consumer<User> action) throws InvalidNumberOfSubjectsException {
+        // Check if the number of subject scores is valid
+        if (user.getSubjectScores().size() != 5) {
+            throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
+        }
+
+        action.accept(user);
+    }
+}
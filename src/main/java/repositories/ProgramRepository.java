@@ -1,16 +1,29 @@
 package repositories;
 
+import catalog.SubjectCatalog;
 import data.interfaces.IDataBase;
 import lombok.AllArgsConstructor;
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
 import models.Program;
 import repositories.interfaces.IProgramRepository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class ProgramRepository implements IProgramRepository {
+    // Electives read from rows are the catalog's strings, not one copy per row
+    private static final SubjectCatalog CATALOG = SubjectCatalog.shared();
+    // Programs can be paged by name or by minimum score
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery(
+            "SELECT id, name, electives, minimum_score FROM programs", "name", "minimum_score");
+
     private final IDataBase db;
 
     @Override
@@ -24,22 +37,21 @@ public class ProgramRepository implements IProgramRepository {
 
             // Query to get all programs
             String query = "SELECT id, name, electives, minimum_score FROM programs";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // Iterate through result set, create new program instance and append to the list
-            while (rs.next()) {
-                // Convert SQL array into string array
-                Array sqlArr = rs.getArray("electives");
-                String[] electivesArr = (String[]) sqlArr.getArray();
-
-                programs.add(new Program(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("minimum_score"),
-                        electivesArr
-                ));
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                // Iterate through result set, create new program instance and append to the list
+                while (rs.next()) {
+                    // Convert SQL array into string array
+                    Array sqlArr = rs.getArray("electives");
+                    String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
+
+                    programs.add(new Program(
+                            rs.getInt("id"),
+                            rs.getString("name"),
+                            rs.getInt("minimum_score"),
+                            electivesArr
+                    ));
+                }
             }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
@@ -56,32 +68,39 @@ public class ProgramRepository implements IProgramRepository {
         return programs;
     }
     @Override
-    public Program getById(int id) {
+    public boolean streamAll(int fetchSize, Consumer<Program> action) {
         Connection con = null;
 
         try {
             con = db.getConnection();
+            // Postgres only reads through a cursor inside a transaction
+            con.setAutoCommit(false);
 
-            // Query to get program by id
-            String query = "SELECT id, name, electives, minimum_score FROM programs WHERE id=?";
-            PreparedStatement stmt = con.prepareStatement(query);
-            stmt.setInt(1, id);
-
-            ResultSet rs = stmt.executeQuery();
-
-            // If program is in table return it
-            if (rs.next()) {
-                // Convert SQL array into string array
-                Array sqlArr = rs.getArray("electives");
-                String[] electivesArr = (String[]) sqlArr.getArray();
-
-                return new Program(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("minimum_score"),
-                        electivesArr
-                );
+            // Query to get all programs
+            String query = "SELECT id, name, electives, minimum_score FROM programs";
+
+            try (Statement stmt = con.createStatement()) {
+                // Fetch fetchSize rows per round trip instead of the whole table
+                stmt.setFetchSize(fetchSize);
+
+                try (ResultSet rs = stmt.executeQuery(query)) {
+                    while (rs.next()) {
+                        // Convert SQL array into string array
+                        Array sqlArr = rs.getArray("electives");
+                        String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
+
+                        action.accept(new Program(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                rs.getInt("minimum_score"),
+                                electivesArr
+                        ));
+                    }
+                }
             }
+
+            con.commit();
+            return true;
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -94,33 +113,32 @@ public class ProgramRepository implements IProgramRepository {
             }
         }
 
-        return null;
+        return false;
     }
 
     @Override
-    public List<Program> getAllByIds(Integer[] ids) {
+    public Page<Program> getPage(PageRequest request) {
         Connection con = null;
-        // List to store programs
-        List<Program> programs = new ArrayList<>();
+        List<Program> programs = new ArrayList<>(request.getLimit());
+        String lastKey = null;
+        int lastId = 0;
+        boolean hasMore = false;
 
         try {
             con = db.getConnection();
 
-            // Iterate through every id in ids
-            for (Integer id : ids) {
-                // Query to get program with that id
-                String query = "SELECT id,name,electives,minimum_score " +
-                        "FROM programs WHERE id=?";
-                PreparedStatement stmt = con.prepareStatement(query);
-                stmt.setInt(1, id);
-
-                ResultSet rs = stmt.executeQuery();
+            try (PreparedStatement stmt = PAGE_QUERY.prepare(con, request);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // The extra row only tells that another page exists
+                    if (programs.size() == request.getLimit()) {
+                        hasMore = true;
+                        break;
+                    }
 
-                // If program in table, add to the list
-                if (rs.next()) {
                     // Convert SQL array into string array
                     Array sqlArr = rs.getArray("electives");
-                    String[] electivesArr = (String[]) sqlArr.getArray();
+                    String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
 
                     programs.add(new Program(
                             rs.getInt("id"),
@@ -128,9 +146,53 @@ public class ProgramRepository implements IProgramRepository {
                             rs.getInt("minimum_score"),
                             electivesArr
                     ));
+                    lastKey = PAGE_QUERY.keyOf(rs, request);
+                    lastId = rs.getInt("id");
                 }
             }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return new Page<>(programs, lastKey, lastId, hasMore);
+    }
 
+    @Override
+    public Program getById(int id) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to get program by id
+            String query = "SELECT id, name, electives, minimum_score FROM programs WHERE id=?";
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // If program is in table return it
+                    if (rs.next()) {
+                        // Convert SQL array into string array
+                        Array sqlArr = rs.getArray("electives");
+                        String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
+
+                        return new Program(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                rs.getInt("minimum_score"),
+                                electivesArr
+                        );
+                    }
+                }
+            }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -143,32 +205,110 @@ public class ProgramRepository implements IProgramRepository {
             }
         }
 
-        return programs;
+        return null;
     }
 
     @Override
-    public boolean create(Program program) {
+    public LookupResult<Program> getAllByIds(Integer[] ids) {
         Connection con = null;
+        Map<Integer, Program> programsById;
 
         try {
             con = db.getConnection();
+            programsById = readMapByIds(con, ids);
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+            // Not reading the rows does not make the programs missing
+            return LookupResult.failed();
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
 
-            // Query to insert new program into table
-            String query = "INSERT INTO programs (name, electives, minimum_score) VALUES(?,?,?)";
-            PreparedStatement stmt = con.prepareStatement(query);
+        List<Program> programs = new ArrayList<>(ids.length);
+        List<Integer> missingIds = new ArrayList<>();
 
-            // Create sql array from string array
-            Array sqlArr = con.createArrayOf("character varying", program.getElectedSubjectNames());
+        // Keep the order of requested ids and remember the ones that were not found
+        for (Integer id : ids) {
+            Program program = programsById.get(id);
 
-            // Set fields
-            stmt.setString(1, program.getName());
-            stmt.setArray(2, sqlArr);
-            stmt.setInt(3, program.getMinimumScore());
+            if (program != null)
+                programs.add(program);
+            else
+                missingIds.add(id);
+        }
 
-            stmt.execute();
+        return new LookupResult<>(programs, missingIds);
+    }
 
-            // Return true if creation is successful
-            return true;
+    // Programs with given ids by their id, read on a connection the caller already holds
+    static Map<Integer, Program> readMapByIds(Connection con, Integer[] ids) throws SQLException {
+        Map<Integer, Program> programsById = new HashMap<>();
+
+        // Query to get all programs with given ids in one round trip
+        String query = "SELECT id,name,electives,minimum_score " +
+                "FROM programs WHERE id = ANY(?)";
+
+        try (PreparedStatement stmt = con.prepareStatement(query)) {
+            stmt.setArray(1, con.createArrayOf("integer", ids));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Convert SQL array into string array
+                    Array sqlArr = rs.getArray("electives");
+                    String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
+
+                    Program program = new Program(
+                            rs.getInt("id"),
+                            rs.getString("name"),
+                            rs.getInt("minimum_score"),
+                            electivesArr
+                    );
+                    programsById.put(program.getId(), program);
+                }
+            }
+        }
+
+        return programsById;
+    }
+
+    @Override
+    public Program create(Program program) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to insert new program into table and return its id
+            String query = "INSERT INTO programs (name, electives, minimum_score) " +
+                    "VALUES(?,?,?) RETURNING id";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                // Create sql array from string array
+                Array sqlArr = con.createArrayOf("character varying", program.getElectedSubjectNames());
+
+                // Set fields
+                stmt.setString(1, program.getName());
+                stmt.setArray(2, sqlArr);
+                stmt.setInt(3, program.getMinimumScore());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // Return created program with its generated id
+                    if (rs.next()) {
+                        return new Program(
+                                rs.getInt("id"),
+                                program.getName(),
+                                program.getMinimumScore(),
+                                program.getElectedSubjectNames()
+                        );
+                    }
+                }
+            }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -181,7 +321,7 @@ public class ProgramRepository implements IProgramRepository {
             }
         }
 
-        return false;
+        return null;
     }
 
     @Override
@@ -192,22 +332,21 @@ public class ProgramRepository implements IProgramRepository {
             con = db.getConnection();
             // Query to get the last created program
             String query = "SELECT id, name, electives, minimum_score FROM programs ORDER BY id DESC LIMIT 1";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // If table is not empty, return program
-            if (rs.next()) {
-                // Convert SQL array into string array
-                Array sqlArr = rs.getArray("electives");
-                String[] electivesArr = (String[]) sqlArr.getArray();
-
-                return new Program(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("minimum_score"),
-                        electivesArr
-                );
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                // If table is not empty, return program
+                if (rs.next()) {
+                    // Convert SQL array into string array
+                    Array sqlArr = rs.getArray("electives");
+                    String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
+
+                    return new Program(
+                            rs.getInt("id"),
+                            rs.getString("name"),
+                            rs.getInt("minimum_score"),
+                            electivesArr
+                    );
+                }
             }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
@@ -0,0 +1,236 @@
+package repositories;
+
+import catalog.SubjectCatalog;
+import data.interfaces.IDataBase;
+import lombok.AllArgsConstructor;
+import models.ProgramReach;
+import models.ScoreHistogram;
+import models.SubjectSummary;
+import repositories.interfaces.IScoreAnalyticsRepository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Every statistic is aggregated by Postgres, so a query returns one row per subject, bucket or program
+// however many scores are stored
+@AllArgsConstructor
+public class ScoreAnalyticsRepository implements IScoreAnalyticsRepository {
+    private static final SubjectCatalog CATALOG = SubjectCatalog.shared();
+
+    private static final String SUMMARY_QUERY =
+            "SELECT min(subject) AS subject, count(*) AS scores, min(score) AS low, max(score) AS high, " +
+            "avg(score) AS mean, stddev_pop(score) AS deviation, " +
+            "percentile_cont(ARRAY[0.25, 0.5, 0.75, 0.9]) WITHIN GROUP (ORDER BY score) AS percentiles " +
+            "FROM subject_scores " +
+            "GROUP BY lower(trim(subject)) " +
+            "ORDER BY 1";
+
+    // Buckets are whole scores wide: width * buckets always passes the highest score,
+    // so width_bucket puts every score into buckets 1 to n and none into the overflow bucket
+    private static final String HISTOGRAM_QUERY =
+            "WITH scores AS (" +
+            "SELECT score FROM subject_scores WHERE lower(trim(subject)) = lower(trim(?))" +
+            "), bounds AS (" +
+            "SELECT min(score) AS low, (max(score) - min(score)) / ? + 1 AS width FROM scores" +
+            ") " +
+            "SELECT b.low, b.width, " +
+            "width_bucket(s.score::numeric, b.low::numeric, (b.low + b.width * ?)::numeric, ?) AS bucket, " +
+            "count(*) AS scores " +
+            "FROM scores s CROSS JOIN bounds b " +
+            "GROUP BY b.low, b.width, bucket " +
+            "ORDER BY bucket";
+
+    // Applicants are first counted per total score and per electives and total score, a few thousand rows
+    // at most, and programs are then joined to the groups they reach instead of to every user.
+    // Each count is a join rather than a subquery per program, which Postgres would run once for every program.
+    // Electives are the 4th and 5th subject score of a user.
+    private static final String REACH_QUERY =
+            "WITH totals AS (" +
+            "SELECT total_score, count(*) AS applicants FROM users GROUP BY total_score" +
+            "), electives AS (" +
+            "SELECT least(lower(trim(e1.subject)), lower(trim(e2.subject))) AS first_elective, " +
+            "greatest(lower(trim(e1.subject)), lower(trim(e2.subject))) AS second_elective, " +
+            "u.total_score, count(*) AS applicants " +
+            "FROM users u " +
+            "JOIN subject_scores e1 ON e1.id = u.subject_score_ids[4] " +
+            "JOIN subject_scores e2 ON e2.id = u.subject_score_ids[5] " +
+            "GROUP BY 1, 2, 3" +
+            "), clearing AS (" +
+            "SELECT p.id, sum(t.applicants) AS applicants " +
+            "FROM programs p JOIN totals t ON t.total_score >= p.minimum_score " +
+            "GROUP BY p.id" +
+            "), eligible AS (" +
+            "SELECT p.id, sum(e.applicants) AS applicants " +
+            "FROM programs p JOIN electives e " +
+            "ON e.first_elective = least(lower(trim(p.electives[1])), lower(trim(p.electives[2]))) " +
+            "AND e.second_elective = greatest(lower(trim(p.electives[1])), lower(trim(p.electives[2]))) " +
+            "AND e.total_score >= p.minimum_score " +
+            "GROUP BY p.id" +
+            ") " +
+            "SELECT p.id, p.name, p.minimum_score, " +
+            "COALESCE(c.applicants, 0) AS clearing, COALESCE(g.applicants, 0) AS eligible " +
+            "FROM programs p " +
+            "LEFT JOIN clearing c ON c.id = p.id " +
+            "LEFT JOIN eligible g ON g.id = p.id";
+
+    private final IDataBase db;
+
+    @Override
+    public List<SubjectSummary> getSubjectSummaries() {
+        Connection con = null;
+        List<SubjectSummary> summaries = new ArrayList<>();
+
+        try {
+            con = db.getConnection();
+
+            try (PreparedStatement stmt = con.prepareStatement(SUMMARY_QUERY);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // 25th, 50th, 75th and 90th percentile
+                    Double[] percentiles = (Double[]) rs.getArray("percentiles").getArray();
+
+                    summaries.add(new SubjectSummary(
+                            CATALOG.intern(rs.getString("subject")),
+                            rs.getLong("scores"),
+                            rs.getInt("low"),
+                            rs.getInt("high"),
+                            rs.getDouble("mean"),
+                            rs.getDouble("deviation"),
+                            percentiles[0],
+                            percentiles[1],
+                            percentiles[2],
+                            percentiles[3]
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return summaries;
+    }
+
+    @Override
+    public ScoreHistogram getHistogram(String subject, int buckets) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            try (PreparedStatement stmt = con.prepareStatement(HISTOGRAM_QUERY)) {
+                stmt.setString(1, subject);
+                stmt.setInt(2, buckets);
+                stmt.setInt(3, buckets);
+                stmt.setInt(4, buckets);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // Only buckets holding scores come back, the others stay 0
+                    long[] counts = new long[buckets];
+                    int low = 0;
+                    int width = 0;
+                    boolean found = false;
+
+                    while (rs.next()) {
+                        low = rs.getInt("low");
+                        width = rs.getInt("width");
+                        counts[rs.getInt("bucket") - 1] = rs.getLong("scores");
+                        found = true;
+                    }
+
+                    if (found)
+                        return new ScoreHistogram(CATALOG.canonical(subject), low, width, counts);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<ProgramReach> getProgramReach() {
+        Connection con = null;
+        List<ProgramReach> reach = new ArrayList<>();
+
+        try {
+            con = db.getConnection();
+
+            try (PreparedStatement stmt = con.prepareStatement(REACH_QUERY + " ORDER BY p.id");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reach.add(readReach(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return reach;
+    }
+
+    @Override
+    public ProgramReach getProgramReach(int programId) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            try (PreparedStatement stmt = con.prepareStatement(REACH_QUERY + " WHERE p.id = ?")) {
+                stmt.setInt(1, programId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next())
+                        return readReach(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static ProgramReach readReach(ResultSet rs) throws SQLException {
+        return new ProgramReach(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getInt("minimum_score"),
+                rs.getLong("clearing"),
+                rs.getLong("eligible")
+        );
+    }
+}
@@ -1,16 +1,29 @@
 package repositories;
 
+import catalog.SubjectCatalog;
 import data.interfaces.IDataBase;
 import lombok.AllArgsConstructor;
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
 import models.SubjectScore;
 import repositories.interfaces.ISubjectScoreRepository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class SubjectScoreRepository implements ISubjectScoreRepository {
+    // Every row repeats one of a few subject names, rows keep the catalog's copy of it
+    private static final SubjectCatalog CATALOG = SubjectCatalog.shared();
+    // Subject scores can be paged by subject name or by score
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery(
+            "SELECT id,subject,score FROM subject_scores", "subject", "score");
+
     private final IDataBase db;
 
     @Override
@@ -24,18 +37,17 @@ public class SubjectScoreRepository implements ISubjectScoreRepository {
 
             // Query to get all subject scores
             String query = "SELECT id,subject,score FROM subject_scores";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // Iterate through result set, create SubjectScore and add it to the list
-            while (rs.next()) {
-                SubjectScore subjectScore = new SubjectScore(
-                        rs.getInt("id"),
-                        rs.getString("subject"),
-                        rs.getInt("score")
-                );
-                subjectScores.add(subjectScore);
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                // Iterate through result set, create SubjectScore and add it to the list
+                while (rs.next()) {
+                    SubjectScore subjectScore = new SubjectScore(
+                            rs.getInt("id"),
+                            CATALOG.intern(rs.getString("subject")),
+                            rs.getInt("score")
+                    );
+                    subjectScores.add(subjectScore);
+                }
             }
 
             return subjectScores;
@@ -55,27 +67,34 @@ public class SubjectScoreRepository implements ISubjectScoreRepository {
     }
 
     @Override
-    public SubjectScore getById(int id) {
+    public boolean streamAll(int fetchSize, Consumer<SubjectScore> action) {
         Connection con = null;
 
         try {
             con = db.getConnection();
+            // Postgres only reads through a cursor inside a transaction
+            con.setAutoCommit(false);
 
-            // Query to get subject score by id
-            String query = "SELECT id,subject,score FROM subject_scores WHERE id=?";
-            PreparedStatement stmt = con.prepareStatement(query);
-            stmt.setInt(1, id);
-
-            ResultSet rs = stmt.executeQuery();
-
-            // If SubjectScore is in table return it
-            if (rs.next()) {
-                return new SubjectScore(
-                        rs.getInt("id"),
-                        rs.getString("subject"),
-                        rs.getInt("score")
-                );
+            // Query to get all subject scores
+            String query = "SELECT id,subject,score FROM subject_scores";
+
+            try (Statement stmt = con.createStatement()) {
+                // Fetch fetchSize rows per round trip instead of the whole table
+                stmt.setFetchSize(fetchSize);
+
+                try (ResultSet rs = stmt.executeQuery(query)) {
+                    while (rs.next()) {
+                        action.accept(new SubjectScore(
+                                rs.getInt("id"),
+                                CATALOG.intern(rs.getString("subject")),
+                                rs.getInt("score")
+                        ));
+                    }
+                }
             }
+
+            con.commit();
+            return true;
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -88,39 +107,76 @@ public class SubjectScoreRepository implements ISubjectScoreRepository {
             }
         }
 
-        return null;
+        return false;
     }
 
     @Override
-    public List<SubjectScore> getAllByIds(Integer[] ids) {
+    public Page<SubjectScore> getPage(PageRequest request) {
         Connection con = null;
-        List<SubjectScore> subjectScores = new ArrayList<>();
+        List<SubjectScore> subjectScores = new ArrayList<>(request.getLimit());
+        String lastKey = null;
+        int lastId = 0;
+        boolean hasMore = false;
 
         try {
             con = db.getConnection();
 
-            // Iterate through ids
-            for (Integer id : ids) {
-                // Query to get subject score with id
-                String query = "SELECT id,subject,score FROM subject_scores WHERE id=?";
-                PreparedStatement stmt = con.prepareStatement(query);
-                stmt.setInt(1, id);
-
-                ResultSet rs = stmt.executeQuery();
+            try (PreparedStatement stmt = PAGE_QUERY.prepare(con, request);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // The extra row only tells that another page exists
+                    if (subjectScores.size() == request.getLimit()) {
+                        hasMore = true;
+                        break;
+                    }
 
-                // If subject score is in table, add it to the list
-                if (rs.next()) {
                     subjectScores.add(new SubjectScore(
                             rs.getInt("id"),
-                            rs.getString("subject"),
+                            CATALOG.intern(rs.getString("subject")),
                             rs.getInt("score")
                     ));
+                    lastKey = PAGE_QUERY.keyOf(rs, request);
+                    lastId = rs.getInt("id");
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
                 }
             }
+        }
+
+        return new Page<>(subjectScores, lastKey, lastId, hasMore);
+    }
+
+    @Override
+    public SubjectScore getById(int id) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
 
-            // Return subject scores if their number is suitable
-            if (subjectScores.size() == 5)
-                return subjectScores;
+            // Query to get subject score by id
+            String query = "SELECT id,subject,score FROM subject_scores WHERE id=?";
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // If SubjectScore is in table return it
+                    if (rs.next()) {
+                        return new SubjectScore(
+                                rs.getInt("id"),
+                                CATALOG.intern(rs.getString("subject")),
+                                rs.getInt("score")
+                        );
+                    }
+                }
+            }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -137,23 +193,103 @@ public class SubjectScoreRepository implements ISubjectScoreRepository {
     }
 
     @Override
-    public boolean create(SubjectScore subjectScore) {
+    public LookupResult<SubjectScore> getAllByIds(Integer[] ids) {
+        // Load all subject scores in one query
+        Map<Integer, SubjectScore> subjectScoresById = getMapByIds(ids);
+        if (subjectScoresById == null)
+            return LookupResult.failed();
+
+        List<SubjectScore> subjectScores = new ArrayList<>(ids.length);
+        List<Integer> missingIds = new ArrayList<>();
+
+        // Keep the order of requested ids and remember the ones that were not found
+        for (Integer id : ids) {
+            SubjectScore subjectScore = subjectScoresById.get(id);
+
+            if (subjectScore != null)
+                subjectScores.add(subjectScore);
+            else
+                missingIds.add(id);
+        }
+
+        return new LookupResult<>(subjectScores, missingIds);
+    }
+
+    @Override
+    public Map<Integer, SubjectScore> getMapByIds(Integer[] ids) {
         Connection con = null;
 
         try {
             con = db.getConnection();
+            return readMapByIds(con, ids);
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+            // An empty map would read as scores that do not exist
+            return null;
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
 
-            // Query to insert new subject score into the table
-            String query = "INSERT INTO subject_scores (subject,score) VALUES(?,?)";
-            PreparedStatement stmt = con.prepareStatement(query);
-            // Set fields
-            stmt.setString(1, subjectScore.getSubject());
-            stmt.setInt(2, subjectScore.getScore());
+    // Subject scores with given ids read on a connection the caller already holds,
+    // such as the one UserRepository.streamAll keeps its cursor open on
+    static Map<Integer, SubjectScore> readMapByIds(Connection con, Integer[] ids) throws SQLException {
+        Map<Integer, SubjectScore> subjectScores = new HashMap<>();
 
-            stmt.execute();
+        // Query to get all subject scores with given ids in one round trip
+        String query = "SELECT id,subject,score FROM subject_scores WHERE id = ANY(?)";
 
-            // Return true if creation is successful
-            return true;
+        try (PreparedStatement stmt = con.prepareStatement(query)) {
+            stmt.setArray(1, con.createArrayOf("integer", ids));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                // Map every found subject score by its id
+                while (rs.next()) {
+                    SubjectScore subjectScore = new SubjectScore(
+                            rs.getInt("id"),
+                            CATALOG.intern(rs.getString("subject")),
+                            rs.getInt("score")
+                    );
+                    subjectScores.put(subjectScore.getId(), subjectScore);
+                }
+            }
+        }
+
+        return subjectScores;
+    }
+
+    @Override
+    public SubjectScore create(SubjectScore subjectScore) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to insert new subject score into the table and return its id
+            String query = "INSERT INTO subject_scores (subject,score) VALUES(?,?) RETURNING id";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                // Set fields
+                stmt.setString(1, subjectScore.getSubject());
+                stmt.setInt(2, subjectScore.getScore());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // Return created subject score with its generated id
+                    if (rs.next()) {
+                        return new SubjectScore(
+                                rs.getInt("id"),
+                                subjectScore.getSubject(),
+                                subjectScore.getScore()
+                        );
+                    }
+                }
+            }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -166,7 +302,7 @@ public class SubjectScoreRepository implements ISubjectScoreRepository {
             }
         }
 
-        return false;
+        return null;
     }
 
     @Override
@@ -179,17 +315,16 @@ public class SubjectScoreRepository implements ISubjectScoreRepository {
             // Query to get the last created subject score
             String query = "SELECT id, subject, score FROM subject_scores " +
                     "ORDER BY id DESC LIMIT 1";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // If table is not empty, return SubjectScore
-            if (rs.next()) {
-                return new SubjectScore(
-                        rs.getInt("id"),
-                        rs.getString("subject"),
-                        rs.getInt("score")
-                );
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                // If table is not empty, return SubjectScore
+                if (rs.next()) {
+                    return new SubjectScore(
+                            rs.getInt("id"),
+                            CATALOG.intern(rs.getString("subject")),
+                            rs.getInt("score")
+                    );
+                }
             }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
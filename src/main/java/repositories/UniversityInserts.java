@@ -0,0 +1,104 @@
+package repositories;
+
+import data.interfaces.IDataBase;
+import models.Program;
+import models.University;
+import repositories.interfaces.IProgramRepository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Inserts a university for both schema modes, like UserInserts: the program_ids array is always written,
+// the university_programs links only for the normalized schema.
+final class UniversityInserts {
+    private UniversityInserts() {
+    }
+
+    static University create(IDataBase db, IProgramRepository programRepo, University university, boolean links) {
+        Connection con = null;
+
+        try {
+            // List to store all created programs
+            List<Program> programs = new ArrayList<>();
+
+            // Iterate through program in university
+            for (Program program : university.getPrograms()) {
+                // insert program into database
+                Program createdProgram = programRepo.create(program);
+
+                // If insertion is successful, add that program to the list
+                if (createdProgram != null) {
+                    programs.add(createdProgram);
+                }
+            }
+
+            // Integer array to store program ids
+            Integer[] idArr = new Integer[programs.size()];
+            for (int i = 0; i < programs.size(); i++) {
+                idArr[i] = programs.get(i).getId();
+            }
+
+            con = db.getConnection();
+            // Insert university and its links in one transaction
+            con.setAutoCommit(false);
+
+            // Query to insert new university into the table and return its id
+            String query = "INSERT INTO universities (name,program_ids) " +
+                    "VALUES(?,?) RETURNING id";
+            int universityId;
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                // Set fields
+                stmt.setString(1, university.getName());
+                stmt.setArray(2, con.createArrayOf("integer", idArr));
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    universityId = rs.getInt("id");
+                }
+            }
+
+            if (links) {
+                // Link programs to the university in their original order
+                String linkQuery = "INSERT INTO university_programs (university_id,program_id,position) " +
+                        "VALUES(?,?,?)";
+
+                try (PreparedStatement stmt = con.prepareStatement(linkQuery)) {
+                    for (int i = 0; i < programs.size(); i++) {
+                        stmt.setInt(1, universityId);
+                        stmt.setInt(2, programs.get(i).getId());
+                        stmt.setInt(3, i + 1);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+            }
+
+            con.commit();
+
+            // Return created university with its generated id
+            return new University(universityId, university.getName(), programs);
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+
+            if (con != null) {
+                try {
+                    con.rollback();
+                } catch (SQLException ex) {
+                    System.out.println(ex.getMessage());
+                }
+            }
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+}
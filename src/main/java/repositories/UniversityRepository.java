@@ -1,7 +1,11 @@
 package repositories;
 
+import catalog.SubjectCatalog;
 import data.interfaces.IDataBase;
 import lombok.AllArgsConstructor;
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
 import models.Program;
 import models.University;
 import repositories.interfaces.IProgramRepository;
@@ -9,42 +13,68 @@ import repositories.interfaces.IUniversityRepository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class UniversityRepository implements IUniversityRepository {
+    private static final SubjectCatalog CATALOG = SubjectCatalog.shared();
+    // Universities can be paged by name, they have no score
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery(
+            "SELECT id,name,program_ids FROM universities", "name", null);
+
     private final IDataBase db;
     private final IProgramRepository programRepo;
+    // Runs the program query of getById next to the university query. It must be unbounded
+    // (virtual threads), a bounded pool shared with callers of getById can deadlock
+    private final Executor executor;
+
+    // Without an executor both queries of getById run one after the other on the calling thread
+    public UniversityRepository(IDataBase db, IProgramRepository programRepo) {
+        this(db, programRepo, Runnable::run);
+    }
 
     @Override
     public List<University> getAll() {
         Connection con = null;
         List<University> universities = new ArrayList<>();
 
+        // Universities read from the table and the ids of their programs
+        List<University> pending = new ArrayList<>();
+        List<Integer[]> programIds = new ArrayList<>();
+
         try {
             con = db.getConnection();
 
             // Query to get all universities
             String query = "SELECT id,name,program_ids FROM universities";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // Iterate through result set, create University instance and add it to the list
-            while (rs.next()) {
-                // Convert SQL array into integer array
-                Array sqlArr = rs.getArray("program_ids");
-                Integer[] idArr = (Integer[]) sqlArr.getArray();
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Convert SQL array into integer array
+                    Array sqlArr = rs.getArray("program_ids");
+                    programIds.add((Integer[]) sqlArr.getArray());
+
+                    pending.add(new University(
+                            rs.getInt("id"),
+                            rs.getString("name"),
+                            null
+                    ));
+                }
+            }
 
-                // List to store all programs in the university
-                List<Program> programs = programRepo.getAllByIds(idArr);
+            // Release connection before loading programs
+            con.close();
+            con = null;
 
-                universities.add(new University(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        programs
-                ));
-            }
+            emitUniversities(pending, programIds, universities::add);
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -61,35 +91,169 @@ public class UniversityRepository implements IUniversityRepository {
     }
 
     @Override
-    public University getById(int id) {
+    public boolean streamAll(int fetchSize, Consumer<University> action) {
         Connection con = null;
 
+        // Universities of the current page and the ids of their programs
+        List<University> pending = new ArrayList<>(fetchSize);
+        List<Integer[]> programIds = new ArrayList<>(fetchSize);
+
         try {
             con = db.getConnection();
+            // Postgres only reads through a cursor inside a transaction
+            con.setAutoCommit(false);
 
-            // Query to get university by id
-            String query = "SELECT id,name,program_ids FROM universities " +
-                    "WHERE id=?";
-            PreparedStatement stmt = con.prepareStatement(query);
-            stmt.setInt(1, id);
+            // Query to get all universities
+            String query = "SELECT id,name,program_ids FROM universities";
 
-            ResultSet rs = stmt.executeQuery();
+            try (Statement stmt = con.createStatement()) {
+                // Fetch fetchSize rows per round trip instead of the whole table
+                stmt.setFetchSize(fetchSize);
+
+                try (ResultSet rs = stmt.executeQuery(query)) {
+                    while (rs.next()) {
+                        // Convert SQL array into integer array
+                        Array sqlArr = rs.getArray("program_ids");
+                        programIds.add((Integer[]) sqlArr.getArray());
+
+                        pending.add(new University(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                null
+                        ));
+
+                        // Load programs once per page of universities
+                        if (pending.size() == fetchSize)
+                            streamUniversities(con, pending, programIds, action);
+                    }
+                }
+            }
 
-            // If university in the table, return it
-            if (rs.next()) {
-                // Convert SQL array into integer array
-                Array sqlArr = rs.getArray("program_ids");
-                Integer[] idArr = (Integer[]) sqlArr.getArray();
+            streamUniversities(con, pending, programIds, action);
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
 
-                // List to store all programs in the university
-                List<Program> programs = programRepo.getAllByIds(idArr);
+        return false;
+    }
 
-                return new University(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        programs
-                );
+    private void emitUniversities(
+            List<University> pending, List<Integer[]> programIds, Consumer<University> action
+    ) throws SQLException {
+        Map<Integer, Program> programsById = new HashMap<>();
+        for (Program program : loadPrograms(allProgramIds(programIds))) {
+            programsById.put(program.getId(), program);
+        }
+
+        assignPrograms(pending, programIds, programsById, action);
+    }
+
+    // Programs are read on the connection the cursor is open on instead of a second pooled one,
+    // which every stream would wait for once all pooled connections hold a cursor
+    private void streamUniversities(
+            Connection con, List<University> pending, List<Integer[]> programIds, Consumer<University> action
+    ) throws SQLException {
+        if (pending.isEmpty())
+            return;
+
+        Integer[] allIds = allProgramIds(programIds);
+        Map<Integer, Program> programsById = ProgramRepository.readMapByIds(con, allIds);
+
+        // Report programs that are referenced by a university but no longer exist
+        Set<Integer> missingIds = new HashSet<>();
+        for (Integer id : allIds) {
+            if (!programsById.containsKey(id))
+                missingIds.add(id);
+        }
+        if (!missingIds.isEmpty())
+            System.out.println("Programs not found: " + missingIds);
+
+        assignPrograms(pending, programIds, programsById, action);
+    }
+
+    // Collect program ids of all pending universities to load them with one query
+    private static Integer[] allProgramIds(List<Integer[]> programIds) {
+        List<Integer> allIds = new ArrayList<>();
+        for (Integer[] idArr : programIds) {
+            Collections.addAll(allIds, idArr);
+        }
+        return allIds.toArray(new Integer[0]);
+    }
+
+    private static void assignPrograms(
+            List<University> pending, List<Integer[]> programIds, Map<Integer, Program> programsById,
+            Consumer<University> action
+    ) {
+        for (int i = 0; i < pending.size(); i++) {
+            List<Program> programs = new ArrayList<>(programIds.get(i).length);
+            for (Integer id : programIds.get(i)) {
+                Program program = programsById.get(id);
+                if (program != null)
+                    programs.add(program);
             }
+
+            University university = pending.get(i);
+            university.setPrograms(programs);
+            action.accept(university);
+        }
+
+        pending.clear();
+        programIds.clear();
+    }
+
+    @Override
+    public Page<University> getPage(PageRequest request) {
+        Connection con = null;
+        List<University> universities = new ArrayList<>(request.getLimit());
+        String lastKey = null;
+        int lastId = 0;
+        boolean hasMore = false;
+
+        // Universities of the page and the ids of their programs
+        List<University> pending = new ArrayList<>(request.getLimit());
+        List<Integer[]> programIds = new ArrayList<>(request.getLimit());
+
+        try {
+            con = db.getConnection();
+
+            try (PreparedStatement stmt = PAGE_QUERY.prepare(con, request);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // The extra row only tells that another page exists
+                    if (pending.size() == request.getLimit()) {
+                        hasMore = true;
+                        break;
+                    }
+
+                    // Convert SQL array into integer array
+                    Array sqlArr = rs.getArray("program_ids");
+                    programIds.add((Integer[]) sqlArr.getArray());
+
+                    pending.add(new University(
+                            rs.getInt("id"),
+                            rs.getString("name"),
+                            null
+                    ));
+                    lastKey = PAGE_QUERY.keyOf(rs, request);
+                    lastId = rs.getInt("id");
+                }
+            }
+
+            // Release connection before loading programs
+            con.close();
+            con = null;
+
+            emitUniversities(pending, programIds, universities::add);
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -102,55 +266,167 @@ public class UniversityRepository implements IUniversityRepository {
             }
         }
 
-        return null;
+        return new Page<>(universities, lastKey, lastId, hasMore);
     }
 
     @Override
-    public boolean create(University university) {
+    public List<University> getAllByProgramId(int programId) {
         Connection con = null;
+        List<University> universities = new ArrayList<>();
+
+        // Universities found and the ids of their programs
+        List<University> pending = new ArrayList<>();
+        List<Integer[]> programIds = new ArrayList<>();
 
         try {
             con = db.getConnection();
 
-            // Query to insert new university into the table
-            String query = "INSERT INTO universities (name,program_ids) " +
-                    "VALUES(?,?)";
-            PreparedStatement stmt = con.prepareStatement(query);
+            // Containment instead of ANY, so a GIN index on program_ids can serve the query
+            String query = "SELECT id,name,program_ids FROM universities " +
+                    "WHERE program_ids @> ARRAY[?]::integer[] ORDER BY id";
+
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, programId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Convert SQL array into integer array
+                        Array sqlArr = rs.getArray("program_ids");
+                        programIds.add((Integer[]) sqlArr.getArray());
+
+                        pending.add(new University(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                null
+                        ));
+                    }
+                }
+            }
+
+            // Release connection before loading programs
+            con.close();
+            con = null;
 
-            // List to store all programs
-            List<Program> programs = new ArrayList<>();
+            emitUniversities(pending, programIds, universities::add);
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
 
-            // Iterate through program in university
-            for (Program program : university.getPrograms()) {
-                // insert program into database
-                boolean created = programRepo.create(program);
+        return universities;
+    }
 
-                // If insertion is successful, add that program to the list
-                if (created) {
-                    programs.add(programRepo.getLastCreated());
+    @Override
+    public University getById(int id) {
+        // Programs are read on a second connection while the university row is read,
+        // both queries only need the university id
+        CompletableFuture<List<Program>> programsFuture = CompletableFuture.supplyAsync(
+                () -> loadProgramsOfUniversity(id), executor);
+
+        Connection con = null;
+        University university = null;
+        Integer[] idArr = null;
+
+        try {
+            con = db.getConnection();
+
+            // Query to get university by id
+            String query = "SELECT id,name,program_ids FROM universities " +
+                    "WHERE id=?";
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // If university in the table, remember it
+                    if (rs.next()) {
+                        // Convert SQL array into integer array
+                        Array sqlArr = rs.getArray("program_ids");
+                        idArr = (Integer[]) sqlArr.getArray();
+
+                        university = new University(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                null
+                        );
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
                 }
             }
+        }
 
-            // Integer array to store program ids
-            Integer[] idArr = new Integer[programs.size()];
+        // Wait for the programs even when the university is missing, so no query outlives the call
+        List<Program> programs = programsFuture.join();
+        if (university == null || programs == null)
+            return null;
+
+        // Report programs that are referenced by the university but no longer exist
+        if (programs.size() != idArr.length) {
+            Set<Integer> foundIds = new HashSet<>();
+            for (Program program : programs) {
+                foundIds.add(program.getId());
+            }
 
-            // Iterate through program list and add id of each program to the array
-            for (int i = 0; i < programs.size(); i++) {
-                idArr[i] = programs.get(i).getId();
+            List<Integer> missingIds = new ArrayList<>();
+            for (Integer programId : idArr) {
+                if (!foundIds.contains(programId))
+                    missingIds.add(programId);
             }
+            System.out.println("Programs not found: " + missingIds);
+        }
 
-            Array sqlArr = con.createArrayOf("integer", idArr);
+        university.setPrograms(programs);
+        return university;
+    }
 
-            // Set fields
-            stmt.setString(1, university.getName());
-            stmt.setArray(2, sqlArr);
+    // Programs of a university in the order of its program_ids, found by the university id alone.
+    // Null when they could not be read
+    private List<Program> loadProgramsOfUniversity(int universityId) {
+        Connection con = null;
+        List<Program> programs = new ArrayList<>();
 
-            stmt.execute();
+        try {
+            con = db.getConnection();
 
-            // Return true if insertion is successful
-            return true;
+            String query = "SELECT p.id,p.name,p.electives,p.minimum_score FROM universities un " +
+                    "CROSS JOIN LATERAL unnest(un.program_ids) WITH ORDINALITY AS ids (id, position) " +
+                    "JOIN programs p ON p.id = ids.id WHERE un.id=? ORDER BY ids.position";
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, universityId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Convert SQL array into string array
+                        Array sqlArr = rs.getArray("electives");
+                        String[] electivesArr = CATALOG.internAll((String[]) sqlArr.getArray());
+
+                        programs.add(new Program(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                rs.getInt("minimum_score"),
+                                electivesArr
+                        ));
+                    }
+                }
+            }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
+            return null;
         } finally {
             if (con != null) {
                 try {
@@ -161,12 +437,22 @@ public class UniversityRepository implements IUniversityRepository {
             }
         }
 
-        return false;
+        return programs;
+    }
+
+    @Override
+    public University create(University university) {
+        return UniversityInserts.create(db, programRepo, university, false);
     }
 
     @Override
     public University getLastCreated() {
         Connection con = null;
+        List<University> universities = new ArrayList<>(1);
+
+        // Universities read from the table and the ids of their programs
+        List<University> pending = new ArrayList<>(1);
+        List<Integer[]> programIds = new ArrayList<>(1);
 
         try {
             con = db.getConnection();
@@ -174,24 +460,26 @@ public class UniversityRepository implements IUniversityRepository {
             // Query to get last created university
             String query = "SELECT id,name,program_ids FROM universities " +
                     "ORDER BY id DESC LIMIT 1";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // If table is not empty, return university
-            if (rs.next()) {
-                // Convert SQL array to integer array
-                Array sqlArr = rs.getArray("program_ids");
-                Integer[] idArr = (Integer[]) sqlArr.getArray();
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    // Convert SQL array into integer array
+                    Array sqlArr = rs.getArray("program_ids");
+                    programIds.add((Integer[]) sqlArr.getArray());
+
+                    pending.add(new University(
+                            rs.getInt("id"),
+                            rs.getString("name"),
+                            null
+                    ));
+                }
+            }
 
-                List<Program> programs = programRepo.getAllByIds(idArr);
+            // Release connection before loading programs
+            con.close();
+            con = null;
 
-                return new University(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        programs
-                );
-            }
+            emitUniversities(pending, programIds, universities::add);
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } finally {
@@ -204,6 +492,20 @@ public class UniversityRepository implements IUniversityRepository {
             }
         }
 
-        return null;
+        return universities.isEmpty() ? null : universities.get(0);
+    }
+
+    private List<Program> loadPrograms(Integer[] idArr) throws SQLException {
+        LookupResult<Program> lookup = programRepo.getAllByIds(idArr);
+
+        // A university without its programs would look like one that offers none
+        if (lookup.isFailed())
+            throw new SQLException("Programs of the universities could not be loaded");
+
+        // Report programs that are referenced by the university but no longer exist
+        if (!lookup.isComplete())
+            System.out.println("Programs not found: " + lookup.getMissingIds());
+
+        return lookup.getFound();
     }
 }
@@ -0,0 +1,118 @@
+package repositories;
+
+import data.interfaces.IDataBase;
+import lombok.AllArgsConstructor;
+import matching.EligibilityIndex;
+import models.SubjectScore;
+import models.User;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import repositories.interfaces.IUserImportRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+// Users are copied into a staging table that lives until the chunk commits, then moved into the real tables
+// by one statement. Ids come from the sequences in the server as the rows are inserted, none travel
+// to the client and a refused chunk takes no more of them than plain inserts would.
+@AllArgsConstructor
+public class UserImportRepository implements IUserImportRepository {
+    private static final String STAGING_TABLE = "CREATE TEMP TABLE import_users (" +
+            "ordinal INTEGER, first_name VARCHAR, last_name VARCHAR, email VARCHAR, password VARCHAR, " +
+            "subject_1 VARCHAR, score_1 INTEGER, subject_2 VARCHAR, score_2 INTEGER, " +
+            "subject_3 VARCHAR, score_3 INTEGER, subject_4 VARCHAR, score_4 INTEGER, " +
+            "subject_5 VARCHAR, score_5 INTEGER, total_score INTEGER" +
+            ") ON COMMIT DROP";
+
+    private static final String NEXT_SCORE_ID = "nextval(pg_get_serial_sequence('subject_scores', 'id'))::INTEGER";
+
+    // Five subject score ids per staged user. The CTE is evaluated once, so the ids written to
+    // subject_scores are the ones the users reference.
+    private static final String STAGED = "WITH staged AS (" +
+            "SELECT i.*, ARRAY[" + String.join(", ", Collections.nCopies(5, NEXT_SCORE_ID)) + "] AS score_ids " +
+            "FROM import_users i" +
+            "), scores AS (" +
+            "INSERT INTO subject_scores (id, subject, score) " +
+            "SELECT s.score_ids[p.i], " +
+            "(ARRAY[s.subject_1, s.subject_2, s.subject_3, s.subject_4, s.subject_5])[p.i], " +
+            "(ARRAY[s.score_1, s.score_2, s.score_3, s.score_4, s.score_5])[p.i] " +
+            "FROM staged s CROSS JOIN generate_series(1, 5) AS p (i)" +
+            ")";
+
+    private static final String INSERT_USERS = "INSERT INTO users " +
+            "(first_name, last_name, email, password, subject_score_ids, total_score) " +
+            "SELECT first_name, last_name, email, password, score_ids, total_score FROM staged ORDER BY ordinal";
+
+    private static final String ARRAYS_QUERY = STAGED + " " + INSERT_USERS;
+
+    // The normalized schema also links every subject score to its user in the stored order
+    private static final String NORMALIZED_QUERY = STAGED + ", inserted AS (" + INSERT_USERS +
+            " RETURNING id, subject_score_ids) " +
+            "INSERT INTO user_subject_scores (user_id, subject_score_id, position) " +
+            "SELECT u.id, ids.id, ids.position FROM inserted u " +
+            "CROSS JOIN LATERAL unnest(u.subject_score_ids) WITH ORDINALITY AS ids (id, position)";
+
+    private final IDataBase db;
+    // Normalized schema also needs the user_subject_scores links of every user
+    private final boolean normalized;
+
+    public UserImportRepository(IDataBase db) {
+        this(db, false);
+    }
+
+    @Override
+    public void copyUsers(List<User> users) throws SQLException {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+            if (con == null)
+                throw new SQLException("No database connection", "08001");
+            // Subject scores and users of the chunk are committed together, the staging table is dropped then
+            con.setAutoCommit(false);
+
+            try (Statement stmt = con.createStatement()) {
+                stmt.execute(STAGING_TABLE);
+            }
+
+            CopyManager copyManager = con.unwrap(PGConnection.class).getCopyAPI();
+            CopyWriter rows = new CopyWriter(copyManager.copyIn("COPY import_users FROM STDIN"));
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                rows.value(i).value(user.getFirstName()).value(user.getLastName())
+                        .value(user.getEmail()).value(user.getPassword());
+                for (SubjectScore subjectScore : user.getSubjectScores()) {
+                    rows.value(subjectScore.getSubject()).value(subjectScore.getScore());
+                }
+                rows.value(EligibilityIndex.totalScore(user)).endRow();
+            }
+            rows.finish();
+
+            try (Statement stmt = con.createStatement()) {
+                stmt.executeUpdate(normalized ? NORMALIZED_QUERY : ARRAYS_QUERY);
+            }
+
+            con.commit();
+        } catch (SQLException e) {
+            if (con != null) {
+                try {
+                    con.rollback();
+                } catch (SQLException ex) {
+                    System.out.println(ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package repositories;
+
+import data.interfaces.IDataBase;
+import exceptions.InvalidNumberOfSubjectsException;
+import matching.EligibilityIndex;
+import models.SubjectScore;
+import models.User;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Inserts a user with its subject scores for both schema modes. The subject_score_ids array is always
+// written, the user_subject_scores links only when asked for: the array mode never reads them and
+// java Main migrate-normalized links its users when switching to the normalized schema.
+final class UserInserts {
+    private UserInserts() {
+    }
+
+    static User create(IDataBase db, User user, boolean links) {
+        Connection con = null;
+
+        try {
+            // Check if the number of subject scores is valid
+            if (user.getSubjectScores().size() != 5) {
+                throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
+            }
+
+            con = db.getConnection();
+            // Insert subject scores, user and links in one transaction on the same connection
+            con.setAutoCommit(false);
+
+            // Insert all subject scores as one batch and read their generated ids
+            String scoreQuery = "INSERT INTO subject_scores (subject,score) VALUES(?,?)";
+            List<SubjectScore> subjectScores = new ArrayList<>(5);
+
+            try (PreparedStatement stmt = con.prepareStatement(scoreQuery, new String[]{"id"})) {
+                for (SubjectScore subjectScore : user.getSubjectScores()) {
+                    stmt.setString(1, subjectScore.getSubject());
+                    stmt.setInt(2, subjectScore.getScore());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                // Generated keys come back in the order of the batch
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (SubjectScore subjectScore : user.getSubjectScores()) {
+                        if (!keys.next())
+                            break;
+
+                        subjectScores.add(new SubjectScore(
+                                keys.getInt(1),
+                                subjectScore.getSubject(),
+                                subjectScore.getScore()
+                        ));
+                    }
+                }
+            }
+
+            // Check if every subject score was inserted
+            if (subjectScores.size() != 5) {
+                throw new SQLException("Subject scores of the user were not all inserted");
+            }
+
+            // Integer array to store subject score ids
+            Integer[] idArr = new Integer[5];
+            for (int i = 0; i < subjectScores.size(); i++) {
+                idArr[i] = subjectScores.get(i).getId();
+            }
+
+            // Query to insert new user into the table and return its id
+            String userQuery = "INSERT INTO users (first_name,last_name," +
+                    "email,password,subject_score_ids,total_score) " +
+                    "VALUES(?,?,?,?,?,?) RETURNING id";
+            int userId;
+
+            try (PreparedStatement stmt = con.prepareStatement(userQuery)) {
+                // Set fields
+                stmt.setString(1, user.getFirstName());
+                stmt.setString(2, user.getLastName());
+                stmt.setString(3, user.getEmail());
+                stmt.setString(4, user.getPassword());
+                stmt.setArray(5, con.createArrayOf("integer", idArr));
+                // Stored total backs the index used to page users by score
+                stmt.setInt(6, EligibilityIndex.totalScore(user));
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    userId = rs.getInt("id");
+                }
+            }
+
+            if (links) {
+                // Link subject scores to the user in their original order
+                String linkQuery = "INSERT INTO user_subject_scores (user_id,subject_score_id,position) " +
+                        "VALUES(?,?,?)";
+
+                try (PreparedStatement stmt = con.prepareStatement(linkQuery)) {
+                    for (int i = 0; i < subjectScores.size(); i++) {
+                        stmt.setInt(1, userId);
+                        stmt.setInt(2, subjectScores.get(i).getId());
+                        stmt.setInt(3, i + 1);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+            }
+
+            con.commit();
+
+            // Return created user without reading it again
+            return new User(
+                    userId,
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getEmail(),
+                    user.getPassword(),
+                    subjectScores
+            );
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+            rollback(con);
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static void rollback(Connection con) {
+        if (con == null)
+            return;
+
+        try {
+            con.rollback();
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
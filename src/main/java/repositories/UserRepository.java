@@ -3,6 +3,8 @@ package repositories;
 import data.interfaces.IDataBase;
 import exceptions.InvalidNumberOfSubjectsException;
 import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
 import models.SubjectScore;
 import models.User;
 import repositories.interfaces.ISubjectScoreRepository;
@@ -10,10 +12,18 @@ import repositories.interfaces.IUserRepository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class UserRepository implements IUserRepository {
+    // Users can be paged by last name or by the stored total of their subject scores
+    private static final KeysetQuery PAGE_QUERY = new KeysetQuery(
+            "SELECT id,first_name,last_name,email,password,subject_score_ids,total_score FROM users",
+            "last_name", "total_score");
+
     private final IDataBase db;
     private final ISubjectScoreRepository subjectScoreRepo;
 
@@ -22,38 +32,40 @@ public class UserRepository implements IUserRepository {
         Connection con = null;
         List<User> users = new ArrayList<>();
 
+        // Users read from the table and the ids of their subject scores
+        List<User> pending = new ArrayList<>();
+        List<Integer[]> scoreIds = new ArrayList<>();
+
         try {
             con = db.getConnection();
 
             // Query to get all users
             String query = "SELECT id,first_name,last_name,email,password," +
                     "subject_score_ids FROM users";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // Iterate through result set, create User instance and add it to the list
-            while (rs.next()) {
-                // Convert SQL array to integer array
-                Array sqlArr = rs.getArray("subject_score_ids");
-                Integer[] idArr = (Integer[]) sqlArr.getArray();
-
-                // Get all subject scores of user
-                List<SubjectScore> subjectScores = subjectScoreRepo.getAllByIds(idArr);
-                // Check if the number of subject scores is valid
-                if (subjectScores == null) {
-                    throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                // Iterate through result set and remember subject score ids of every user
+                while (rs.next()) {
+                    // Convert SQL array to integer array
+                    Array sqlArr = rs.getArray("subject_score_ids");
+                    scoreIds.add((Integer[]) sqlArr.getArray());
+
+                    pending.add(new User(
+                            rs.getInt("id"),
+                            rs.getString("first_name"),
+                            rs.getString("last_name"),
+                            rs.getString("email"),
+                            rs.getString("password"),
+                            null
+                    ));
                 }
-
-                users.add(new User(
-                        rs.getInt("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        subjectScores
-                ));
             }
+
+            // Release connection before loading subject scores
+            con.close();
+            con = null;
+
+            attachSubjectScores(pending, scoreIds, users);
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } catch (InvalidNumberOfSubjectsException e) {
@@ -72,42 +84,51 @@ public class UserRepository implements IUserRepository {
     }
 
     @Override
-    public User getById(int id) {
+    public boolean streamAll(int fetchSize, Consumer<User> action) {
         Connection con = null;
 
+        // Users of the current page and the ids of their subject scores
+        List<User> pending = new ArrayList<>(fetchSize);
+        List<Integer[]> scoreIds = new ArrayList<>(fetchSize);
+
         try {
             con = db.getConnection();
+            // Postgres only reads through a cursor inside a transaction
+            con.setAutoCommit(false);
 
-            // Query to get user by id
+            // Query to get all users
             String query = "SELECT id,first_name,last_name,email,password," +
-                    "subject_score_ids FROM users WHERE id=?";
-            PreparedStatement stmt = con.prepareStatement(query);
-            stmt.setInt(1, id);
-
-            ResultSet rs = stmt.executeQuery();
-
-            // If user in the table, return it
-            if (rs.next()) {
-                // Convert SQL array to integer array
-                Array sqlArr = rs.getArray("subject_score_ids");
-                Integer[] idArr = (Integer[]) sqlArr.getArray();
-
-                // Get all subject scores of user
-                List<SubjectScore> subjectScores = subjectScoreRepo.getAllByIds(idArr);
-                // Check if the number of subject scores is valid
-                if (subjectScores == null) {
-                    throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
-                }
+                    "subject_score_ids FROM users";
 
-                return new User(
-                        rs.getInt("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        subjectScores
-                );
+            try (Statement stmt = con.createStatement()) {
+                // Fetch fetchSize rows per round trip instead of the whole table
+                stmt.setFetchSize(fetchSize);
+
+                try (ResultSet rs = stmt.executeQuery(query)) {
+                    while (rs.next()) {
+                        // Convert SQL array to integer array
+                        Array sqlArr = rs.getArray("subject_score_ids");
+                        scoreIds.add((Integer[]) sqlArr.getArray());
+
+                        pending.add(new User(
+                                rs.getInt("id"),
+                                rs.getString("first_name"),
+                                rs.getString("last_name"),
+                                rs.getString("email"),
+                                rs.getString("password"),
+                                null
+                        ));
+
+                        // Load subject scores once per page of users
+                        if (pending.size() == fetchSize)
+                            emitUsers(con, pending, scoreIds, action);
+                    }
+                }
             }
+
+            emitUsers(con, pending, scoreIds, action);
+            con.commit();
+            return true;
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } catch (InvalidNumberOfSubjectsException e) {
@@ -122,45 +143,75 @@ public class UserRepository implements IUserRepository {
             }
         }
 
-        return null;
+        return false;
+    }
+
+    // Subject scores are read on the cursor's own connection, borrowing a second one per page
+    // could wait forever once every pooled connection holds an open cursor
+    private void emitUsers(
+            Connection con, List<User> pending, List<Integer[]> scoreIds, Consumer<User> action
+    ) throws SQLException, InvalidNumberOfSubjectsException {
+        if (pending.isEmpty())
+            return;
+
+        List<User> users = new ArrayList<>(pending.size());
+        assignSubjectScores(pending, scoreIds,
+                SubjectScoreRepository.readMapByIds(con, allScoreIds(scoreIds)), users);
+
+        for (User user : users) {
+            action.accept(user);
+        }
+
+        pending.clear();
+        scoreIds.clear();
     }
 
     @Override
-    public User getLastCreated() {
+    public Page<User> getPage(PageRequest request) {
         Connection con = null;
+        List<User> users = new ArrayList<>(request.getLimit());
+        String lastKey = null;
+        int lastId = 0;
+        boolean hasMore = false;
+
+        // Users of the page and the ids of their subject scores
+        List<User> pending = new ArrayList<>(request.getLimit());
+        List<Integer[]> scoreIds = new ArrayList<>(request.getLimit());
 
         try {
             con = db.getConnection();
 
-            // Query to get last created user
-            String query = "SELECT id,first_name,last_name,email,password," +
-                    "subject_score_ids FROM users ORDER BY id DESC LIMIT 1";
-            Statement stmt = con.createStatement();
-
-            ResultSet rs = stmt.executeQuery(query);
-
-            // If table is not empty, return user
-            if (rs.next()) {
-                // Convert SQL array to integer array
-                Array sqlArr = rs.getArray("subject_score_ids");
-                Integer[] idArr = (Integer[]) sqlArr.getArray();
-
-                // Get all subject scores of user
-                List<SubjectScore> subjectScores = subjectScoreRepo.getAllByIds(idArr);
-                // Check if the number of subject scores is valid
-                if (subjectScores == null) {
-                    throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
+            try (PreparedStatement stmt = PAGE_QUERY.prepare(con, request);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // The extra row only tells that another page exists
+                    if (pending.size() == request.getLimit()) {
+                        hasMore = true;
+                        break;
+                    }
+
+                    // Convert SQL array to integer array
+                    Array sqlArr = rs.getArray("subject_score_ids");
+                    scoreIds.add((Integer[]) sqlArr.getArray());
+
+                    pending.add(new User(
+                            rs.getInt("id"),
+                            rs.getString("first_name"),
+                            rs.getString("last_name"),
+                            rs.getString("email"),
+                            rs.getString("password"),
+                            null
+                    ));
+                    lastKey = PAGE_QUERY.keyOf(rs, request);
+                    lastId = rs.getInt("id");
                 }
-
-                return new User(
-                        rs.getInt("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        subjectScores
-                );
             }
+
+            // Release connection before loading subject scores
+            con.close();
+            con = null;
+
+            attachSubjectScores(pending, scoreIds, users);
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } catch (InvalidNumberOfSubjectsException e) {
@@ -175,60 +226,159 @@ public class UserRepository implements IUserRepository {
             }
         }
 
-        // Return null if table is empty or if exception is thrown
-        return null;
+        return new Page<>(users, lastKey, lastId, hasMore);
+    }
+
+    // Load subject scores of all pending users in a single query and add complete users to target
+    private void attachSubjectScores(
+            List<User> pending, List<Integer[]> scoreIds, List<User> target
+    ) throws SQLException, InvalidNumberOfSubjectsException {
+        if (pending.isEmpty())
+            return;
+
+        Map<Integer, SubjectScore> subjectScoresById = subjectScoreRepo.getMapByIds(allScoreIds(scoreIds));
+        // Users without their scores would be rejected for having the wrong number of subjects
+        if (subjectScoresById == null)
+            throw new SQLException("Subject scores of the users could not be loaded");
+
+        assignSubjectScores(pending, scoreIds, subjectScoresById, target);
+    }
+
+    // Collect subject score ids of all users into one array
+    private static Integer[] allScoreIds(List<Integer[]> scoreIds) {
+        List<Integer> allIds = new ArrayList<>(scoreIds.size() * 5);
+        for (Integer[] idArr : scoreIds) {
+            Collections.addAll(allIds, idArr);
+        }
+        return allIds.toArray(new Integer[0]);
+    }
+
+    // Add pending users to target with their subject scores taken from subjectScoresById
+    private static void assignSubjectScores(
+            List<User> pending, List<Integer[]> scoreIds, Map<Integer, SubjectScore> subjectScoresById,
+            List<User> target
+    ) throws InvalidNumberOfSubjectsException {
+        for (int i = 0; i < pending.size(); i++) {
+            // Keep subject scores in the order they are stored for the user
+            List<SubjectScore> subjectScores = new ArrayList<>(5);
+            for (Integer id : scoreIds.get(i)) {
+                SubjectScore subjectScore = subjectScoresById.get(id);
+                if (subjectScore != null)
+                    subjectScores.add(subjectScore);
+            }
+
+            // Check if the number of subject scores is valid
+            if (subjectScores.size() != 5) {
+                throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
+            }
+
+            User user = pending.get(i);
+            user.setSubjectScores(subjectScores);
+            target.add(user);
+        }
     }
 
     @Override
-    public boolean create(User user) {
+    public User getById(int id) {
         Connection con = null;
+        List<User> users = new ArrayList<>(1);
+
+        // User read from the table and the ids of its subject scores
+        List<User> pending = new ArrayList<>(1);
+        List<Integer[]> scoreIds = new ArrayList<>(1);
 
         try {
             con = db.getConnection();
 
-            // Query to insert new user into the table
-            String query = "INSERT INTO users (first_name,last_name," +
-                    "email,password,subject_score_ids) " +
-                    "VALUES(?,?,?,?,?)";
-            PreparedStatement stmt = con.prepareStatement(query);
-
-            // List to store all subject scores
-            List<SubjectScore> subjectScores = new ArrayList<>();
-            // Iterate through subject scores of user
-            for (SubjectScore subjectScore : user.getSubjectScores()) {
-                // Insert new subject score to the table
-                boolean created = subjectScoreRepo.create(subjectScore);
-
-                // If insertion is successful, add it to the list
-                if (created) {
-                    subjectScores.add(subjectScoreRepo.getLastCreated());
+            // Query to get user by id
+            String query = "SELECT id,first_name,last_name,email,password," +
+                    "subject_score_ids FROM users WHERE id=?";
+            try (PreparedStatement stmt = con.prepareStatement(query)) {
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // If user in the table, remember it
+                    if (rs.next()) {
+                        // Convert SQL array to integer array
+                        Array sqlArr = rs.getArray("subject_score_ids");
+                        scoreIds.add((Integer[]) sqlArr.getArray());
+
+                        pending.add(new User(
+                                rs.getInt("id"),
+                                rs.getString("first_name"),
+                                rs.getString("last_name"),
+                                rs.getString("email"),
+                                rs.getString("password"),
+                                null
+                        ));
+                    }
                 }
             }
 
-            // Check if the number of subject scores is valid
-            if (subjectScores.size() != 5) {
-                throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
-            }
+            // Release connection before loading subject scores, holding it during
+            // a second borrow can exhaust the pool when many lookups run at once
+            con.close();
+            con = null;
 
-            // Integer array to store subject score ids
-            Integer[] idArr = new Integer[5];
-            // Add ids to the array
-            for (int i = 0; i < user.getSubjectScores().size(); i++) {
-                idArr[i] = subjectScores.get(i).getId();
+            attachSubjectScores(pending, scoreIds, users);
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        } catch (InvalidNumberOfSubjectsException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
             }
-            Array sqlArr = con.createArrayOf("integer", idArr);
+        }
+
+        // Return null if user is not found or if exception is thrown
+        return users.isEmpty() ? null : users.get(0);
+    }
 
-            // Set fields
-            stmt.setString(1, user.getFirstName());
-            stmt.setString(2, user.getLastName());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getPassword());
-            stmt.setArray(5, sqlArr);
+    @Override
+    public User getLastCreated() {
+        Connection con = null;
+        List<User> users = new ArrayList<>(1);
 
-            stmt.execute();
+        // User read from the table and the ids of its subject scores
+        List<User> pending = new ArrayList<>(1);
+        List<Integer[]> scoreIds = new ArrayList<>(1);
 
-            // Return true if insertion is successful
-            return true;
+        try {
+            con = db.getConnection();
+
+            // Query to get last created user
+            String query = "SELECT id,first_name,last_name,email,password," +
+                    "subject_score_ids FROM users ORDER BY id DESC LIMIT 1";
+            try (PreparedStatement stmt = con.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
+                // If table is not empty, remember the user
+                if (rs.next()) {
+                    // Convert SQL array to integer array
+                    Array sqlArr = rs.getArray("subject_score_ids");
+                    scoreIds.add((Integer[]) sqlArr.getArray());
+
+                    pending.add(new User(
+                            rs.getInt("id"),
+                            rs.getString("first_name"),
+                            rs.getString("last_name"),
+                            rs.getString("email"),
+                            rs.getString("password"),
+                            null
+                    ));
+                }
+            }
+
+            // Release connection before loading subject scores, holding it during
+            // a second borrow can exhaust the pool when many lookups run at once
+            con.close();
+            con = null;
+
+            attachSubjectScores(pending, scoreIds, users);
         } catch (SQLException e) {
             System.out.println(e.getMessage());
         } catch (InvalidNumberOfSubjectsException e) {
@@ -243,7 +393,13 @@ public class UserRepository implements IUserRepository {
             }
         }
 
-        return false;
+        // Return null if user is not found or if exception is thrown
+        return users.isEmpty() ? null : users.get(0);
     }
 
+    @Override
+    public User create(User user) {
+        // Only the subject_score_ids array, the array schema reads no links
+        return UserInserts.create(db, user, false);
+    }
 }
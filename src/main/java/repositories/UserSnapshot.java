@@ -0,0 +1,103 @@
+package repositories;
+
+import data.interfaces.IDataBase;
+import models.User;
+import repositories.interfaces.IUserRepository;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// A structure built from every user, such as the leaderboard or the score columns. Streamed from the
+// users table on first use, then kept current by userCreated() instead of being rebuilt.
+// add must be safe to call from several threads, users created during a rebuild arrive concurrently.
+public final class UserSnapshot<S> {
+    private final IUserRepository userRepo;
+    // Named in the message printed when a rebuild fails
+    private final String name;
+    private final Supplier<S> empty;
+    private final BiConsumer<S, User> add;
+    // Runs on a complete snapshot before it is installed
+    private final Consumer<S> finish;
+
+    private volatile S current;
+    // Snapshot being built by refresh(), users created meanwhile are added to it as well
+    private volatile S building;
+    // A lock instead of synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public UserSnapshot(
+            IUserRepository userRepo, String name, Supplier<S> empty, BiConsumer<S, User> add, Consumer<S> finish
+    ) {
+        this.userRepo = userRepo;
+        this.name = name;
+        this.empty = empty;
+        this.add = add;
+        this.finish = finish;
+    }
+
+    public UserSnapshot(IUserRepository userRepo, String name, Supplier<S> empty, BiConsumer<S, User> add) {
+        this(userRepo, name, empty, add, snapshot -> {
+        });
+    }
+
+    // Built on first use. If that build fails the call gets an empty snapshot and the next one tries again.
+    public S get() {
+        if (current == null) {
+            buildLock.lock();
+            try {
+                if (current == null)
+                    refresh();
+            } finally {
+                buildLock.unlock();
+            }
+        }
+
+        S snapshot = current;
+        return snapshot != null ? snapshot : empty.get();
+    }
+
+    // Null before the first build, never triggers one
+    public S getIfBuilt() {
+        return current;
+    }
+
+    public void userCreated(User user) {
+        // A build that has not started yet reads the user from the table. Reading building first
+        // means a build that finishes in between still gets the user through current.
+        S next = building;
+        if (next != null)
+            add.accept(next, user);
+
+        // Before the first build there is nothing to update
+        S installed = current;
+        if (installed != null && installed != next)
+            add.accept(installed, user);
+    }
+
+    // Rebuild from the table, picks up users that were not created through UserService such as imports.
+    // False when the users could not be read, the previous snapshot is then kept.
+    public boolean refresh() {
+        buildLock.lock();
+        try {
+            S next = empty.get();
+            building = next;
+
+            // A snapshot missing users after a failed read would answer as if they did not exist
+            if (!userRepo.streamAll(IDataBase.FETCH_SIZE, user -> add.accept(next, user))) {
+                building = null;
+                System.out.println(name + " was not rebuilt, the users could not be read");
+                return false;
+            }
+
+            finish.accept(next);
+            // Installed before building is cleared, so userCreated() never misses both
+            current = next;
+            building = null;
+            return true;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package repositories;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class WriteBehindConfig {
+    // A batch is written as soon as it has this many rows
+    private int batchSize = 500;
+    // or when its oldest row has waited this long
+    private long maxDelayMs = 5;
+    // Rows waiting to be written, callers wait for room once it is full
+    private int queueSize = 10_000;
+    // How long a caller waits for room in a full queue before its insert fails
+    private long enqueueTimeoutMs = 1_000;
+    // How long create() waits for the batch holding its row before it gives up
+    private long writeTimeoutMs = 10_000;
+
+    // Read overrides such as -Dgranted.writeBehind.batchSize=1000 from system properties
+    public static WriteBehindConfig fromSystemProperties() {
+        WriteBehindConfig config = new WriteBehindConfig();
+
+        config.setBatchSize(Integer.getInteger("granted.writeBehind.batchSize", config.getBatchSize()));
+        config.setMaxDelayMs(Long.getLong("granted.writeBehind.maxDelayMs", config.getMaxDelayMs()));
+        config.setQueueSize(Integer.getInteger("granted.writeBehind.queueSize", config.getQueueSize()));
+        config.setEnqueueTimeoutMs(Long.getLong(
+                "granted.writeBehind.enqueueTimeoutMs", config.getEnqueueTimeoutMs()));
+        config.setWriteTimeoutMs(Long.getLong(
+                "granted.writeBehind.writeTimeoutMs", config.getWriteTimeoutMs()));
+
+        return config;
+    }
+}
@@ -0,0 +1,290 @@
+package repositories;
+
+import data.interfaces.IDataBase;
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
+import models.SubjectScore;
+import repositories.interfaces.ISubjectScoreRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Subject score inserts are queued and written by one background thread as JDBC batches,
+// reads go straight to the wrapped repository. create() still returns the row with its id:
+// it waits for the batch holding it, so concurrent callers share one round trip.
+public class WriteBehindSubjectScoreRepository implements ISubjectScoreRepository, AutoCloseable {
+    // How often an idle writer checks whether it was closed
+    private static final long IDLE_POLL_MS = 100;
+
+    private final ISubjectScoreRepository subjectScoreRepo;
+    private final IDataBase db;
+    private final WriteBehindConfig config;
+    private final BlockingQueue<PendingInsert> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public WriteBehindSubjectScoreRepository(
+            ISubjectScoreRepository subjectScoreRepo, IDataBase db, WriteBehindConfig config
+    ) {
+        this.subjectScoreRepo = subjectScoreRepo;
+        this.db = db;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueSize());
+        this.writer = new Thread(this::writeLoop, "granted-subject-score-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public List<SubjectScore> getAll() {
+        return subjectScoreRepo.getAll();
+    }
+
+    @Override
+    public boolean streamAll(int fetchSize, Consumer<SubjectScore> action) {
+        return subjectScoreRepo.streamAll(fetchSize, action);
+    }
+
+    @Override
+    public Page<SubjectScore> getPage(PageRequest request) {
+        return subjectScoreRepo.getPage(request);
+    }
+
+    @Override
+    public SubjectScore getById(int id) {
+        return subjectScoreRepo.getById(id);
+    }
+
+    @Override
+    public LookupResult<SubjectScore> getAllByIds(Integer[] ids) {
+        return subjectScoreRepo.getAllByIds(ids);
+    }
+
+    @Override
+    public Map<Integer, SubjectScore> getMapByIds(Integer[] ids) {
+        return subjectScoreRepo.getMapByIds(ids);
+    }
+
+    @Override
+    public SubjectScore create(SubjectScore subjectScore) {
+        CompletableFuture<SubjectScore> result = createAsync(subjectScore);
+
+        try {
+            return result.get(config.getWriteTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println(e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            // The row may still be written later, nobody refers to it then
+            System.out.println("Subject score was not written within " + config.getWriteTimeoutMs() + " ms");
+            result.complete(null);
+        }
+
+        return null;
+    }
+
+    // Queue the insert and return at once, the future completes with the created row or null
+    public CompletableFuture<SubjectScore> createAsync(SubjectScore subjectScore) {
+        PendingInsert pending = new PendingInsert(subjectScore, new CompletableFuture<>());
+
+        if (!running) {
+            System.out.println("Subject score writer is closed");
+            pending.result.complete(null);
+            return pending.result;
+        }
+
+        try {
+            // A full queue slows callers down to the speed of the database, up to enqueueTimeoutMs
+            if (!queue.offer(pending, config.getEnqueueTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                System.out.println("Too many subject scores waiting to be written");
+                pending.result.complete(null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.complete(null);
+        }
+
+        // Closed while the insert was being queued, the writer may already be gone
+        if (!running && queue.remove(pending))
+            pending.result.complete(null);
+
+        return pending.result;
+    }
+
+    // Rows still in the queue are not visible yet
+    @Override
+    public SubjectScore getLastCreated() {
+        return subjectScoreRepo.getLastCreated();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public long getWrittenBatches() {
+        return batches.get();
+    }
+
+    public long getWrittenRows() {
+        return rows.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // Stop taking inserts and wait until the queued ones are written
+    @Override
+    public void close() {
+        running = false;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        PendingInsert pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.complete(null);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingInsert> batch = new ArrayList<>(config.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+
+                // Collect rows until the batch is full or its first row has waited maxDelayMs
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMs());
+                while (batch.size() < config.getBatchSize()) {
+                    queue.drainTo(batch, config.getBatchSize() - batch.size());
+                    if (batch.size() == config.getBatchSize())
+                        break;
+
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0)
+                        break;
+
+                    PendingInsert next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nobody interrupts the writer, write what was collected and go on
+            }
+
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    // A bad row or driver bug fails its batch, the writer keeps serving the queue
+                    System.out.println(e.getMessage());
+                    for (PendingInsert pending : batch) {
+                        pending.result.complete(null);
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+        Connection con = null;
+
+        try {
+            con = db.getConnection();
+            if (con == null)
+                return;
+
+            // The whole batch is one transaction, callers either all get ids or all get null
+            con.setAutoCommit(false);
+
+            String query = "INSERT INTO subject_scores (subject,score) VALUES(?,?)";
+            List<SubjectScore> created = new ArrayList<>(batch.size());
+
+            try (PreparedStatement stmt = con.prepareStatement(query, new String[]{"id"})) {
+                for (PendingInsert pending : batch) {
+                    stmt.setString(1, pending.subjectScore.getSubject());
+                    stmt.setInt(2, pending.subjectScore.getScore());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                // Generated keys come back in the order of the batch
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (PendingInsert pending : batch) {
+                        if (!keys.next())
+                            break;
+
+                        created.add(new SubjectScore(
+                                keys.getInt(1),
+                                pending.subjectScore.getSubject(),
+                                pending.subjectScore.getScore()
+                        ));
+                    }
+                }
+            }
+
+            con.commit();
+            batches.incrementAndGet();
+            rows.addAndGet(created.size());
+
+            for (int i = 0; i < created.size(); i++) {
+                batch.get(i).result.complete(created.get(i));
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+
+            if (con != null) {
+                try {
+                    con.rollback();
+                } catch (SQLException ex) {
+                    System.out.println(ex.getMessage());
+                }
+            }
+        } finally {
+            if (con != null) {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+
+            // Rows that were not written fail like a failed single insert does
+            for (PendingInsert pending : batch) {
+                pending.result.complete(null);
+            }
+        }
+    }
+
+    private record PendingInsert(SubjectScore subjectScore, CompletableFuture<SubjectScore> result) {
+    }
+}
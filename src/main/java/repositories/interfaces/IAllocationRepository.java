@@ -0,0 +1,7 @@
+package repositories.interfaces;
+
+import allocation.AllocationResult;
+
+public interface IAllocationRepository {
+    boolean saveAll(AllocationResult result);
+}
@@ -1,12 +1,19 @@
 package repositories.interfaces;
 
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
 import models.Program;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IProgramRepository {
     List<Program> getAll();
+    // False when reading stopped on a database error, the action has then seen only part of the rows
+    boolean streamAll(int fetchSize, Consumer<Program> action);
+    Page<Program> getPage(PageRequest request);
     Program getById(int id);
-    List<Program> getAllByIds(Integer[] ids);
-    boolean create(Program program);
+    LookupResult<Program> getAllByIds(Integer[] ids);
+    Program create(Program program);
     Program getLastCreated();
 }
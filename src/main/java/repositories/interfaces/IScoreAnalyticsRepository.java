@@ -0,0 +1,23 @@
+package repositories.interfaces;
+
+import models.ProgramReach;
+import models.ScoreHistogram;
+import models.SubjectSummary;
+
+import java.util.List;
+
+// Aggregates over all scores that come back as a few rows instead of the scores themselves.
+// Subjects are grouped regardless of case and surrounding whitespace, like electives in matching.
+public interface IScoreAnalyticsRepository {
+    // One summary per subject, ordered by subject name
+    List<SubjectSummary> getSubjectSummaries();
+
+    // Null when no score of the subject exists
+    ScoreHistogram getHistogram(String subject, int buckets);
+
+    // Every program ordered by id
+    List<ProgramReach> getProgramReach();
+
+    // Null when the program does not exist
+    ProgramReach getProgramReach(int programId);
+}
@@ -0,0 +1,37 @@
+package repositories.interfaces;
+
+import models.User;
+
+// Subject scores of every applicant held column by column in memory, for scans over all applicants
+// that would otherwise load millions of SubjectScore objects. Subject names match regardless of
+// case and surrounding whitespace, like electives do in matching.
+public interface IScoreStore {
+    // Number of applicants stored
+    int size();
+
+    boolean contains(int userId);
+
+    // Score of the user in the subject, null if the user is unknown or did not take the subject
+    Integer getScore(int userId, String subject);
+
+    // Sum of the user's five scores, null if the user is unknown
+    Integer getTotalScore(int userId);
+
+    // Scores of every applicant who took the subject, in no particular order
+    int[] getScores(String subject);
+
+    // Total scores of every applicant, in no particular order
+    int[] getTotalScores();
+
+    // Total scores of the applicants who chose both electives, in any order
+    int[] getTotalScores(String firstElective, String secondElective);
+
+    // Applicants who chose both electives, in any order, and whose total reaches minimumScore
+    int countEligible(String firstElective, String secondElective, int minimumScore);
+
+    // Store the scores of a user created after the store was loaded
+    void userCreated(User user);
+
+    // Reload from the users table, false when it could not be read and the loaded scores were kept
+    boolean refresh();
+}
@@ -1,13 +1,23 @@
 package repositories.interfaces;
 
+import models.LookupResult;
+import models.Page;
+import models.PageRequest;
 import models.SubjectScore;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ISubjectScoreRepository {
     List<SubjectScore> getAll();
+    // False when reading stopped on a database error, the action has then seen only part of the rows
+    boolean streamAll(int fetchSize, Consumer<SubjectScore> action);
+    Page<SubjectScore> getPage(PageRequest request);
     SubjectScore getById(int id);
-    List<SubjectScore> getAllByIds(Integer[] ids);
-    boolean create(SubjectScore subjectScore);
+    LookupResult<SubjectScore> getAllByIds(Integer[] ids);
+    // Null when the subject scores could not be read, ids without a row are left out of the map
+    Map<Integer, SubjectScore> getMapByIds(Integer[] ids);
+    SubjectScore create(SubjectScore subjectScore);
     SubjectScore getLastCreated();
 }
@@ -1,12 +1,19 @@
 package repositories.interfaces;
 
+import models.Page;
+import models.PageRequest;
 import models.University;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IUniversityRepository {
     List<University> getAll();
+    // False when reading stopped on a database error, the action has then seen only part of the rows
+    boolean streamAll(int fetchSize, Consumer<University> action);
+    Page<University> getPage(PageRequest request);
+    List<University> getAllByProgramId(int programId);
     University getById(int id);
-    boolean create(University university);
+    University create(University university);
     University getLastCreated();
 }
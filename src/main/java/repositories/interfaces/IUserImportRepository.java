@@ -0,0 +1,11 @@
+package repositories.interfaces;
+
+import models.User;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public interface IUserImportRepository {
+    // All users are committed or none, the exception tells why the database refused them
+    void copyUsers(List<User> users) throws SQLException;
+}
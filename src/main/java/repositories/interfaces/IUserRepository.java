@@ -1,12 +1,18 @@
 package repositories.interfaces;
 
+import models.Page;
+import models.PageRequest;
 import models.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IUserRepository {
     List<User> getAll();
+    // False when reading stopped on a database error, the action has then seen only part of the rows
+    boolean streamAll(int fetchSize, Consumer<User> action);
+    Page<User> getPage(PageRequest request);
     User getById(int id);
     User getLastCreated();
-    boolean create(User user);
+    User create(User user);
 }
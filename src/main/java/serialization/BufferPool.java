@@ -0,0 +1,37 @@
+package serialization;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Reusable ByteWriters, so a response does not start from an empty buffer every time.
+// Buffers that grew past maxRetainedBytes rendering a huge response are left to the GC.
+public final class BufferPool {
+    private static final BufferPool SHARED = new BufferPool(256, 16 * 1024, 1024 * 1024);
+
+    private final ArrayBlockingQueue<ByteWriter> free;
+    private final int initialBytes;
+    private final int maxRetainedBytes;
+
+    public BufferPool(int maxPooled, int initialBytes, int maxRetainedBytes) {
+        this.free = new ArrayBlockingQueue<>(maxPooled);
+        this.initialBytes = initialBytes;
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    // Pool used by the controllers and the HTTP API
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    public ByteWriter acquire() {
+        ByteWriter writer = free.poll();
+        return writer != null ? writer : new ByteWriter(initialBytes);
+    }
+
+    public void release(ByteWriter writer) {
+        writer.reset();
+
+        // A full pool simply drops the buffer
+        if (writer.capacity() <= maxRetainedBytes)
+            free.offer(writer);
+    }
+}
@@ -0,0 +1,203 @@
+package serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Growable UTF-8 byte buffer the serializers write into. Numbers and strings are encoded
+// straight into the buffer, so rendering a model allocates nothing once the buffer is big enough.
+// With a sink attached, a full buffer is written out instead of growing.
+public final class ByteWriter {
+    private static final byte[] MIN_INT = "-2147483648".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buf;
+    private int count;
+    private OutputStream sink;
+
+    public ByteWriter(int capacity) {
+        this.buf = new byte[capacity];
+    }
+
+    // Stream the output to sink, bytes reach it on flush() or whenever the buffer fills up
+    public void attach(OutputStream sink) {
+        this.sink = sink;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return buf.length;
+    }
+
+    public ByteWriter write(char c) {
+        ensure(1);
+        buf[count++] = (byte) c;
+        return this;
+    }
+
+    // Text that is known to be ASCII, such as field names and punctuation
+    public ByteWriter ascii(String text) {
+        int length = text.length();
+        ensure(length);
+
+        for (int i = 0; i < length; i++) {
+            buf[count++] = (byte) text.charAt(i);
+        }
+
+        return this;
+    }
+
+    public ByteWriter utf8(String text) {
+        return utf8(text, 0, text.length());
+    }
+
+    public ByteWriter utf8(String text, int start, int end) {
+        // A char takes at most 3 bytes, surrogate pairs take 4 for 2 chars
+        ensure((end - start) * 3);
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+
+            if (c < 0x80) {
+                buf[count++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[count++] = (byte) (0xc0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                buf[count++] = (byte) (0xf0 | (cp >> 18));
+                buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buf[count++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                // Lone surrogates are not valid UTF-8
+                char encodable = Character.isSurrogate(c) ? '?' : c;
+                buf[count++] = (byte) (0xe0 | (encodable >> 12));
+                buf[count++] = (byte) (0x80 | ((encodable >> 6) & 0x3f));
+                buf[count++] = (byte) (0x80 | (encodable & 0x3f));
+            }
+        }
+
+        return this;
+    }
+
+    // Quoted JSON string with escapes, null becomes the null literal
+    public ByteWriter jsonString(String text) {
+        if (text == null)
+            return ascii("null");
+
+        write('"');
+
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\')
+                continue;
+
+            // Copy the plain run before the escaped character in one go
+            utf8(text, start, i);
+            start = i + 1;
+
+            switch (c) {
+                case '"' -> ascii("\\\"");
+                case '\\' -> ascii("\\\\");
+                case '\n' -> ascii("\\n");
+                case '\r' -> ascii("\\r");
+                case '\t' -> ascii("\\t");
+                default -> {
+                    ensure(6);
+                    buf[count++] = '\\';
+                    buf[count++] = 'u';
+                    buf[count++] = '0';
+                    buf[count++] = '0';
+                    buf[count++] = HEX[c >> 4];
+                    buf[count++] = HEX[c & 0xf];
+                }
+            }
+        }
+
+        utf8(text, start, text.length());
+        return write('"');
+    }
+
+    public ByteWriter number(int value) {
+        if (value == Integer.MIN_VALUE) {
+            ensure(MIN_INT.length);
+            System.arraycopy(MIN_INT, 0, buf, count, MIN_INT.length);
+            count += MIN_INT.length;
+            return this;
+        }
+
+        ensure(11);
+        if (value < 0) {
+            buf[count++] = '-';
+            value = -value;
+        }
+
+        // Digits are written backwards into their final place
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+
+        int pos = count + digits;
+        do {
+            buf[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+
+        count += digits;
+        return this;
+    }
+
+    public ByteWriter bool(boolean value) {
+        return ascii(value ? "true" : "false");
+    }
+
+    // Write buffered bytes to the sink
+    public void flush() {
+        if (sink == null || count == 0)
+            return;
+
+        try {
+            sink.write(buf, 0, count);
+            count = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    // Forget the content and the sink, the buffer itself is kept for reuse
+    public void reset() {
+        count = 0;
+        sink = null;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int needed) {
+        if (count + needed <= buf.length)
+            return;
+
+        if (sink != null) {
+            flush();
+            if (needed <= buf.length)
+                return;
+        }
+
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + needed));
+    }
+}
@@ -0,0 +1,85 @@
+package serialization;
+
+import models.Page;
+import models.Program;
+import models.SubjectScore;
+import models.University;
+import models.User;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+// JSON form of the models, written field by field into a ByteWriter.
+// Field names follow the model getters.
+public final class JsonSerializer {
+    private JsonSerializer() {
+    }
+
+    public static void writeSubjectScore(ByteWriter out, SubjectScore subjectScore) {
+        out.ascii("{\"id\":").number(subjectScore.getId())
+                .ascii(",\"subject\":").jsonString(subjectScore.getSubject())
+                .ascii(",\"score\":").number(subjectScore.getScore())
+                .write('}');
+    }
+
+    // The password never leaves the server
+    public static void writeUser(ByteWriter out, User user) {
+        out.ascii("{\"id\":").number(user.getId())
+                .ascii(",\"firstName\":").jsonString(user.getFirstName())
+                .ascii(",\"lastName\":").jsonString(user.getLastName())
+                .ascii(",\"email\":").jsonString(user.getEmail())
+                .ascii(",\"subjectScores\":");
+        writeList(out, user.getSubjectScores(), JsonSerializer::writeSubjectScore);
+        out.write('}');
+    }
+
+    public static void writeProgram(ByteWriter out, Program program) {
+        out.ascii("{\"id\":").number(program.getId())
+                .ascii(",\"name\":").jsonString(program.getName())
+                .ascii(",\"minimumScore\":").number(program.getMinimumScore())
+                .ascii(",\"electives\":[");
+
+        String[] electives = program.getElectedSubjectNames();
+        for (int i = 0; i < electives.length; i++) {
+            if (i > 0)
+                out.write(',');
+            out.jsonString(electives[i]);
+        }
+
+        out.ascii("]}");
+    }
+
+    public static void writeUniversity(ByteWriter out, University university) {
+        out.ascii("{\"id\":").number(university.getId())
+                .ascii(",\"name\":").jsonString(university.getName())
+                .ascii(",\"programs\":");
+        writeList(out, university.getPrograms(), JsonSerializer::writeProgram);
+        out.write('}');
+    }
+
+    public static <T> void writeList(ByteWriter out, List<T> items, BiConsumer<ByteWriter, T> writer) {
+        out.write('[');
+
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0)
+                out.write(',');
+            writer.accept(out, items.get(i));
+        }
+
+        out.write(']');
+    }
+
+    public static <T> void writePage(ByteWriter out, Page<T> page, BiConsumer<ByteWriter, T> writer) {
+        out.ascii("{\"items\":");
+        writeList(out, page.getItems(), writer);
+        // Position of the last row, sent back as afterKey and afterId to get the next page
+        out.ascii(",\"hasMore\":").bool(page.isHasMore())
+                .ascii(",\"lastKey\":").jsonString(page.getLastKey())
+                .ascii(",\"lastId\":").number(page.getLastId())
+                .write('}');
+    }
+
+    public static void writeError(ByteWriter out, String message) {
+        out.ascii("{\"error\":").jsonString(message).write('}');
+    }
+}
@@ -0,0 +1,138 @@
+package serialization;
+
+import models.Page;
+import models.Program;
+import models.SubjectScore;
+import models.University;
+import models.User;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Console text of the models, the same as their toString() but written straight into a ByteWriter
+public final class TextSerializer {
+    private TextSerializer() {
+    }
+
+    public static void writeSubjectScore(ByteWriter out, SubjectScore subjectScore) {
+        out.ascii("Subject Score #").number(subjectScore.getId()).ascii(":\n")
+                .utf8(subjectScore.getSubject()).ascii(" - ").number(subjectScore.getScore());
+    }
+
+    public static void writeUser(ByteWriter out, User user) {
+        List<SubjectScore> subjectScores = user.getSubjectScores();
+
+        out.ascii("User #").number(user.getId()).ascii(":\n")
+                .utf8(user.getFirstName()).write(' ').utf8(user.getLastName()).write('\n')
+                .utf8(user.getEmail()).write('\n')
+                .utf8(user.getPassword()).write('\n')
+                .ascii("Elected subjects:\n")
+                .utf8(subjectScores.get(3).getSubject()).ascii(", ")
+                .utf8(subjectScores.get(4).getSubject());
+    }
+
+    public static void writeProgram(ByteWriter out, Program program) {
+        String[] electives = program.getElectedSubjectNames();
+
+        out.ascii("Program #").number(program.getId()).ascii(":\n")
+                .utf8(program.getName()).write('\n')
+                .ascii("Elected subjects: ").utf8(electives[0]).ascii(", ").utf8(electives[1]).write('\n')
+                .ascii("Minimum score: ").number(program.getMinimumScore());
+    }
+
+    public static void writeUniversity(ByteWriter out, University university) {
+        out.ascii("University #").number(university.getId()).ascii(":\n")
+                .utf8(university.getName()).write('\n')
+                .ascii("Available programs:\n\n");
+
+        for (Program program : university.getPrograms()) {
+            writeProgram(out, program);
+            out.ascii("\n\n");
+        }
+    }
+
+    // Text of one model as a string, rendered in a pooled buffer
+    public static <T> String render(T item, BiConsumer<ByteWriter, T> writer) {
+        BufferPool pool = BufferPool.shared();
+        ByteWriter out = pool.acquire();
+
+        try {
+            writer.accept(out, item);
+            return out.toString();
+        } finally {
+            pool.release(out);
+        }
+    }
+
+    // Models one after another, each followed by separator
+    public static <T> String renderAll(List<T> items, BiConsumer<ByteWriter, T> writer, String separator) {
+        BufferPool pool = BufferPool.shared();
+        ByteWriter out = pool.acquire();
+
+        try {
+            writeAll(out, items, writer, separator);
+            return out.toString();
+        } finally {
+            pool.release(out);
+        }
+    }
+
+    // Models of the page followed by where the next page starts
+    public static <T> String renderPage(Page<T> page, BiConsumer<ByteWriter, T> writer, String separator) {
+        BufferPool pool = BufferPool.shared();
+        ByteWriter out = pool.acquire();
+
+        try {
+            writeAll(out, page.getItems(), writer, separator);
+
+            // Position of the last row is all that is needed to ask for the next page
+            if (page.isHasMore())
+                out.ascii("Next page starts after key=").utf8(String.valueOf(page.getLastKey()))
+                        .ascii(", id=").number(page.getLastId());
+            else
+                out.ascii("This is the last page");
+
+            return out.toString();
+        } finally {
+            pool.release(out);
+        }
+    }
+
+    // Write every model a streaming source hands over to out and return how many there were,
+    // -1 when the source reports it stopped early and what was written is incomplete.
+    // Models are encoded into one pooled buffer that is written out whenever it fills up.
+    public static <T> long stream(
+            OutputStream out, Predicate<Consumer<T>> source, BiConsumer<ByteWriter, T> writer, String separator
+    ) {
+        BufferPool pool = BufferPool.shared();
+        ByteWriter buffer = pool.acquire();
+        long[] count = {0};
+        boolean complete;
+
+        try {
+            buffer.attach(out);
+            complete = source.test(item -> {
+                writer.accept(buffer, item);
+                buffer.ascii(separator);
+                count[0]++;
+            });
+            buffer.flush();
+        } finally {
+            pool.release(buffer);
+        }
+
+        return complete ? count[0] : -1;
+    }
+
+    private static <T> void writeAll(
+            ByteWriter out, List<T> items, BiConsumer<ByteWriter, T> writer, String separator
+    ) {
+        for (T item : items) {
+            writer.accept(out, item);
+            out.ascii(separator);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package services;
+
+import allocation.AllocationInput;
+import allocation.AllocationJob;
+import allocation.AllocationResult;
+import lombok.AllArgsConstructor;
+import repositories.interfaces.IAllocationRepository;
+import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.IUserRepository;
+import services.interfaces.IAllocationService;
+
+import java.util.concurrent.ForkJoinPool;
+
+@AllArgsConstructor
+public class AllocationService implements IAllocationService {
+    private final IUserRepository userRepo;
+    private final IProgramRepository programRepo;
+    private final IAllocationRepository allocationRepo;
+
+    @Override
+    public AllocationResult allocate(int quota) {
+        AllocationInput input = AllocationInput.from(userRepo.getAll(), programRepo.getAll(), quota);
+
+        // Elective groups are allocated in parallel on all available cores
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            AllocationResult result = new AllocationJob(pool).run(input);
+
+            // Return null if results could not be written
+            if (!allocationRepo.saveAll(result))
+                return null;
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
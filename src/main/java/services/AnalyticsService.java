@@ -0,0 +1,35 @@
+package services;
+
+import lombok.AllArgsConstructor;
+import models.ProgramReach;
+import models.ScoreHistogram;
+import models.SubjectSummary;
+import repositories.interfaces.IScoreAnalyticsRepository;
+import services.interfaces.IAnalyticsService;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class AnalyticsService implements IAnalyticsService {
+    private final IScoreAnalyticsRepository analyticsRepo;
+
+    @Override
+    public List<SubjectSummary> getSubjectSummaries() {
+        return analyticsRepo.getSubjectSummaries();
+    }
+
+    @Override
+    public ScoreHistogram getHistogram(String subject, int buckets) {
+        return analyticsRepo.getHistogram(subject, buckets);
+    }
+
+    @Override
+    public List<ProgramReach> getProgramReach() {
+        return analyticsRepo.getProgramReach();
+    }
+
+    @Override
+    public ProgramReach getProgramReach(int programId) {
+        return analyticsRepo.getProgramReach(programId);
+    }
+}
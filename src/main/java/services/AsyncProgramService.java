@@ -0,0 +1,44 @@
+package services;
+
+import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.Program;
+import services.interfaces.IAsyncProgramService;
+import services.interfaces.IProgramService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+@AllArgsConstructor
+public class AsyncProgramService implements IAsyncProgramService {
+    private final IProgramService programService;
+    private final Executor executor;
+
+    @Override
+    public CompletableFuture<List<Program>> getAll() {
+        return CompletableFuture.supplyAsync(programService::getAll, executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> streamAll(Consumer<Program> action) {
+        return CompletableFuture.supplyAsync(() -> programService.streamAll(action), executor);
+    }
+
+    @Override
+    public CompletableFuture<Page<Program>> getPage(PageRequest request) {
+        return CompletableFuture.supplyAsync(() -> programService.getPage(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<Program> getById(int id) {
+        return CompletableFuture.supplyAsync(() -> programService.getById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<Program> create(Program program) {
+        return CompletableFuture.supplyAsync(() -> programService.create(program), executor);
+    }
+}
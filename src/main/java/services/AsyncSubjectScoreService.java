@@ -0,0 +1,44 @@
+package services;
+
+import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.SubjectScore;
+import services.interfaces.IAsyncSubjectScoreService;
+import services.interfaces.ISubjectScoreService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+@AllArgsConstructor
+public class AsyncSubjectScoreService implements IAsyncSubjectScoreService {
+    private final ISubjectScoreService subjectScoreService;
+    private final Executor executor;
+
+    @Override
+    public CompletableFuture<List<SubjectScore>> getAll() {
+        return CompletableFuture.supplyAsync(subjectScoreService::getAll, executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> streamAll(Consumer<SubjectScore> action) {
+        return CompletableFuture.supplyAsync(() -> subjectScoreService.streamAll(action), executor);
+    }
+
+    @Override
+    public CompletableFuture<Page<SubjectScore>> getPage(PageRequest request) {
+        return CompletableFuture.supplyAsync(() -> subjectScoreService.getPage(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<SubjectScore> getById(int id) {
+        return CompletableFuture.supplyAsync(() -> subjectScoreService.getById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<SubjectScore> create(SubjectScore subjectScore) {
+        return CompletableFuture.supplyAsync(() -> subjectScoreService.create(subjectScore), executor);
+    }
+}
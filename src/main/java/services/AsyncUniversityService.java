@@ -0,0 +1,49 @@
+package services;
+
+import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.University;
+import services.interfaces.IAsyncUniversityService;
+import services.interfaces.IUniversityService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+@AllArgsConstructor
+public class AsyncUniversityService implements IAsyncUniversityService {
+    private final IUniversityService universityService;
+    private final Executor executor;
+
+    @Override
+    public CompletableFuture<List<University>> getAll() {
+        return CompletableFuture.supplyAsync(universityService::getAll, executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> streamAll(Consumer<University> action) {
+        return CompletableFuture.supplyAsync(() -> universityService.streamAll(action), executor);
+    }
+
+    @Override
+    public CompletableFuture<Page<University>> getPage(PageRequest request) {
+        return CompletableFuture.supplyAsync(() -> universityService.getPage(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<University>> getAllByProgramId(int programId) {
+        return CompletableFuture.supplyAsync(() -> universityService.getAllByProgramId(programId), executor);
+    }
+
+    @Override
+    public CompletableFuture<University> getById(int id) {
+        return CompletableFuture.supplyAsync(() -> universityService.getById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<University> create(University university) {
+        return CompletableFuture.supplyAsync(() -> universityService.create(university), executor);
+    }
+}
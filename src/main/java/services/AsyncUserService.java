@@ -0,0 +1,45 @@
+package services;
+
+import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
+import models.User;
+import services.interfaces.IAsyncUserService;
+import services.interfaces.IUserService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+@AllArgsConstructor
+public class AsyncUserService implements IAsyncUserService {
+    private final IUserService userService;
+    // Meant to be a virtual thread per task executor, blocking JDBC calls then cost no platform thread
+    private final Executor executor;
+
+    @Override
+    public CompletableFuture<List<User>> getAll() {
+        return CompletableFuture.supplyAsync(userService::getAll, executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> streamAll(Consumer<User> action) {
+        return CompletableFuture.supplyAsync(() -> userService.streamAll(action), executor);
+    }
+
+    @Override
+    public CompletableFuture<Page<User>> getPage(PageRequest request) {
+        return CompletableFuture.supplyAsync(() -> userService.getPage(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<User> getById(int id) {
+        return CompletableFuture.supplyAsync(() -> userService.getById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<User> create(User user) {
+        return CompletableFuture.supplyAsync(() -> userService.create(user), executor);
+    }
+}
@@ -0,0 +1,52 @@
+package services;
+
+import matching.Leaderboard;
+import models.Program;
+import models.RankedUser;
+import models.User;
+import repositories.UserSnapshot;
+import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.IUserRepository;
+import services.interfaces.ILeaderboardService;
+
+import java.util.List;
+
+// Live ranking of applicants per program. Built once from the users table,
+// then kept current by userCreated() instead of re-sorting all users.
+public class LeaderboardService implements ILeaderboardService {
+    private final IProgramRepository programRepo;
+    private final UserSnapshot<Leaderboard> leaderboard;
+
+    public LeaderboardService(IUserRepository userRepo, IProgramRepository programRepo) {
+        this.programRepo = programRepo;
+        this.leaderboard = new UserSnapshot<>(userRepo, "Leaderboard", Leaderboard::new, Leaderboard::add);
+    }
+
+    @Override
+    public List<RankedUser> getTop(int programId, int limit) {
+        Program program = programRepo.getById(programId);
+        if (program == null)
+            return null;
+
+        return leaderboard.get().top(program, limit);
+    }
+
+    @Override
+    public RankedUser getRank(int programId, int userId) {
+        Program program = programRepo.getById(programId);
+        if (program == null)
+            return null;
+
+        return leaderboard.get().rankOf(program, userId);
+    }
+
+    @Override
+    public void userCreated(User user) {
+        leaderboard.userCreated(user);
+    }
+
+    @Override
+    public boolean refresh() {
+        return leaderboard.refresh();
+    }
+}
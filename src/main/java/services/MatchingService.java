@@ -0,0 +1,67 @@
+package services;
+
+import lombok.RequiredArgsConstructor;
+import matching.EligibilityIndex;
+import models.Program;
+import models.User;
+import repositories.interfaces.IProgramRepository;
+import repositories.interfaces.IUserRepository;
+import services.interfaces.IMatchingService;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@RequiredArgsConstructor
+public class MatchingService implements IMatchingService {
+    private final IUserRepository userRepo;
+    private final IProgramRepository programRepo;
+    // Built on first use and replaced as a whole by refresh()
+    private volatile EligibilityIndex index;
+    // A lock instead of synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    @Override
+    public List<Program> getEligiblePrograms(int userId) {
+        EligibilityIndex current = index();
+        User user = current.getUser(userId);
+
+        // Users created after the last refresh are not indexed yet, but can still be matched
+        if (user == null)
+            user = userRepo.getById(userId);
+        if (user == null)
+            return null;
+
+        return current.eligiblePrograms(user);
+    }
+
+    @Override
+    public List<User> getEligibleUsers(int programId, int limit) {
+        EligibilityIndex current = index();
+        Program program = current.getProgram(programId);
+
+        if (program == null)
+            program = programRepo.getById(programId);
+        if (program == null)
+            return null;
+
+        return current.eligibleUsers(program, limit);
+    }
+
+    @Override
+    public void refresh() {
+        index = EligibilityIndex.build(userRepo.getAll(), programRepo.getAll());
+    }
+
+    private EligibilityIndex index() {
+        if (index == null) {
+            buildLock.lock();
+            try {
+                if (index == null)
+                    refresh();
+            } finally {
+                buildLock.unlock();
+            }
+        }
+        return index;
+    }
+}
@@ -1,11 +1,15 @@
 package services;
 
+import data.interfaces.IDataBase;
 import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
 import models.Program;
 import repositories.interfaces.IProgramRepository;
 import services.interfaces.IProgramService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class ProgramService implements IProgramService {
@@ -16,6 +20,16 @@ public class ProgramService implements IProgramService {
         return programRepo.getAll();
     }
 
+    @Override
+    public boolean streamAll(Consumer<Program> action) {
+        return programRepo.streamAll(IDataBase.FETCH_SIZE, action);
+    }
+
+    @Override
+    public Page<Program> getPage(PageRequest request) {
+        return programRepo.getPage(request);
+    }
+
     @Override
     public Program getById(int id) {
         return programRepo.getById(id);
@@ -23,12 +37,7 @@ public class ProgramService implements IProgramService {
 
     @Override
     public Program create(Program program) {
-        // Check if created
-        boolean created = programRepo.create(program);
-
-        if (created)
-            return programRepo.getLastCreated();
-        // Return null if failed to create
-        return null;
+        // Repository returns created program with its generated id, or null on failure
+        return programRepo.create(program);
     }
 }
@@ -1,11 +1,15 @@
 package services;
 
+import data.interfaces.IDataBase;
 import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
 import models.SubjectScore;
 import repositories.interfaces.ISubjectScoreRepository;
 import services.interfaces.ISubjectScoreService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class SubjectScoreService implements ISubjectScoreService {
@@ -16,6 +20,16 @@ public class SubjectScoreService implements ISubjectScoreService {
         return subjectScoreRepo.getAll();
     }
 
+    @Override
+    public boolean streamAll(Consumer<SubjectScore> action) {
+        return subjectScoreRepo.streamAll(IDataBase.FETCH_SIZE, action);
+    }
+
+    @Override
+    public Page<SubjectScore> getPage(PageRequest request) {
+        return subjectScoreRepo.getPage(request);
+    }
+
     @Override
     public SubjectScore getById(int id) {
         return subjectScoreRepo.getById(id);
@@ -23,11 +37,6 @@ public class SubjectScoreService implements ISubjectScoreService {
 
     @Override
     public SubjectScore create(SubjectScore subjectScore) {
-        boolean created = subjectScoreRepo.create(subjectScore);
-
-        if (created) {
-            return subjectScoreRepo.getLastCreated();
-        }
-        return null;
+        return subjectScoreRepo.create(subjectScore);
     }
 }
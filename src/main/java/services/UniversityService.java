@@ -1,11 +1,15 @@
 package services;
 
+import data.interfaces.IDataBase;
 import lombok.AllArgsConstructor;
+import models.Page;
+import models.PageRequest;
 import models.University;
 import repositories.interfaces.IUniversityRepository;
 import services.interfaces.IUniversityService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public class UniversityService implements IUniversityService {
@@ -15,6 +19,21 @@ public class UniversityService implements IUniversityService {
         return universityRepo.getAll();
     }
 
+    @Override
+    public boolean streamAll(Consumer<University> action) {
+        return universityRepo.streamAll(IDataBase.FETCH_SIZE, action);
+    }
+
+    @Override
+    public Page<University> getPage(PageRequest request) {
+        return universityRepo.getPage(request);
+    }
+
+    @Override
+    public List<University> getAllByProgramId(int programId) {
+        return universityRepo.getAllByProgramId(programId);
+    }
+
     @Override
     public University getById(int id) {
         return universityRepo.getById(id);
@@ -22,10 +41,6 @@ public class UniversityService implements IUniversityService {
 
     @Override
     public University create(University university) {
-        boolean created = universityRepo.create(university);
-
-        if (created)
-            return universityRepo.getLastCreated();
-        return null;
+        return universityRepo.create(university);
     }
 }
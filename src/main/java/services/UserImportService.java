@@ -0,0 +1,222 @@
+package services;
+
+import exceptions.InvalidNumberOfSubjectsException;
+import lombok.AllArgsConstructor;
+import models.ImportStats;
+import models.SubjectScore;
+import models.User;
+import repositories.interfaces.IUserImportRepository;
+import services.interfaces.IUserImportService;
+import utils.CsvParser;
+import utils.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+public class UserImportService implements IUserImportService {
+    // Number of users copied and committed together
+    private static final int CHUNK_SIZE = 10_000;
+    // first_name,last_name,email,password followed by 5 subject,score pairs
+    private static final int CSV_COLUMNS = 4 + 5 * 2;
+    // A refused piece of at most this many rows is retried a row at a time instead of being halved again
+    private static final int ROWS_ONE_BY_ONE = 32;
+
+    private final IUserImportRepository userImportRepo;
+
+    @Override
+    public ImportStats importUsers(String path, String rejectPath) {
+        ImportStats stats = new ImportStats();
+        // Files ending with .ndjson or .jsonl contain one JSON object per line, anything else is CSV
+        boolean json = path.endsWith(".ndjson") || path.endsWith(".jsonl");
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8);
+             BufferedWriter rejects = Files.newBufferedWriter(Path.of(rejectPath), StandardCharsets.UTF_8)) {
+            List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+            // Original lines of the chunk and their numbers, for the reject file
+            List<String> chunkLines = new ArrayList<>(CHUNK_SIZE);
+            List<Long> chunkLineNumbers = new ArrayList<>(CHUNK_SIZE);
+
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                // Skip blank lines and the CSV header
+                if (line.isBlank() || (!json && lineNumber == 1 && line.startsWith("first_name")))
+                    continue;
+
+                stats.getRowsRead().incrementAndGet();
+
+                try {
+                    chunk.add(json ? parseJson(line) : parseCsv(line));
+                    chunkLines.add(line);
+                    chunkLineNumbers.add(lineNumber);
+                } catch (InvalidNumberOfSubjectsException | IllegalArgumentException e) {
+                    reject(rejects, stats, lineNumber, e.getMessage(), line);
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    flushChunk(chunk, chunkLines, chunkLineNumbers, rejects, stats);
+                }
+            }
+
+            flushChunk(chunk, chunkLines, chunkLineNumbers, rejects, stats);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+
+        return stats;
+    }
+
+    private void flushChunk(
+            List<User> chunk, List<String> chunkLines, List<Long> chunkLineNumbers,
+            BufferedWriter rejects, ImportStats stats
+    ) {
+        if (chunk.isEmpty())
+            return;
+
+        copyRows(chunk, chunkLines, chunkLineNumbers, rejects, stats);
+
+        // Report progress after every chunk
+        System.out.println("Imported " + stats.getImported().get() + " users (" +
+                stats.getUsersPerSecond() + " users/s)");
+
+        chunk.clear();
+        chunkLines.clear();
+        chunkLineNumbers.clear();
+    }
+
+    // A refused copy is split in halves that are copied on their own, pieces of ROWS_ONE_BY_ONE rows or fewer
+    // are copied a row at a time, so only the rows the database refuses are rejected, each with its own
+    // line and error. Rows are validated while parsing, so this is the exception and not the rule.
+    private void copyRows(
+            List<User> users, List<String> lines, List<Long> lineNumbers,
+            BufferedWriter rejects, ImportStats stats
+    ) {
+        try {
+            userImportRepo.copyUsers(users);
+            stats.getImported().addAndGet(users.size());
+            stats.getChunks().incrementAndGet();
+        } catch (SQLException e) {
+            // Only data exceptions (SQLState class 22) and constraint violations (23) come from the rows,
+            // a lost connection or a broken schema would refuse every part of the chunk the same way
+            String state = e.getSQLState();
+            boolean rowError = state != null && (state.startsWith("22") || state.startsWith("23"));
+
+            if (users.size() == 1 || !rowError) {
+                for (int i = 0; i < users.size(); i++) {
+                    reject(rejects, stats, lineNumbers.get(i), "Database refused the row: " + e.getMessage(), lines.get(i));
+                }
+                return;
+            }
+
+            if (users.size() <= ROWS_ONE_BY_ONE) {
+                for (int i = 0; i < users.size(); i++) {
+                    copyRows(users.subList(i, i + 1), lines.subList(i, i + 1), lineNumbers.subList(i, i + 1),
+                            rejects, stats);
+                }
+                return;
+            }
+
+            int half = users.size() / 2;
+            copyRows(users.subList(0, half), lines.subList(0, half), lineNumbers.subList(0, half), rejects, stats);
+            copyRows(users.subList(half, users.size()), lines.subList(half, users.size()),
+                    lineNumbers.subList(half, users.size()), rejects, stats);
+        }
+    }
+
+    private void reject(BufferedWriter rejects, ImportStats stats, long lineNumber, String reason, String line) {
+        stats.getRejected().incrementAndGet();
+
+        try {
+            // Database errors span several lines, the reject file keeps one row per line
+            rejects.write("line " + lineNumber + ": " + reason.replace('\n', ' ') + "\t" + line);
+            rejects.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private User parseCsv(String line) {
+        List<String> fields = CsvParser.parseLine(line);
+
+        if (fields.size() != CSV_COLUMNS) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMNS + " columns (first_name, last_name, " +
+                    "email, password and 5 subject, score pairs), found " + fields.size());
+        }
+
+        List<SubjectScore> subjectScores = new ArrayList<>(5);
+        for (int i = 4; i < CSV_COLUMNS; i += 2) {
+            subjectScores.add(parseSubjectScore(fields.get(i), fields.get(i + 1)));
+        }
+
+        return newUser(fields.get(0), fields.get(1), fields.get(2), fields.get(3), subjectScores);
+    }
+
+    private User parseJson(String line) throws InvalidNumberOfSubjectsException {
+        // Subjects are stored as subject_1..subject_5 with matching score_1..score_5
+        Map<String, String> fields = JsonParser.parseFlatObject(line);
+
+        List<SubjectScore> subjectScores = new ArrayList<>(5);
+        for (int i = 1; fields.containsKey("subject_" + i); i++) {
+            subjectScores.add(parseSubjectScore(fields.get("subject_" + i), fields.get("score_" + i)));
+        }
+
+        if (subjectScores.size() != 5) {
+            throw new InvalidNumberOfSubjectsException("Number of subjects must be 5");
+        }
+
+        return newUser(
+                fields.get("first_name"), fields.get("last_name"),
+                fields.get("email"), fields.get("password"),
+                subjectScores
+        );
+    }
+
+    private SubjectScore parseSubjectScore(String subject, String score) {
+        if (subject == null || subject.isBlank())
+            throw new IllegalArgumentException("Subject name must not be empty");
+        if (score == null)
+            throw new IllegalArgumentException("Score of " + subject + " is missing");
+
+        checkText(subject);
+
+        try {
+            return new SubjectScore(subject.trim(), Integer.parseInt(score.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Score must be integer: " + score);
+        }
+    }
+
+    private User newUser(
+            String firstName, String lastName,
+            String email, String password,
+            List<SubjectScore> subjectScores
+    ) {
+        if (firstName == null || lastName == null || email == null || password == null)
+            throw new IllegalArgumentException("First name, last name, email and password are required");
+
+        checkText(firstName);
+        checkText(lastName);
+        checkText(email);
+        checkText(password);
+
+        return new User(firstName, lastName, email, password, subjectScores);
+    }
+
+    // Postgres refuses text with NUL characters, the row is rejected here instead of failing its chunk
+    private void checkText(String value) {
+        if (value.indexOf('\0') >= 0)
+            throw new IllegalArgumentException("Text must not contain NUL characters");
+    }
+}
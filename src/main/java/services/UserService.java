@@ -1,15 +1,27 @@
 package services;
 
-import lombok.AllArgsConstructor;
+import data.interfaces.IDataBase;
+import lombok.RequiredArgsConstructor;
+import models.Page;
+import models.PageRequest;
 import models.User;
 import repositories.interfaces.IUserRepository;
 import services.interfaces.IUserService;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class UserService implements IUserService {
     private final IUserRepository userRepo;
+    // Told about every user created through this service, such as the leaderboard
+    private final List<Consumer<User>> createListeners = new CopyOnWriteArrayList<>();
+
+    public void addCreateListener(Consumer<User> listener) {
+        createListeners.add(listener);
+    }
+
     @Override
     public List<User> getAll() {
         List<User> users = userRepo.getAll();
@@ -19,6 +31,16 @@ public class UserService implements IUserService {
         return users;
     }
 
+    @Override
+    public boolean streamAll(Consumer<User> action) {
+        return userRepo.streamAll(IDataBase.FETCH_SIZE, action);
+    }
+
+    @Override
+    public Page<User> getPage(PageRequest request) {
+        return userRepo.getPage(request);
+    }
+
     @Override
     public User getById(int id) {
         return userRepo.getById(id);
@@ -26,10 +48,15 @@ public class UserService implements IUserService {
 
     @Override
     public User create(User user) {
-        boolean created = userRepo.create(user);
+        // Repository returns created user with its generated ids, or null on failure
+        User createdUser = userRepo.create(user);
+
+        if (createdUser != null) {
+            for (Consumer<User> listener : createListeners) {
+                listener.accept(createdUser);
+            }
+        }
 
-        if (created)
-            return userRepo.getLastCreated();
-        return null;
+        return createdUser;
     }
 }
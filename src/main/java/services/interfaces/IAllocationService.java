@@ -0,0 +1,7 @@
+package services.interfaces;
+
+import allocation.AllocationResult;
+
+public interface IAllocationService {
+    AllocationResult allocate(int quota);
+}
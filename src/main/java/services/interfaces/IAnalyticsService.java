@@ -0,0 +1,16 @@
+package services.interfaces;
+
+import models.ProgramReach;
+import models.ScoreHistogram;
+import models.SubjectSummary;
+
+import java.util.List;
+
+public interface IAnalyticsService {
+    List<SubjectSummary> getSubjectSummaries();
+    // Null when no score of the subject exists
+    ScoreHistogram getHistogram(String subject, int buckets);
+    List<ProgramReach> getProgramReach();
+    // Null when the program does not exist
+    ProgramReach getProgramReach(int programId);
+}
@@ -0,0 +1,18 @@
+package services.interfaces;
+
+import models.Page;
+import models.PageRequest;
+import models.Program;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Non-blocking counterpart of IProgramService, every call completes on the service executor
+public interface IAsyncProgramService {
+    CompletableFuture<List<Program>> getAll();
+    CompletableFuture<Boolean> streamAll(Consumer<Program> action);
+    CompletableFuture<Page<Program>> getPage(PageRequest request);
+    CompletableFuture<Program> getById(int id);
+    CompletableFuture<Program> create(Program program);
+}
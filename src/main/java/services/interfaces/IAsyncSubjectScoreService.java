@@ -0,0 +1,18 @@
+package services.interfaces;
+
+import models.Page;
+import models.PageRequest;
+import models.SubjectScore;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Non-blocking counterpart of ISubjectScoreService, every call completes on the service executor
+public interface IAsyncSubjectScoreService {
+    CompletableFuture<List<SubjectScore>> getAll();
+    CompletableFuture<Boolean> streamAll(Consumer<SubjectScore> action);
+    CompletableFuture<Page<SubjectScore>> getPage(PageRequest request);
+    CompletableFuture<SubjectScore> getById(int id);
+    CompletableFuture<SubjectScore> create(SubjectScore subjectScore);
+}
@@ -0,0 +1,19 @@
+package services.interfaces;
+
+import models.Page;
+import models.PageRequest;
+import models.University;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Non-blocking counterpart of IUniversityService, every call completes on the service executor
+public interface IAsyncUniversityService {
+    CompletableFuture<List<University>> getAll();
+    CompletableFuture<Boolean> streamAll(Consumer<University> action);
+    CompletableFuture<Page<University>> getPage(PageRequest request);
+    CompletableFuture<List<University>> getAllByProgramId(int programId);
+    CompletableFuture<University> getById(int id);
+    CompletableFuture<University> create(University university);
+}
@@ -0,0 +1,18 @@
+package services.interfaces;
+
+import models.Page;
+import models.PageRequest;
+import models.User;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Non-blocking counterpart of IUserService, every call completes on the service executor
+public interface IAsyncUserService {
+    CompletableFuture<List<User>> getAll();
+    CompletableFuture<Boolean> streamAll(Consumer<User> action);
+    CompletableFuture<Page<User>> getPage(PageRequest request);
+    CompletableFuture<User> getById(int id);
+    CompletableFuture<User> create(User user);
+}
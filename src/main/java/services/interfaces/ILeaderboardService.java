@@ -0,0 +1,16 @@
+package services.interfaces;
+
+import models.RankedUser;
+import models.User;
+
+import java.util.List;
+
+public interface ILeaderboardService {
+    // Null when the program does not exist
+    List<RankedUser> getTop(int programId, int limit);
+    // Null when the program does not exist or the user is not eligible for it
+    RankedUser getRank(int programId, int userId);
+    void userCreated(User user);
+    // False when the users could not be read, the previous leaderboard is then kept
+    boolean refresh();
+}
@@ -0,0 +1,12 @@
+package services.interfaces;
+
+import models.Program;
+import models.User;
+
+import java.util.List;
+
+public interface IMatchingService {
+    List<Program> getEligiblePrograms(int userId);
+    List<User> getEligibleUsers(int programId, int limit);
+    void refresh();
+}
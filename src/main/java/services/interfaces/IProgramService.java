@@ -1,10 +1,16 @@
 package services.interfaces;
 
+import models.Page;
+import models.PageRequest;
 import models.Program;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IProgramService {
     List<Program> getAll();
+    // False when reading stopped on a database error, action may have seen part of the rows
+    boolean streamAll(Consumer<Program> action);
+    Page<Program> getPage(PageRequest request);
     Program getById(int id);
     Program create(Program program);
 }
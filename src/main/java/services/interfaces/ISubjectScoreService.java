@@ -1,11 +1,17 @@
 package services.interfaces;
 
+import models.Page;
+import models.PageRequest;
 import models.SubjectScore;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ISubjectScoreService {
     List<SubjectScore> getAll();
+    // False when reading stopped on a database error, action may have seen part of the rows
+    boolean streamAll(Consumer<SubjectScore> action);
+    Page<SubjectScore> getPage(PageRequest request);
     SubjectScore getById(int id);
     SubjectScore create(SubjectScore subjectScore);
 }
@@ -1,11 +1,18 @@
 package services.interfaces;
 
+import models.Page;
+import models.PageRequest;
 import models.University;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IUniversityService {
     List<University> getAll();
+    // False when reading stopped on a database error, action may have seen part of the rows
+    boolean streamAll(Consumer<University> action);
+    Page<University> getPage(PageRequest request);
+    List<University> getAllByProgramId(int programId);
     University getById(int id);
     University create(University university);
 }
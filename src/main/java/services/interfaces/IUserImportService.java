@@ -0,0 +1,7 @@
+package services.interfaces;
+
+import models.ImportStats;
+
+public interface IUserImportService {
+    ImportStats importUsers(String path, String rejectPath);
+}
@@ -1,11 +1,17 @@
 package services.interfaces;
 
+import models.Page;
+import models.PageRequest;
 import models.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IUserService {
     List<User> getAll();
+    // False when reading stopped on a database error, action may have seen part of the rows
+    boolean streamAll(Consumer<User> action);
+    Page<User> getPage(PageRequest request);
     User getById(int id);
     User create(User user);
 }
@@ -0,0 +1,44 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvParser {
+    private CsvParser() {
+    }
+
+    // Split one CSV line into fields, supporting quoted fields with "" escapes
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted)
+            throw new IllegalArgumentException("Unterminated quoted field");
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
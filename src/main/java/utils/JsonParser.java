@@ -0,0 +1,215 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class JsonParser {
+    private final String json;
+    private int pos;
+
+    private JsonParser(String json) {
+        this.json = json;
+    }
+
+    // Parse a flat JSON object such as {"name":"Physics","score":120} into field values.
+    // Strings, numbers, booleans and null are supported, nested objects and arrays are not.
+    public static Map<String, String> parseFlatObject(String json) {
+        JsonParser parser = new JsonParser(json);
+        Map<String, String> fields = new HashMap<>();
+
+        parser.skipWhitespace();
+        parser.expect('{');
+        parser.skipWhitespace();
+
+        if (parser.peek() == '}') {
+            parser.pos++;
+            parser.expectEnd();
+            return fields;
+        }
+
+        while (true) {
+            parser.skipWhitespace();
+            String key = parser.readString();
+            parser.skipWhitespace();
+            parser.expect(':');
+            parser.skipWhitespace();
+            fields.put(key, parser.readValue());
+            parser.skipWhitespace();
+
+            char c = parser.next();
+            if (c == '}')
+                break;
+            if (c != ',')
+                throw parser.error("Expected ',' or '}'");
+        }
+
+        parser.expectEnd();
+        return fields;
+    }
+
+    // Parse a JSON object that may contain nested objects and arrays, such as an HTTP request body.
+    // Objects become maps, arrays become lists and every other value is kept as in parseFlatObject.
+    public static Map<String, Object> parseObject(String json) {
+        JsonParser parser = new JsonParser(json);
+
+        parser.skipWhitespace();
+        Map<String, Object> fields = parser.readObject();
+        parser.expectEnd();
+
+        return fields;
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+
+        expect('{');
+        skipWhitespace();
+
+        if (peek() == '}') {
+            pos++;
+            return fields;
+        }
+
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            fields.put(key, readNested());
+            skipWhitespace();
+
+            char c = next();
+            if (c == '}')
+                return fields;
+            if (c != ',')
+                throw error("Expected ',' or '}'");
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> values = new ArrayList<>();
+
+        expect('[');
+        skipWhitespace();
+
+        if (peek() == ']') {
+            pos++;
+            return values;
+        }
+
+        while (true) {
+            skipWhitespace();
+            values.add(readNested());
+            skipWhitespace();
+
+            char c = next();
+            if (c == ']')
+                return values;
+            if (c != ',')
+                throw error("Expected ',' or ']'");
+        }
+    }
+
+    private Object readNested() {
+        char c = peek();
+
+        if (c == '{')
+            return readObject();
+        if (c == '[')
+            return readArray();
+
+        return readValue();
+    }
+
+    private String readValue() {
+        char c = peek();
+
+        if (c == '"')
+            return readString();
+        if (c == '{' || c == '[')
+            throw error("Nested values are not supported");
+
+        // Numbers and literals run until the next delimiter
+        int start = pos;
+        while (pos < json.length() && ",}] \t\r\n".indexOf(json.charAt(pos)) < 0) {
+            pos++;
+        }
+
+        String literal = json.substring(start, pos);
+        if (literal.isEmpty())
+            throw error("Expected value");
+        if (literal.equals("null"))
+            return null;
+
+        return literal;
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+
+        while (true) {
+            char c = next();
+
+            if (c == '"')
+                return value.toString();
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+
+            char escaped = next();
+            switch (escaped) {
+                case 'n' -> value.append('\n');
+                case 't' -> value.append('\t');
+                case 'r' -> value.append('\r');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > json.length())
+                        throw error("Invalid unicode escape");
+                    value.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> value.append(escaped);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if (pos >= json.length())
+            throw error("Unexpected end of input");
+        return json.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected)
+            throw error("Expected '" + expected + "'");
+    }
+
+    private void expectEnd() {
+        skipWhitespace();
+        if (pos != json.length())
+            throw error("Unexpected trailing characters");
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
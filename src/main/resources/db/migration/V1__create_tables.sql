@@ -0,0 +1,39 @@
+-- Base tables. IF NOT EXISTS lets databases created before migrations existed start at version 1.
+
+CREATE TABLE IF NOT EXISTS subject_scores (
+    id SERIAL PRIMARY KEY,
+    subject CHARACTER VARYING NOT NULL,
+    score INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    first_name CHARACTER VARYING NOT NULL,
+    last_name CHARACTER VARYING NOT NULL,
+    email CHARACTER VARYING NOT NULL,
+    password CHARACTER VARYING NOT NULL,
+    subject_score_ids INTEGER[] NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS programs (
+    id SERIAL PRIMARY KEY,
+    name CHARACTER VARYING NOT NULL,
+    electives CHARACTER VARYING[] NOT NULL,
+    minimum_score INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS universities (
+    id SERIAL PRIMARY KEY,
+    name CHARACTER VARYING NOT NULL,
+    program_ids INTEGER[] NOT NULL
+);
+
+-- Winners of the last grant allocation run, rank 1 is the best user of a program
+CREATE TABLE IF NOT EXISTS grant_allocations (
+    program_id INTEGER NOT NULL REFERENCES programs (id) ON DELETE CASCADE,
+    user_id INTEGER NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    rank INTEGER NOT NULL,
+    PRIMARY KEY (program_id, rank)
+);
+
+CREATE INDEX IF NOT EXISTS grant_allocations_user_id_idx ON grant_allocations (user_id);
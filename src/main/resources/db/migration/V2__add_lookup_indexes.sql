@@ -0,0 +1,10 @@
+-- Indexes behind lookups that filter on something other than the primary key
+
+CREATE INDEX IF NOT EXISTS users_email_idx ON users (email);
+
+CREATE INDEX IF NOT EXISTS subject_scores_subject_score_idx ON subject_scores (subject, score);
+
+-- GIN indexes serve containment (@>) and overlap (&&) queries on the arrays
+CREATE INDEX IF NOT EXISTS programs_electives_idx ON programs USING GIN (electives);
+
+CREATE INDEX IF NOT EXISTS universities_program_ids_idx ON universities USING GIN (program_ids);
@@ -0,0 +1,13 @@
+-- Keyset pages seek to (sort key, id) of the previous page, so every sort needs a (key, id) index
+
+CREATE INDEX IF NOT EXISTS subject_scores_subject_id_idx ON subject_scores (subject, id);
+
+CREATE INDEX IF NOT EXISTS subject_scores_score_id_idx ON subject_scores (score, id);
+
+CREATE INDEX IF NOT EXISTS users_last_name_id_idx ON users (last_name, id);
+
+CREATE INDEX IF NOT EXISTS programs_name_id_idx ON programs (name, id);
+
+CREATE INDEX IF NOT EXISTS programs_minimum_score_id_idx ON programs (minimum_score, id);
+
+CREATE INDEX IF NOT EXISTS universities_name_id_idx ON universities (name, id);
@@ -0,0 +1,14 @@
+-- Total of the five subject scores, kept on the user so paging by score can use an index.
+-- Subject scores never change after a user is created, so writers fill it in once.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS total_score INTEGER;
+
+UPDATE users u
+SET total_score = (
+    SELECT COALESCE(SUM(s.score), 0) FROM subject_scores s WHERE s.id = ANY(u.subject_score_ids)
+)
+WHERE u.total_score IS NULL;
+
+ALTER TABLE users ALTER COLUMN total_score SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS users_total_score_id_idx ON users (total_score, id);
@@ -0,0 +1,24 @@
+-- Join tables of the normalized schema mode, they replace users.subject_score_ids and
+-- universities.program_ids. The array columns are kept and still written, so both modes read the same data.
+
+CREATE TABLE IF NOT EXISTS user_subject_scores (
+    user_id INTEGER NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    subject_score_id INTEGER NOT NULL REFERENCES subject_scores (id),
+    position SMALLINT NOT NULL,
+    PRIMARY KEY (user_id, position)
+);
+
+-- Foreign keys are not indexed by Postgres on their own
+CREATE INDEX IF NOT EXISTS user_subject_scores_subject_score_id_idx
+    ON user_subject_scores (subject_score_id);
+
+CREATE TABLE IF NOT EXISTS university_programs (
+    university_id INTEGER NOT NULL REFERENCES universities (id) ON DELETE CASCADE,
+    program_id INTEGER NOT NULL REFERENCES programs (id),
+    position SMALLINT NOT NULL,
+    PRIMARY KEY (university_id, position)
+);
+
+-- Answers "which universities offer program X" without reading the universities table
+CREATE INDEX IF NOT EXISTS university_programs_program_id_idx
+    ON university_programs (program_id, university_id);
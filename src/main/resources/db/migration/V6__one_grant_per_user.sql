@@ -0,0 +1,7 @@
+-- The allocation hands a user at most one grant, so the user id of grant_allocations is unique as well.
+
+-- Earlier runs could award several grants to one user, they are dropped and the next run refills the table
+DELETE FROM grant_allocations;
+
+DROP INDEX IF EXISTS grant_allocations_user_id_idx;
+CREATE UNIQUE INDEX grant_allocations_user_id_idx ON grant_allocations (user_id);
@@ -0,0 +1,17 @@
+-- Fills the join tables of the normalized schema from the id arrays.
+-- Links that already exist are skipped, so it can run again after more rows were written in array mode.
+
+-- Ids that point to missing rows are skipped
+INSERT INTO user_subject_scores (user_id, subject_score_id, position)
+SELECT u.id, ids.id, ids.position
+FROM users u
+CROSS JOIN LATERAL unnest(u.subject_score_ids) WITH ORDINALITY AS ids (id, position)
+WHERE EXISTS (SELECT 1 FROM subject_scores s WHERE s.id = ids.id)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO university_programs (university_id, program_id, position)
+SELECT un.id, ids.id, ids.position
+FROM universities un
+CROSS JOIN LATERAL unnest(un.program_ids) WITH ORDINALITY AS ids (id, position)
+WHERE EXISTS (SELECT 1 FROM programs p WHERE p.id = ids.id)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,91 @@
+package matching;
+
+import models.Program;
+import models.RankedUser;
+import models.SubjectScore;
+import models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+    private static final Program PROGRAM = new Program(1, "Medicine", 300, new String[]{"Chemistry", "Biology"});
+
+    // Five subject scores adding up to total, the last two are the electives
+    private static User user(int id, int total, String first, String second) {
+        int rest = total - 4 * (total / 5);
+        return new User(id, "First", "Last", id + "@mail.kz", "password", List.of(
+                new SubjectScore("Math", total / 5),
+                new SubjectScore("History", total / 5),
+                new SubjectScore("Reading", total / 5),
+                new SubjectScore(first, total / 5),
+                new SubjectScore(second, rest)
+        ));
+    }
+
+    @Test
+    void usersAtTheMinimumScoreAreEligible() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.add(user(1, 299, "Chemistry", "Biology"));
+        leaderboard.add(user(2, 300, "Chemistry", "Biology"));
+        leaderboard.add(user(3, 301, "Chemistry", "Biology"));
+        leaderboard.add(user(4, 300, "Chemistry", "Biology"));
+
+        List<RankedUser> top = leaderboard.top(PROGRAM, 10);
+
+        assertEquals(3, top.size());
+        assertEquals(3, top.get(0).getUser().getId());
+        assertEquals(301, top.get(0).getTotalScore());
+        // Equal totals are ordered by id
+        assertEquals(2, top.get(1).getUser().getId());
+        assertEquals(4, top.get(2).getUser().getId());
+        for (RankedUser ranked : top) {
+            assertEquals(3, ranked.getEligibleCount());
+        }
+
+        RankedUser last = leaderboard.rankOf(PROGRAM, 4);
+        assertNotNull(last);
+        assertEquals(3, last.getRank());
+        assertEquals(3, last.getEligibleCount());
+        assertNull(leaderboard.rankOf(PROGRAM, 1));
+    }
+
+    @Test
+    void limitKeepsTheEligibleCount() {
+        Leaderboard leaderboard = new Leaderboard();
+        for (int id = 1; id <= 10; id++) {
+            leaderboard.add(user(id, 295 + id, "Chemistry", "Biology"));
+        }
+
+        List<RankedUser> top = leaderboard.top(PROGRAM, 2);
+
+        assertEquals(2, top.size());
+        assertEquals(305, top.get(0).getTotalScore());
+        assertEquals(6, top.get(0).getEligibleCount());
+    }
+
+    @Test
+    void otherElectivesAreNotEligible() {
+        Leaderboard leaderboard = new Leaderboard();
+        assertTrue(leaderboard.add(user(1, 400, "Physics", "Math")));
+
+        assertTrue(leaderboard.top(PROGRAM, 10).isEmpty());
+        assertNull(leaderboard.rankOf(PROGRAM, 1));
+    }
+
+    @Test
+    void usersWithoutFiveScoresAreNotRanked() {
+        Leaderboard leaderboard = new Leaderboard();
+        User user = new User(1, "First", "Last", "1@mail.kz", "password",
+                List.of(new SubjectScore("Chemistry", 200), new SubjectScore("Biology", 200)));
+
+        assertFalse(leaderboard.add(user));
+        assertFalse(leaderboard.contains(1));
+    }
+}
@@ -0,0 +1,77 @@
+package matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankTreeTest {
+    @Test
+    void matchesTreeSetOnRandomKeys() {
+        Random random = new Random(42);
+        // Starts small so the node arrays grow several times
+        RankTree tree = new RankTree(1);
+        TreeSet<Long> expected = new TreeSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            // Narrow range, so some keys repeat
+            long key = random.nextInt(50_000) - 25_000;
+            assertEquals(expected.add(key), tree.insert(key));
+        }
+        assertEquals(expected.size(), tree.size());
+
+        List<Long> sorted = new ArrayList<>(expected);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), tree.select(i));
+            assertEquals(i, tree.rank(sorted.get(i)));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            long key = random.nextInt(60_000) - 30_000;
+            assertEquals(expected.headSet(key, false).size(), tree.rank(key));
+            assertEquals(expected.contains(key), tree.contains(key));
+        }
+    }
+
+    @Test
+    void ascendingStopsAtLimit() {
+        Random random = new Random(7);
+        RankTree tree = new RankTree(16);
+        TreeSet<Long> expected = new TreeSet<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            long key = random.nextLong();
+            expected.add(key);
+            tree.insert(key);
+        }
+
+        List<Long> all = new ArrayList<>();
+        tree.ascending(Integer.MAX_VALUE, all::add);
+        assertEquals(new ArrayList<>(expected), all);
+
+        List<Long> first = new ArrayList<>();
+        tree.ascending(10, first::add);
+        assertEquals(all.subList(0, 10), first);
+    }
+
+    @Test
+    void emptyTree() {
+        RankTree tree = new RankTree(0);
+
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.rank(Long.MAX_VALUE));
+        assertFalse(tree.contains(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(0));
+
+        List<Long> visited = new ArrayList<>();
+        tree.ascending(5, visited::add);
+        assertTrue(visited.isEmpty());
+    }
+}
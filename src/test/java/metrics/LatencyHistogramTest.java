@@ -0,0 +1,74 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    // Median of the value and a far larger one, which is the highest value of the value's bucket
+    private static long bucketEnd(long value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(1_000_000);
+        return histogram.getPercentileNanos(50);
+    }
+
+    @Test
+    void valuesBelow64HaveTheirOwnBucket() {
+        assertEquals(0, bucketEnd(0));
+        assertEquals(31, bucketEnd(31));
+        assertEquals(32, bucketEnd(32));
+        assertEquals(33, bucketEnd(33));
+        assertEquals(63, bucketEnd(63));
+    }
+
+    @Test
+    void bucketsWidenAbove64() {
+        assertEquals(65, bucketEnd(64));
+        assertEquals(65, bucketEnd(65));
+        assertEquals(67, bucketEnd(66));
+        assertEquals(131, bucketEnd(128));
+    }
+
+    @Test
+    void percentileIsWithinOneBucketOfTheValue() {
+        for (long value = 1; value < 1_000_000; value = value * 3 + 1) {
+            long end = bucketEnd(value);
+            // Off by at most 1/32 of the value
+            assertTrue(end >= value && end - value <= value / 32, "value " + value + " gave " + end);
+        }
+    }
+
+    @Test
+    void percentileNeverExceedsTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(64);
+        histogram.record(64);
+
+        assertEquals(64, histogram.getPercentileNanos(50));
+        assertEquals(64, histogram.getPercentileNanos(100));
+        assertEquals(64, histogram.getMaxNanos());
+        assertEquals(2, histogram.getCount());
+        assertEquals(64, histogram.getMeanNanos());
+    }
+
+    @Test
+    void negativeAndHugeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals((1L << 41) - 1, histogram.getMaxNanos());
+    }
+
+    @Test
+    void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+}
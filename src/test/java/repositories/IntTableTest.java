@@ -0,0 +1,120 @@
+package repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IntTableTest {
+    @Test
+    void idsStartAtOneAndRowsCrossSegments() {
+        IntTable<String> table = new IntTable<>();
+
+        assertEquals(1, table.nextId());
+        // Two segments of 4096 rows and a few more
+        for (int id = 1; id <= 10_000; id++) {
+            if (id > 1)
+                assertEquals(id, table.nextId());
+            table.put(id, "row " + id);
+        }
+
+        assertEquals(10_000, table.lastId());
+        assertEquals("row 1", table.get(1));
+        assertEquals("row 4095", table.get(4095));
+        assertEquals("row 4096", table.get(4096));
+        assertEquals("row 10000", table.get(10_000));
+        assertEquals("row 10000", table.last());
+    }
+
+    @Test
+    void missingIdsAreNull() {
+        IntTable<String> table = new IntTable<>();
+        table.put(table.nextId(), "row");
+
+        assertNull(table.get(-1));
+        assertNull(table.get(0));
+        assertNull(table.get(2));
+        assertNull(table.get(1 << 20));
+    }
+
+    @Test
+    void forEachAfterSkipsReservedIdsAndStops() {
+        IntTable<String> table = new IntTable<>();
+        for (int i = 0; i < 6; i++) {
+            int id = table.nextId();
+            // Even ids are reserved but never put
+            if (id % 2 == 1)
+                table.put(id, "row " + id);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        table.forEachAfter(1, (id, row) -> {
+            visited.add(id);
+            return visited.size() < 1;
+        });
+        assertEquals(List.of(3), visited);
+
+        List<String> all = new ArrayList<>();
+        table.forEach(all::add);
+        assertEquals(List.of("row 1", "row 3", "row 5"), all);
+        assertEquals("row 5", table.last());
+    }
+
+    @Test
+    void updateAppliesEveryConcurrentChange() throws Exception {
+        IntTable<Integer> table = new IntTable<>();
+        int id = table.nextId();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                done.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        table.update(id, count -> count == null ? 1 : count + 1);
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(40_000, table.get(id));
+    }
+
+    @Test
+    void concurrentPutsAreAllVisible() throws Exception {
+        IntTable<Integer> table = new IntTable<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                done.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int id = table.nextId();
+                        table.put(id, id);
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int id = 1; id <= 20_000; id++) {
+            assertEquals(id, table.get(id));
+        }
+    }
+}